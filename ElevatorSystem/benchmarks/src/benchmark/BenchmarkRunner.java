@@ -0,0 +1,33 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the whole benchmark suite with the GC profiler attached, so that every result also
+ * carries its allocation rate (gc.alloc.rate.norm is bytes allocated per operation).
+ */
+public class BenchmarkRunner {
+
+  /**
+   * Run the suite.
+   *
+   * @param args optional: a regular expression selecting benchmarks, and a results file path.
+   * @throws RunnerException if JMH fails to run.
+   */
+  public static void main(String[] args) throws RunnerException {
+    String include = args.length > 0 ? args[0] : "benchmark\\..*";
+    String output = args.length > 1 ? args[1] : "results/latest.txt";
+    Options options = new OptionsBuilder()
+        .include(include)
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.TEXT)
+        .result(output)
+        .build();
+    new Runner(options).run();
+  }
+}
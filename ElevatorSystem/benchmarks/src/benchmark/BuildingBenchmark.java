@@ -0,0 +1,159 @@
+package benchmark;
+
+import building.Building;
+import building.BuildingReport;
+import building.BuildingStatusTable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the building: stepping, request distribution and report generation across
+ * building shapes ("floors x elevators x capacity") and queue depths.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BuildingBenchmark {
+
+  /**
+   * Number of ticks run by one stepBacklog operation.
+   */
+  static final int TICKS_PER_RUN = 1000;
+
+  /**
+   * A fresh running building with a backlog, rebuilt for every iteration so that the backlog
+   * drains the same way each time.
+   */
+  @State(Scope.Thread)
+  public static class IterationBacklog {
+    @Param({"6x8x3", "30x16x10", "30x64x20"})
+    public String shape;
+
+    @Param({"0", "1000", "10000"})
+    public int queueDepth;
+
+    Building building;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      this.building = Workloads.buildingWithBacklog(this.shape, this.queueDepth);
+    }
+  }
+
+  /**
+   * A fresh running building with a backlog, rebuilt for every invocation so that the measured
+   * step is always the first one, where every elevator waits in the lobby for requests.
+   */
+  @State(Scope.Thread)
+  public static class InvocationBacklog {
+    @Param({"6x8x3", "30x16x10", "30x64x20"})
+    public String shape;
+
+    @Param({"0", "1000", "10000"})
+    public int queueDepth;
+
+    Building building;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+      this.building = Workloads.buildingWithBacklog(this.shape, this.queueDepth);
+    }
+  }
+
+  /**
+   * A fresh running building with a backlog, stepped once before every read of its status, so
+   * that every read sees a change and makes or fills a report instead of returning the last one.
+   * It is rebuilt for every iteration, so every iteration sees the same steps. The backlog drains
+   * during an iteration, so queueDepth is the depth the iteration starts with.
+   */
+  @State(Scope.Thread)
+  public static class SteppedBacklog {
+    @Param({"6x8x3", "30x16x10", "30x64x20"})
+    public String shape;
+
+    @Param({"0", "1000", "10000"})
+    public int queueDepth;
+
+    Building building;
+    BuildingStatusTable table;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      this.building = Workloads.buildingWithBacklog(this.shape, this.queueDepth);
+      this.table = this.building.getStatusTable(null);
+    }
+  }
+
+  /**
+   * Run TICKS_PER_RUN ticks of a building that starts with a backlog of queued requests.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 20, batchSize = 1)
+  @Measurement(iterations = 50, batchSize = 1)
+  public Building stepBacklog(IterationBacklog state) {
+    Building building = state.building;
+    for (int i = 0; i < TICKS_PER_RUN; i++) {
+      building.step();
+    }
+    return building;
+  }
+
+  /**
+   * The first step of a started building, which hands the backlog out to the lobby elevators.
+   * This is where distributeRequest does all of its work.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Building distributeRequest(InvocationBacklog state) {
+    state.building.step();
+    return state.building;
+  }
+
+  /**
+   * One step, without reading the status. The cost of a report is the time of the status
+   * benchmarks less this one.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Building stepWithoutStatus(SteppedBacklog state) {
+    state.building.step();
+    return state.building;
+  }
+
+  /**
+   * One step, then generate a building report of it.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public BuildingReport getElevatorSystemStatus(SteppedBacklog state) {
+    state.building.step();
+    return state.building.getElevatorSystemStatus();
+  }
+
+  /**
+   * One step, then fill a reused building status table in place with it.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public BuildingStatusTable getElevatorSystemStatusReused(SteppedBacklog state) {
+    state.building.step();
+    return state.building.getStatusTable(state.table);
+  }
+}
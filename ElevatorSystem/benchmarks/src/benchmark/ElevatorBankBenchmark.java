@@ -0,0 +1,106 @@
+package benchmark;
+
+import elevator.Elevator;
+import elevator.ElevatorBank;
+import elevator.ElevatorInterface;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Benchmarks for stepping a fleet of elevators once, either as one ElevatorBank or as separate
+ * Elevator objects stepped one by one through ElevatorInterface. Waiting elevators are handed a
+ * full load first, the same way as in ElevatorBenchmark.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ElevatorBankBenchmark {
+
+  private static final int FLOORS = 30;
+  private static final int CAPACITY = 20;
+
+  @Param({"16", "4096"})
+  public int elevators;
+
+  private ElevatorBank bank;
+  private ElevatorInterface[] bankViews;
+  private ElevatorInterface[] separate;
+  private List<Request> upRequests;
+  private List<Request> downRequests;
+
+  /**
+   * Start a bank and the same number of separate elevators, with their starts spread over a run
+   * so that the elevators are not all in the same state.
+   */
+  @Setup
+  public void setUp() {
+    this.bank = new ElevatorBank(this.elevators, FLOORS, CAPACITY);
+    this.bankViews = new ElevatorInterface[this.elevators];
+    this.separate = new ElevatorInterface[this.elevators];
+    this.upRequests = Workloads.upBatch(FLOORS, CAPACITY);
+    this.downRequests = Workloads.downBatch(FLOORS, CAPACITY);
+    for (int i = 0; i < this.elevators; i++) {
+      this.bankViews[i] = this.bank.getElevator(i);
+      this.separate[i] = new Elevator(FLOORS, CAPACITY);
+      this.bankViews[i].start();
+      this.separate[i].start();
+      for (int tick = 0; tick < i % 97; tick++) {
+        this.load(this.bankViews[i]);
+        this.bankViews[i].step();
+        this.load(this.separate[i]);
+        this.separate[i].step();
+      }
+    }
+  }
+
+  /**
+   * Step every elevator of the bank in one loop.
+   */
+  @Benchmark
+  public int bankStep() {
+    for (ElevatorInterface elevator : this.bankViews) {
+      this.load(elevator);
+    }
+    this.bank.step();
+    return this.bankViews[0].getCurrentFloor();
+  }
+
+  /**
+   * Step separate elevators one by one.
+   */
+  @Benchmark
+  public int separateStep() {
+    for (ElevatorInterface elevator : this.separate) {
+      this.load(elevator);
+    }
+    for (ElevatorInterface elevator : this.separate) {
+      elevator.step();
+    }
+    return this.separate[0].getCurrentFloor();
+  }
+
+  private void load(ElevatorInterface elevator) {
+    if (elevator.isTakingRequests()) {
+      if (elevator.getCurrentFloor() == 0) {
+        elevator.processRequests(this.upRequests);
+      } else if (elevator.getCurrentFloor() == FLOORS - 1) {
+        elevator.processRequests(this.downRequests);
+      }
+    }
+  }
+}
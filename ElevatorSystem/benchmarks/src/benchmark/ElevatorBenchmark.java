@@ -0,0 +1,69 @@
+package benchmark;
+
+import elevator.Elevator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Benchmarks for a single elevator stepping through full up and down runs. Every time the
+ * elevator waits at the bottom or the top, it is handed a full load of requests, so the
+ * measurement covers moving, door and end wait steps in their natural proportions.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ElevatorBenchmark {
+
+  @Param({"6", "30"})
+  public int floors;
+
+  @Param({"3", "20"})
+  public int capacity;
+
+  private Elevator elevator;
+  private List<Request> upRequests;
+  private List<Request> downRequests;
+
+  /**
+   * Start an elevator and prepare full loads for both directions.
+   */
+  @Setup
+  public void setUp() {
+    this.elevator = new Elevator(this.floors, this.capacity);
+    this.elevator.start();
+    this.upRequests = Workloads.upBatch(this.floors, this.capacity);
+    this.downRequests = Workloads.downBatch(this.floors, this.capacity);
+  }
+
+  /**
+   * Step the elevator once, loading it first if it is waiting for requests.
+   */
+  @Benchmark
+  public int step() {
+    Elevator elevator = this.elevator;
+    if (elevator.isTakingRequests()) {
+      if (elevator.getCurrentFloor() == 0) {
+        elevator.processRequests(this.upRequests);
+      } else if (elevator.getCurrentFloor() == this.floors - 1) {
+        elevator.processRequests(this.downRequests);
+      }
+    }
+    elevator.step();
+    return elevator.getCurrentFloor();
+  }
+}
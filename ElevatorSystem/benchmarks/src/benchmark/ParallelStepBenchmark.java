@@ -0,0 +1,75 @@
+package benchmark;
+
+import elevator.ElevatorBank;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for stepping an ElevatorBank one elevator after the other or split across the common
+ * ForkJoinPool, to find the fleet size where parallel stepping starts to pay off. The parallel
+ * step is forced with a threshold of 0, so it is measured at every size. ElevatorBank's
+ * PARALLEL_THRESHOLD is derived from these numbers, kept in results/parallel-step.txt; run it
+ * again on a machine with more cores to check the crossover there.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ParallelStepBenchmark {
+
+  private static final int FLOORS = 30;
+  private static final int CAPACITY = 20;
+
+  @Param({"256", "1024", "4096", "16384", "65536", "262144"})
+  public int elevators;
+
+  private ElevatorBank bank;
+  private ForkJoinPool pool;
+
+  /**
+   * Start a bank with the elevators spread over a run, so that they are not all in the same
+   * state.
+   */
+  @Setup
+  public void setUp() {
+    this.bank = new ElevatorBank(this.elevators, FLOORS, CAPACITY);
+    this.pool = ForkJoinPool.commonPool();
+    for (int i = 0; i < this.elevators; i++) {
+      this.bank.getElevator(i).start();
+      for (int tick = 0; tick < i % 97; tick++) {
+        this.bank.getElevator(i).step();
+      }
+    }
+  }
+
+  /**
+   * Step the bank in one loop on this thread.
+   */
+  @Benchmark
+  public int serialStep() {
+    this.bank.step();
+    return this.bank.getElevator(0).getCurrentFloor();
+  }
+
+  /**
+   * Step the bank split across the common pool.
+   */
+  @Benchmark
+  public int parallelStep() {
+    this.bank.step(this.pool, 0);
+    return this.bank.getElevator(0).getCurrentFloor();
+  }
+}
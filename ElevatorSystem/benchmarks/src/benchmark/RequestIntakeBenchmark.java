@@ -0,0 +1,152 @@
+package benchmark;
+
+import building.RequestIntake;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Benchmarks for adding requests from 64 threads at once while one thread takes them out, the way
+ * Building.addRequest and Building.step use the intake. The lock-free RequestIntake is compared
+ * with a synchronized ArrayDeque and a ConcurrentLinkedQueue. The consumer takes out up to a batch
+ * of requests on every call, so that a call ends even while the producers keep adding, and the
+ * queue is emptied at the end of every iteration.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+public class RequestIntakeBenchmark {
+
+  private static final Request REQUEST = new Request(0, 1);
+  private static final int BATCH = 4096;
+
+  @Param({"lockFree", "synchronized", "concurrentLinked"})
+  public String intake;
+
+  private Intake queue;
+
+  /**
+   * Make the intake to measure.
+   */
+  @Setup
+  public void setUp() {
+    switch (this.intake) {
+      case "lockFree":
+        this.queue = new LockFreeIntake();
+        break;
+      case "synchronized":
+        this.queue = new SynchronizedIntake();
+        break;
+      case "concurrentLinked":
+        this.queue = new ConcurrentLinkedIntake();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown intake: " + this.intake);
+    }
+  }
+
+  /**
+   * Drop what the consumer did not get to, so that it does not carry over to the next iteration.
+   */
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    while (this.queue.drain() > 0) {
+      // Keep draining.
+    }
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(64)
+  public void add() {
+    this.queue.add(REQUEST);
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public int drain() {
+    return this.queue.drain();
+  }
+
+  /**
+   * The two operations the building needs from an intake.
+   */
+  private interface Intake {
+    void add(Request request);
+
+    int drain();
+  }
+
+  private static final class LockFreeIntake implements Intake {
+    private final RequestIntake intake = new RequestIntake();
+
+    @Override
+    public void add(Request request) {
+      this.intake.add(request);
+    }
+
+    @Override
+    public int drain() {
+      int count = 0;
+      while (count < BATCH && this.intake.poll() != null) {
+        count++;
+      }
+      return count;
+    }
+  }
+
+  private static final class SynchronizedIntake implements Intake {
+    private final ArrayDeque<Request> deque = new ArrayDeque<>();
+
+    @Override
+    public synchronized void add(Request request) {
+      this.deque.add(request);
+    }
+
+    @Override
+    public synchronized int drain() {
+      int count = this.deque.size();
+      this.deque.clear();
+      return count;
+    }
+  }
+
+  private static final class ConcurrentLinkedIntake implements Intake {
+    private final Queue<Request> queue = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void add(Request request) {
+      this.queue.add(request);
+    }
+
+    @Override
+    public int drain() {
+      int count = 0;
+      while (count < BATCH && this.queue.poll() != null) {
+        count++;
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import building.Building;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * Shared fixtures for the benchmarks: building shapes and deterministic request backlogs, so
+ * that every benchmark sees the same traffic for the same parameters.
+ */
+final class Workloads {
+
+  private Workloads() {
+  }
+
+  /**
+   * Create a building from a shape string of the form "floorsxelevatorsxcapacity", e.g. "6x8x3".
+   *
+   * @param shape the building shape.
+   * @return a new, not yet started building.
+   */
+  static Building building(String shape) {
+    String[] parts = shape.split("x");
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Shape must be floors x elevators x capacity: " + shape);
+    }
+    return new Building(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+        Integer.parseInt(parts[2]));
+  }
+
+  /**
+   * Create a started building with a backlog of queued requests, half up from the lobby and half
+   * down from the top floor.
+   *
+   * @param shape the building shape.
+   * @param queueDepth the number of requests to queue.
+   * @return a running building holding queueDepth pending requests.
+   */
+  static Building buildingWithBacklog(String shape, int queueDepth) {
+    Building building = building(shape);
+    building.startElevatorSystem();
+    int floors = building.getElevatorSystemStatus().getNumFloors();
+    for (Request request : backlog(floors, queueDepth)) {
+      building.addRequest(request);
+    }
+    return building;
+  }
+
+  /**
+   * Create a deterministic list of requests that alternates lobby-to-floor and top-to-floor trips.
+   *
+   * @param floors the number of floors in the building.
+   * @param count the number of requests to create.
+   * @return the requests.
+   */
+  static List<Request> backlog(int floors, int count) {
+    List<Request> requests = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int floor = 1 + (i / 2) % (floors - 1);
+      if (i % 2 == 0) {
+        requests.add(new Request(0, floor));
+      } else {
+        requests.add(new Request(floors - 1, floors - 1 - floor));
+      }
+    }
+    return requests;
+  }
+
+  /**
+   * Create a batch of up requests from the lobby.
+   *
+   * @param floors the number of floors in the building.
+   * @param count the number of requests to create.
+   * @return the requests.
+   */
+  static List<Request> upBatch(int floors, int count) {
+    List<Request> requests = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      requests.add(new Request(0, 1 + i % (floors - 1)));
+    }
+    return requests;
+  }
+
+  /**
+   * Create a batch of down requests from the top floor.
+   *
+   * @param floors the number of floors in the building.
+   * @param count the number of requests to create.
+   * @return the requests.
+   */
+  static List<Request> downBatch(int floors, int count) {
+    List<Request> requests = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      requests.add(new Request(floors - 1, floors - 2 - i % (floors - 1)));
+    }
+    return requests;
+  }
+}
@@ -1,21 +1,183 @@
 import building.Building;
+import building.dispatch.CollectiveDispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import simulation.HeadlessRunner;
+import simulation.RunReport;
+import simulation.TraceReplayer;
+import simulation.trace.TraceReader;
+import simulation.trace.TrafficPattern;
+import simulation.trace.WorkloadGenerator;
 
 /**
  * The driver for the elevator system.
  * This class will create the elevator system model, view and controller. By calling the
- * start method on the controller, the elevator system will start running.
+ * start method on the controller, the elevator system will start running, one step per second
+ * or one step every --tick-ms milliseconds, as fast as possible with --tick-ms=0. The window is
+ * drawn for the building of the --floors and --elevators options, with at most 30 floors.
+ * With the --headless option the building runs without a display instead, as fast as possible,
+ * and the throughput is printed at the end of the run. The requests are uniform random traffic,
+ * traffic of a standard pattern with the --pattern option, or replayed from a trace file with the
+ * --trace option.
  */
 public class MainConsole {
 
+  private static final String USAGE = "Usage: java -jar Elevator.jar [--headless]"
+      + " [--ticks=N] [--floors=N] [--elevators=N] [--capacity=N] [--arrivals=RATE]"
+      + " [--seed=N] [--dispatch=terminal|collective] [--sweep=full|look]"
+      + " [--dwell=fixed|when_idle] [--pattern=up_peak|down_peak|lunch|uniform]"
+      + " [--trace=FILE.csv|FILE.jsonl|FILE.trace] [--tick-ms=N]";
+
   /**
    * The main method for the elevator system.
    * This method creates the elevator system and runs it.
    * @param args the command line arguments, if any
    */
   public static void main(String[] args) {
-    Building building = new Building(6, 8, 3);
-    SwingElevatorView view = new SwingElevatorView("Elevator System");
+    Map<String, String> options;
+    try {
+      options = parseOptions(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(1);
+      return;
+    }
+    try {
+      if (options.containsKey("headless")) {
+        runHeadless(options);
+      } else {
+        runSwing(options);
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Run a building in a window, one step every --tick-ms milliseconds.
+   * @param options the command line options
+   * @throws IllegalArgumentException if an option is not valid
+   */
+  private static void runSwing(Map<String, String> options) throws IllegalArgumentException {
+    int floors = intOption(options, "floors", 6);
+    int elevators = intOption(options, "elevators", 8);
+    int capacity = intOption(options, "capacity", 3);
+    int tickMillis = intOption(options, "tick-ms",
+        (int) SwingElevatorController.DEFAULT_TICK_MILLIS);
+    if (tickMillis < 0) {
+      throw new IllegalArgumentException("--tick-ms cannot be negative.");
+    }
+    Building building = new Building(floors, elevators, capacity);
+    SwingElevatorView view = new SwingElevatorView("Elevator System", floors, elevators);
     SwingElevatorController controller = new SwingElevatorController(view, building);
-    controller.autoRun();
+    controller.autoRun(tickMillis);
+  }
+
+  /**
+   * Run a building without a display and print the report of the run.
+   * @param options the command line options
+   * @throws IllegalArgumentException if an option is not valid
+   */
+  private static void runHeadless(Map<String, String> options) throws IllegalArgumentException {
+    int ticks = intOption(options, "ticks", 1_000_000);
+    int floors = intOption(options, "floors", 6);
+    int elevators = intOption(options, "elevators", 8);
+    int capacity = intOption(options, "capacity", 3);
+    double arrivals = doubleOption(options, "arrivals", 0.1);
+    long seed = intOption(options, "seed", 0);
+
+    String dispatch = options.getOrDefault("dispatch", "terminal");
+    Building building;
+    if ("terminal".equalsIgnoreCase(dispatch)) {
+      building = new Building(floors, elevators, capacity, new TerminalDispatchStrategy());
+    } else if ("collective".equalsIgnoreCase(dispatch)) {
+      building = new Building(floors, elevators, capacity, new CollectiveDispatchStrategy());
+    } else {
+      throw new IllegalArgumentException("Unknown dispatch strategy: " + dispatch);
+    }
+    building.setSweepMode(enumOption(options, "sweep", SweepMode.FULL));
+    building.setDwellPolicy(enumOption(options, "dwell", DwellPolicy.FIXED));
+    building.startElevatorSystem();
+
+    RunReport report;
+    if (options.containsKey("trace")) {
+      try (TraceReader trace = TraceReader.open(Paths.get(options.get("trace")))) {
+        report = new TraceReplayer(building, trace).run(ticks);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Cannot read the trace: " + e.getMessage());
+      }
+    } else if (options.containsKey("pattern")) {
+      TrafficPattern pattern = enumOption(options, "pattern", TrafficPattern.UNIFORM);
+      WorkloadGenerator traffic = new WorkloadGenerator(pattern, floors, arrivals, ticks, seed);
+      report = new TraceReplayer(building, traffic).run(ticks);
+    } else {
+      report = new HeadlessRunner(building, arrivals, seed).run(ticks);
+    }
+    System.out.print(report);
+  }
+
+  /**
+   * Parse options of the form --name=value, or --name for a flag.
+   * @param args the command line arguments
+   * @return the options by name
+   * @throws IllegalArgumentException if an argument is not an option
+   */
+  private static Map<String, String> parseOptions(String[] args) throws IllegalArgumentException {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Unknown argument: " + arg);
+      }
+      int equals = arg.indexOf('=');
+      if (equals < 0) {
+        options.put(arg.substring(2), "");
+      } else {
+        options.put(arg.substring(2, equals), arg.substring(equals + 1));
+      }
+    }
+    return options;
+  }
+
+  private static int intOption(Map<String, String> options, String name, int defaultValue) {
+    if (!options.containsKey(name)) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(options.get(name).replace("_", ""));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("--" + name + " must be an integer.");
+    }
+  }
+
+  private static double doubleOption(Map<String, String> options, String name,
+      double defaultValue) {
+    if (!options.containsKey(name)) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(options.get(name));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("--" + name + " must be a number.");
+    }
+  }
+
+  private static <E extends Enum<E>> E enumOption(Map<String, String> options, String name,
+      E defaultValue) {
+    if (!options.containsKey(name)) {
+      return defaultValue;
+    }
+    try {
+      return Enum.valueOf(defaultValue.getDeclaringClass(), options.get(name).toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown value for --" + name + ": " + options.get(name));
+    }
   }
-}
\ No newline at end of file
+}
@@ -1,30 +1,81 @@
 import building.Building;
-import java.util.Objects;
-import java.util.Timer;
+import building.BuildingListener;
+import building.BuildingReport;
+import building.enums.Direction;
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
 import scanerzus.Request;
+import simulation.SimulationClock;
 
 /**
  * This is the controller for the elevator system. It is responsible for handling user input and
- * updating the view.
+ * updating the view. It listens to the building, so the view shows the whole building once and
+ * after that only what changed.
+ *
+ * <p>The building steps on the thread of a simulation clock, at its own rate, and the view is
+ * only updated on the Swing thread. The changes the building tells about are kept here, and at
+ * most once per frame the latest of them are handed to the Swing thread with invokeLater. So a
+ * fast simulation does not wait for the display, and the display only draws what it can show.
+ *
+ * <p>Only the clock thread changes the building. The buttons of the view submit commands to the
+ * clock, which runs them between two steps and hands any error back to the Swing thread.
  */
-public class SwingElevatorController {
+public class SwingElevatorController implements BuildingListener {
+  /************************************************************************
+   * The default time of a tick, and the shortest time between two frames,
+   * about 60 frames per second.
+   ************************************************************************/
+  public static final long DEFAULT_TICK_MILLIS = 1000;
+  private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+
   private final SwingElevatorView view;
   private final Building building;
+  private final int numFloors;
+  private final SimulationClock clock;
+
+  /************************************************************************
+   * The changes that were not shown yet, guarded by this controller.
+   * changedFloors holds the elevators that moved, or -1 if one did not.
+   * The queues are the live views the building hands to queueChanged,
+   * which are only read on the clock thread; they are written out at
+   * most once per frame, when the frame is posted.
+   ************************************************************************/
+  private final int[] changedFloors;
+  private final Direction[] changedDirections;
+  private List<Request> upQueue;
+  private List<Request> downQueue;
+  private boolean queueChanged;
+  private String changedUpRequests;
+  private String changedDownRequests;
+  private ElevatorSystemStatus changedStatus;
+  private boolean changed;
+  private boolean framePosted;
 
   public SwingElevatorController(SwingElevatorView view, Building building) {
     this.view = view;
     this.building = building;
+    BuildingReport report = building.getLatestReport();
+    this.numFloors = report.getNumFloors();
+    this.changedFloors = new int[report.getNumElevators()];
+    this.changedDirections = new Direction[report.getNumElevators()];
+    Arrays.fill(this.changedFloors, -1);
+    this.clock = new SimulationClock(building::step,
+        TimeUnit.MILLISECONDS.toNanos(DEFAULT_TICK_MILLIS), this::postFrame, FRAME_NANOS);
   }
 
   /**
-   * Renew the status of all individual elevators.
+   * Renew the status of all individual elevators from a report.
+   * @param report the status of the building
    */
-  private void showAllElevatorStatus() {
-    for (int i = 0; i < this.building.getElevatorSystemStatus().getNumElevators(); i++) {
-      this.view.displayElevatorStatus(i,
-          this.building.getElevatorSystemStatus().getElevatorReports()[i].getCurrentFloor(),
-          this.building.getElevatorSystemStatus().getElevatorReports()[i].getDirection().toString()
-      );
+  private void showAllElevatorStatus(BuildingReport report) {
+    ElevatorReport[] elevatorReports = report.getElevatorReports();
+    for (int i = 0; i < report.getNumElevators(); i++) {
+      this.view.displayElevatorStatus(i, elevatorReports[i].getCurrentFloor(),
+          elevatorReports[i].getDirection());
     }
   }
 
@@ -36,7 +87,7 @@ public class SwingElevatorController {
   }
 
   /**
-   * Make a request to the elevator system.
+   * Make a request to the elevator system. The request is added between two steps.
    * @param startFloor the floor where the request starts
    * @param destinationFloor the floor where the request ends
    * @throws NumberFormatException if the input is not an integer
@@ -47,25 +98,27 @@ public class SwingElevatorController {
         this.view.displayError("Please enter two integers.");
         return;
       }
-      String systemStatus = this.building.getElevatorSystemStatus().getSystemStatus().toString();
-      if ("Out Of Service".equals(systemStatus) || "Stopping".equals(systemStatus)) {
-        this.view.displayError("The system is not taking requests."
-            + "Please restart it before making new requests.");
-        return;
-      }
       int start = Integer.parseInt(startFloor);
       int destination = Integer.parseInt(destinationFloor);
       // Check if the request is valid.
-      if (start < 0 || start > 5
-          || destination < 0 || destination > 5 || start == destination) {
+      int top = this.numFloors - 1;
+      if (start < 0 || start > top
+          || destination < 0 || destination > top || start == destination) {
         this.view.displayError(
-            "Invalid request. Please enter two different integers in range 0-5.");
+            "Invalid request. Please enter two different integers in range 0-" + top + ".");
         return;
       }
-      this.building.addRequest(new Request(start, destination));
-      this.view.displayRequestInformation(
-          this.building.getElevatorSystemStatus().getUpRequests().toString(),
-          this.building.getElevatorSystemStatus().getDownRequests().toString());
+      this.clock.submit(() -> {
+        if (this.building.getElevatorSystemStatus().getSystemStatus()
+            != ElevatorSystemStatus.running) {
+          this.showError("The system is not taking requests."
+              + "Please restart it before making new requests.");
+          return;
+        }
+        // The building tells the view what changed.
+        this.building.addRequest(new Request(start, destination));
+        this.postFrame();
+      });
     } catch (NumberFormatException e) {
       this.view.displayError("Invalid input. Please enter two integers.");
     }
@@ -75,51 +128,170 @@ public class SwingElevatorController {
    * Restart the elevator system. Only works if the system is out of service.
    */
   public void restart() {
-    String systemStatus = this.building.getElevatorSystemStatus().getSystemStatus().toString();
-    if (Objects.equals(systemStatus, "Out Of Service")) {
+    this.clock.submit(() -> {
+      ElevatorSystemStatus status = this.building.getElevatorSystemStatus().getSystemStatus();
+      if (status != ElevatorSystemStatus.outOfService) {
+        this.showError("The system is " + status
+            + ". It cannot be restarted now. Please wait until it is out of service.");
+        return;
+      }
+      // The building tells the view what changed.
       this.building.startElevatorSystem();
-      this.view.displaySystemStatus(
-          this.building.getElevatorSystemStatus().getSystemStatus().toString());
-      showAllElevatorStatus();
-    } else {
-      String message = "The system is " + systemStatus
-          + ". It cannot be restarted now. Please wait until it is out of service.";
-      this.view.displayError(message);
-    }
+      this.postFrame();
+    });
+  }
+
+  /**
+   * Show an error from the clock thread on the Swing thread.
+   * @param message the error message
+   */
+  private void showError(String message) {
+    SwingUtilities.invokeLater(() -> this.view.displayError(message));
   }
 
   /**
-   * Use the timer to enable the elevator system to run automatically.
+   * Run the elevator system automatically, one step per second.
    */
   public void autoRun() {
-    this.building.startElevatorSystem();
+    this.autoRun(DEFAULT_TICK_MILLIS);
+  }
+
+  /**
+   * Run the elevator system automatically on a simulation clock. The view shows the whole
+   * building once, and after that the building tells the controller what changed on each step.
+   * @param tickMillis the time of a step in milliseconds, or 0 to run as fast as possible
+   * @throws IllegalArgumentException if the time is negative
+   * @throws IllegalStateException if the system already runs automatically
+   */
+  public void autoRun(long tickMillis) throws IllegalArgumentException, IllegalStateException {
+    if (this.clock.isRunning()) {
+      throw new IllegalStateException("The system already runs automatically.");
+    }
+    this.setTickMillis(tickMillis);
     this.view.addFeatures(this);
-    Timer timer = new Timer();
-    timer.schedule(new java.util.TimerTask() {
-      @Override
-      public void run() {
-        building.step();
-        view.displaySystemStatus(building.getElevatorSystemStatus().getSystemStatus().toString());
-        showAllElevatorStatus();
-        view.displayRequestInformation(
-            building.getElevatorSystemStatus().getUpRequests().toString(),
-            building.getElevatorSystemStatus().getDownRequests().toString());
+    // The clock thread steps the building, so it also starts it and reads its first status.
+    this.clock.submit(() -> {
+      if (this.building.getElevatorSystemStatus().getSystemStatus()
+          == ElevatorSystemStatus.outOfService) {
+        this.building.startElevatorSystem();
       }
-    }, 0, 1000);
+      BuildingReport report = this.building.getElevatorSystemStatus();
+      this.building.addBuildingListener(this);
+      SwingUtilities.invokeLater(() -> {
+        this.view.displaySystemStatus(report.getSystemStatus().toString());
+        this.showAllElevatorStatus(report);
+        this.view.displayRequestInformation(report.getUpRequests().toString(),
+            report.getDownRequests().toString());
+      });
+    });
+    this.clock.start();
+  }
+
+  /**
+   * Change the time of a step, also while the system runs automatically.
+   * @param tickMillis the time of a step in milliseconds, or 0 to run as fast as possible
+   * @throws IllegalArgumentException if the time is negative
+   */
+  public void setTickMillis(long tickMillis) throws IllegalArgumentException {
+    if (tickMillis < 0) {
+      throw new IllegalArgumentException("The time of a step cannot be negative.");
+    }
+    this.clock.setTickNanos(TimeUnit.MILLISECONDS.toNanos(tickMillis));
+  }
+
+  @Override
+  public synchronized void elevatorMoved(int buildingId, int elevatorId, int floor,
+      Direction direction) {
+    this.changedFloors[elevatorId] = floor;
+    this.changedDirections[elevatorId] = direction;
+    this.changed = true;
+  }
+
+  @Override
+  public synchronized void queueChanged(int buildingId, List<Request> upRequests,
+      List<Request> downRequests) {
+    this.upQueue = upRequests;
+    this.downQueue = downRequests;
+    this.queueChanged = true;
+    this.changed = true;
+  }
+
+  @Override
+  public synchronized void statusChanged(int buildingId, ElevatorSystemStatus status) {
+    this.changedStatus = status;
+    this.changed = true;
+  }
+
+  /**
+   * Hand a frame to the Swing thread if something changed and the last frame was shown.
+   * The frame is only taken when it is shown, so it has the latest changes. This runs on the
+   * clock thread, which is the only one that may read the queues, so the queues are written
+   * out here.
+   */
+  private void postFrame() {
+    synchronized (this) {
+      if (!this.changed || this.framePosted) {
+        return;
+      }
+      this.framePosted = true;
+      if (this.queueChanged) {
+        this.changedUpRequests = this.upQueue.toString();
+        this.changedDownRequests = this.downQueue.toString();
+        this.queueChanged = false;
+      }
+    }
+    SwingUtilities.invokeLater(this::showFrame);
+  }
+
+  /**
+   * Show the changes that were not shown yet. This runs on the Swing thread.
+   */
+  private void showFrame() {
+    int[] floors;
+    Direction[] directions;
+    String upRequests;
+    String downRequests;
+    ElevatorSystemStatus status;
+    synchronized (this) {
+      floors = this.changedFloors.clone();
+      directions = this.changedDirections.clone();
+      upRequests = this.changedUpRequests;
+      downRequests = this.changedDownRequests;
+      status = this.changedStatus;
+      Arrays.fill(this.changedFloors, -1);
+      this.changedUpRequests = null;
+      this.changedDownRequests = null;
+      this.changedStatus = null;
+      // A queue that changed after the frame was posted is written out with the next frame.
+      this.changed = this.queueChanged;
+      this.framePosted = false;
+    }
+    if (status != null) {
+      this.view.displaySystemStatus(status.toString());
+    }
+    for (int i = 0; i < floors.length; i++) {
+      if (floors[i] >= 0) {
+        this.view.displayElevatorStatus(i, floors[i], directions[i]);
+      }
+    }
+    if (upRequests != null) {
+      this.view.displayRequestInformation(upRequests, downRequests);
+    }
   }
 
   /**
    * Stop the elevator system.
    */
   public void stop() {
-    String systemStatus = this.building.getElevatorSystemStatus().getSystemStatus().toString();
-    if ("Out Of Service".equals(systemStatus) || "Stopping".equals(systemStatus)) {
-      this.view.displayError("The system is " + systemStatus + ". It cannot be stopped now.");
-      return;
-    }
-    this.building.stopElevatorSystem();
-    this.view.displaySystemStatus(
-        this.building.getElevatorSystemStatus().getSystemStatus().toString());
-    showAllElevatorStatus();
+    this.clock.submit(() -> {
+      ElevatorSystemStatus status = this.building.getElevatorSystemStatus().getSystemStatus();
+      if (status != ElevatorSystemStatus.running) {
+        this.showError("The system is " + status + ". It cannot be stopped now.");
+        return;
+      }
+      // The building tells the view what changed.
+      this.building.stopElevatorSystem();
+      this.postFrame();
+    });
   }
 }
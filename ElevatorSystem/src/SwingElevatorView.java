@@ -1,7 +1,4 @@
-import java.awt.Color;
-import java.awt.Dimension;
-import java.awt.GridLayout;
-import javax.swing.BorderFactory;
+import building.enums.Direction;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
@@ -10,13 +7,13 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
-import javax.swing.SwingConstants;
 
 /**
  * This is the view for the elevator system. It is responsible for displaying the elevator system
  * and handling user input.
  */
 public class SwingElevatorView extends JFrame {
+  private static final long serialVersionUID = 1L;
   private final JButton exitButton;
   private final JButton restartButton;
   private final JButton stopButton;
@@ -24,38 +21,28 @@ public class SwingElevatorView extends JFrame {
   private final JLabel systemStatus;
   private final JTextField startFloor;
   private final JTextField destinationFloor;
-  private final JLabel[][] grid = new JLabel[6][8];
+  private final SwingBuildingPanel buildingPanel;
   private final JLabel requestInformation;
 
   /**
    * Constructs a new SwingElevatorView. It uses the swing library to create a GUI for the elevator
-   * system. The GUI consists of a grid of labels that represent the elevator system.
+   * system. The GUI consists of a panel that draws the elevator shafts of the building, sized for
+   * the number of floors and elevators.
    * @param title the title of the window
+   * @param numFloors the number of floors of the building
+   * @param numElevators the number of elevators of the building
+   * @throws IllegalArgumentException if there are no floors or no elevators
    */
-  public SwingElevatorView(String title) {
+  public SwingElevatorView(String title, int numFloors, int numElevators)
+      throws IllegalArgumentException {
     super(title);
     // Set up the window.
-    setSize(800, 400);
     setLocation(200, 200);
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-    // Set up the elevator panel, which is consisted of 8 elevators and 6 floors. Each elevator is
-    // represented by a label. The 7th row is used to display individual elevator's status.
-    JPanel elevatorPanel = new JPanel();
-    elevatorPanel.setLayout(new GridLayout(6, 8));
-    for (int i = 0; i < 6; i++) {
-      for (int j = 0; j < 8; j++) {
-        grid[i][j] = new JLabel();
-        grid[i][j].setOpaque(true);
-        grid[i][j].setPreferredSize(new Dimension(100, 50));
-        grid[i][j].setHorizontalAlignment(SwingConstants.CENTER);
-        grid[i][j].setVerticalAlignment(SwingConstants.CENTER);
-        grid[i][j].setBorder(BorderFactory.createLineBorder(Color.WHITE));
-        grid[i][j].setBackground(Color.WHITE);
-        elevatorPanel.add(grid[i][j]);
-      }
-    }
-    this.add(elevatorPanel);
+    // Set up the elevator panel, which has a column for each elevator and a row for each floor.
+    this.buildingPanel = new SwingBuildingPanel(numFloors, numElevators);
+    this.add(buildingPanel);
 
     // Set up the text box, which allows users to enter two integers to make requests.
     JPanel requestPanel = new JPanel();
@@ -124,27 +111,14 @@ public class SwingElevatorView extends JFrame {
   }
 
   /**
-   * Displays the status of each elevator. The text will be displayed in the lowest grid label,
-   * while the background color will be changed to represent the status of the elevator.
+   * Displays the status of each elevator. The block of the elevator is moved to its floor, and
+   * its color shows the direction: green for up, red for down and black when it stands.
    * @param index the index of the certain elevator
    * @param floor the floor of the certain elevator
    * @param direction the direction of the certain elevator
    */
-  public void displayElevatorStatus(int index, int floor, String direction) {
-    // If the elevator is moving up, change the background color to green. If the elevator is
-    // moving down, change the background color to red. Otherwise, change the background color to
-    // black.
-    int floorIndex = 5 - floor;
-    for (int i = 0; i < 6; i++) {
-      grid[i][index].setBackground(Color.WHITE);
-    }
-    if ("^".equals(direction)) {
-      grid[floorIndex][index].setBackground(Color.GREEN);
-    } else if ("v".equals(direction)) {
-      grid[floorIndex][index].setBackground(Color.RED);
-    } else {
-      grid[floorIndex][index].setBackground(Color.BLACK);
-    }
+  public void displayElevatorStatus(int index, int floor, Direction direction) {
+    this.buildingPanel.setElevator(index, floor, direction);
   }
 
   /**
@@ -159,4 +133,3 @@ public class SwingElevatorView extends JFrame {
     this.requestInformation.setText("Up: " + upRequests + " Down: " + downRequests);
   }
 }
-a
\ No newline at end of file
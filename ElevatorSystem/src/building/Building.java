@@ -1,36 +1,157 @@
 package building;
 
+import building.dispatch.DispatchContext;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
+import building.enums.Direction;
+import building.enums.DwellPolicy;
 import building.enums.ElevatorSystemStatus;
-import elevator.Elevator;
+import building.enums.SweepMode;
+import elevator.ElevatorBank;
 import elevator.ElevatorInterface;
 import elevator.ElevatorReport;
+import elevator.ElevatorState;
+import elevator.JourneyStats;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import scanerzus.Request;
 
 
 /**
  * This class represents a building. A building is composed of multiple elevators. It can control
  * over the elevators and process requests.
+ *
+ * <p>A building is owned by one thread at a time, which is the only one that steps it, starts or
+ * stops it, sets it up, reads its status or writes it to a checkpoint. The first thread to do
+ * one of these becomes the owner, until it calls releaseOwnership, and any other thread that
+ * tries gets an IllegalStateException. So these need no lock. Requests can be added and the
+ * latest report read from any thread.
  */
 public class Building implements BuildingInterface {
 
+  // A checkpoint starts with "ELCP" read as a little-endian int, the version of the format and
+  // the number of bytes that follow.
+  private static final int CHECKPOINT_MAGIC = 'E' | 'L' << 8 | 'C' << 16 | 'P' << 24;
+  private static final int CHECKPOINT_VERSION = 1;
+  private static final int CHECKPOINT_HEADER_BYTES = 12;
+  // The body of a checkpoint read from a channel that does not know its size is read into a
+  // buffer that starts at this size and doubles as the bytes arrive, so a corrupt header cannot
+  // make the reader allocate more than twice what the channel holds.
+  private static final int CHECKPOINT_READ_CHUNK = 64 * 1024;
+  // The size of the building, its status, tick, next request id and the lengths of the queues.
+  private static final int BUILDING_CHECKPOINT_BYTES = 41;
+  private static final int REQUEST_CHECKPOINT_BYTES = 24;
+
+  private final int buildingId;
+  private final ElevatorBank bank;
   private final ElevatorInterface[] elevators;
-  private ElevatorSystemStatus elevatorSystemStatus;
-  private final ArrayList<Request> upRequests;
-  private final ArrayList<Request> downRequests;
+  // The read-only views of the elevators handed to the dispatch strategy.
+  private final ElevatorState[] elevatorStates;
+  // Read by the threads adding requests, so it is volatile.
+  private volatile ElevatorSystemStatus elevatorSystemStatus;
+  private final RequestQueue upRequests;
+  private final RequestQueue downRequests;
+  // Requests added from any thread. The owner moves them to the up and down queues when it
+  // adds a request itself, at the start of a step, and when it starts or stops the building or
+  // writes it to a checkpoint. Status reads never take requests out.
+  private final RequestIntake intake = new RequestIntake();
+  // The thread that owns the building, or null if no thread does.
+  private final AtomicReference<Thread> owner = new AtomicReference<>();
+  // The number of steps the elevators have made, which the requests are stamped with when they
+  // arrive, and the id of the next request.
+  private long tick;
+  private long nextRequestId;
   private final int numberOfFloors;
   private final int numberOfElevators;
   private final int elevatorCapacity;
+  private final DispatchStrategy dispatchStrategy;
+  private final DispatchContext dispatchContext;
+  // The pool the elevators are stepped on, or null to step them one by one.
+  private ForkJoinPool stepPool;
+  // The requests being handed to an elevator. Elevators do not keep the list, so it is reused.
+  // It starts with room for a full elevator, so that handing requests out allocates nothing.
+  private final ArrayList<Request> handOut;
+  // The filter of the hall calls being handed out, reused so that handing them out allocates
+  // nothing.
+  private final HallCallFilter hallCallFilter = new HallCallFilter();
+  // Puts the passengers left behind back in the queues, made once so that a step allocates
+  // nothing.
+  private final Consumer<Request> requeue = this::requeue;
+  // Counts the changes to the building, so that a report is only made again after a change.
+  private long version;
+  // The latest report. It is only written by the thread running the building and is immutable,
+  // so any thread can read it.
+  private volatile BuildingReport latestReport;
+  // Set by getLatestReport, so that the building only makes reports while someone reads them.
+  private volatile boolean reportWanted;
+  // The listeners told about changes. The array is replaced when a listener is added or removed,
+  // so telling them allocates nothing.
+  private volatile BuildingListener[] listeners = new BuildingListener[0];
+  // What the listeners were last told, so that they are only told what changed.
+  private final int[] shownFloors;
+  private final Direction[] shownDirections;
+  private final boolean[] shownDoorsClosed;
+  private ElevatorSystemStatus shownStatus;
+  private long shownUpVersion;
+  private long shownDownVersion;
 
 
   /**
-   * The constructor for the building.
+   * The constructor for the building. Requests are distributed with the default
+   * TerminalDispatchStrategy.
    *
    * @param numberOfFloors the number of floors in the building.
    * @param numberOfElevators the number of elevators in the building.
    * @param elevatorCapacity the capacity of the elevators in the building.
    */
   public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity) {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, new TerminalDispatchStrategy());
+  }
+
+  /**
+   * The constructor for the building with a custom dispatch strategy.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param dispatchStrategy the strategy used to distribute requests to the elevators.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+      DispatchStrategy dispatchStrategy) {
+    this(0, numberOfFloors, numberOfElevators, elevatorCapacity, dispatchStrategy);
+  }
+
+  /**
+   * The constructor for the building with an id, for simulations of many buildings. The
+   * elevators of the building are numbered from 0, so an elevator is identified by the id of the
+   * building together with its own id, whatever other buildings are made at the same time.
+   *
+   * @param buildingId the id of the building, at least 0.
+   * @param numberOfFloors the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param dispatchStrategy the strategy used to distribute requests to the elevators.
+   */
+  public Building(int buildingId, int numberOfFloors, int numberOfElevators,
+      int elevatorCapacity, DispatchStrategy dispatchStrategy) {
+    if (buildingId < 0) {
+      throw new IllegalArgumentException("The building id cannot be negative.");
+    }
+    if (dispatchStrategy == null) {
+      throw new IllegalArgumentException("Dispatch strategy cannot be null.");
+    }
     if (numberOfFloors < 2) {
       throw new IllegalArgumentException("The number of floors must be greater than 1.");
     } else if (numberOfElevators < 1) {
@@ -42,13 +163,30 @@ public class Building implements BuildingInterface {
     this.numberOfFloors = numberOfFloors;
     this.numberOfElevators = numberOfElevators;
     this.elevatorCapacity = elevatorCapacity;
+    this.handOut = new ArrayList<>(elevatorCapacity);
+    this.buildingId = buildingId;
+    this.bank = new ElevatorBank(buildingId, numberOfElevators, numberOfFloors, elevatorCapacity);
     this.elevators = new ElevatorInterface[numberOfElevators];
+    this.elevatorStates = new ElevatorState[numberOfElevators];
     for (int i = 0; i < numberOfElevators; i++) {
-      this.elevators[i] = new Elevator(numberOfFloors, elevatorCapacity);
+      this.elevators[i] = this.bank.getElevator(i);
+      this.elevatorStates[i] = this.bank.getState(i);
     }
     this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
-    this.downRequests = new ArrayList<>();
-    this.upRequests = new ArrayList<>();
+    this.downRequests = new RequestQueue();
+    this.upRequests = new RequestQueue();
+    this.dispatchStrategy = dispatchStrategy;
+    this.dispatchContext = new BuildingDispatchContext();
+    this.shownFloors = new int[numberOfElevators];
+    this.shownDirections = new Direction[numberOfElevators];
+    this.shownDoorsClosed = new boolean[numberOfElevators];
+    for (int i = 0; i < numberOfElevators; i++) {
+      this.shownFloors[i] = this.elevators[i].getCurrentFloor();
+      this.shownDirections[i] = this.elevators[i].getDirection();
+      this.shownDoorsClosed[i] = this.elevators[i].isDoorClosed();
+    }
+    this.shownStatus = this.elevatorSystemStatus;
+    this.latestReport = this.makeReport();
   }
 
   @Override
@@ -64,109 +202,715 @@ public class Building implements BuildingInterface {
     if (this.elevatorSystemStatus == ElevatorSystemStatus.stopping) {
       throw new IllegalStateException("Elevator system is stopping now.");
     }
-    // The building is running, so the request could be processed.
-    if (request.getStartFloor() < request.getEndFloor()) {
-      this.upRequests.add(request);
-    } else {
-      this.downRequests.add(request);
+    // The building is running, so the request could be processed. It waits in the intake, so
+    // that it can be added from any thread, until the owner takes it in. A request the owner
+    // adds itself goes to the queues at once, after the ones before it.
+    this.intake.add(request);
+    if (this.owner.get() == Thread.currentThread()) {
+      this.drainIntake();
     }
     return true;
   }
 
+  /**
+   * This private method is used to move the requests added since the last time from the intake
+   * to the up and down queues. Requests that arrive after the building stopped are dropped. It
+   * is only called by the owner.
+   */
+  private void drainIntake() {
+    if (this.intake.isEmpty()) {
+      return;
+    }
+    boolean running = this.elevatorSystemStatus == ElevatorSystemStatus.running;
+    Request request;
+    while ((request = this.intake.poll()) != null) {
+      if (!running) {
+        continue;
+      }
+      // The same request may be added to several buildings, so each stamps its own copy.
+      request = new Request(request.getStartFloor(), request.getEndFloor(),
+          this.nextRequestId++, this.tick);
+      if (request.getStartFloor() < request.getEndFloor()) {
+        this.upRequests.add(request);
+      } else {
+        this.downRequests.add(request);
+      }
+    }
+    this.version++;
+  }
+
+  /**
+   * This private method is used to check that the calling thread owns the building, and to make
+   * it the owner if no thread does.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  private void checkOwner() throws IllegalStateException {
+    Thread current = Thread.currentThread();
+    Thread owner = this.owner.get();
+    if (owner != current && (owner != null || !this.owner.compareAndSet(null, current))) {
+      throw new IllegalStateException("The building is owned by another thread.");
+    }
+  }
+
   @Override
-  public void step() {
+  public void releaseOwnership() throws IllegalStateException {
+    Thread owner = this.owner.get();
+    if (owner == null) {
+      return;
+    }
+    if (owner != Thread.currentThread()) {
+      throw new IllegalStateException("The building is owned by another thread.");
+    }
+    this.owner.set(null);
+  }
+
+  @Override
+  public void step() throws IllegalStateException {
+    this.checkOwner();
     // If the elevator system is out of service, do nothing.
     if (this.elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
       return;
     }
-    for (ElevatorInterface elevator : this.elevators) {
-      elevator.step();
+    this.drainIntake();
+    if (this.stepPool == null) {
+      this.bank.step();
+    } else {
+      this.bank.step(this.stepPool, ElevatorBank.PARALLEL_THRESHOLD);
     }
+    this.tick++;
+    this.requeueLeftBehind();
     // If the elevator system is stopping, check if all elevators are on the first floor after
     // stepping. If so, then the elevator system becomes out of service (finish stopping).
     if (this.elevatorSystemStatus == ElevatorSystemStatus.stopping) {
-      for (ElevatorInterface elevator : this.elevators) {
-        if (elevator.getCurrentFloor() != 0) {
-          return;
-        }
+      if (this.allElevatorsOnFirstFloor()) {
+        this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
       }
-      this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
     } else {
       // If the elevator system is running, distribute requests to elevators.
       this.distributeRequest();
     }
+    this.changed();
   }
 
   /**
-   * This private method is used when the building steps, to distribute up and
-   * down requests to all elevators.
+   * This private method is used to put the passengers who found their elevator full back in the
+   * queues, so that another elevator picks them up. They keep their stamp, so their wait goes on.
    */
-  private void distributeRequest() {
-    if (this.upRequests.isEmpty() && this.downRequests.isEmpty()) {
+  private void requeueLeftBehind() {
+    this.bank.drainLeftBehind(this.requeue);
+  }
+
+  /**
+   * This private method is used to put one passenger who was left behind back in the queues.
+   * Passengers left behind while the building stops are dropped.
+   * @param request the request of the passenger.
+   */
+  private void requeue(Request request) {
+    if (this.elevatorSystemStatus != ElevatorSystemStatus.running) {
       return;
     }
+    if (request.getStartFloor() < request.getEndFloor()) {
+      this.upRequests.add(request);
+    } else {
+      this.downRequests.add(request);
+    }
+  }
+
+  /**
+   * This private method is used to check if all elevators are on the first floor.
+   * @return true if every elevator is on the first floor.
+   */
+  private boolean allElevatorsOnFirstFloor() {
     for (ElevatorInterface elevator : this.elevators) {
-      if (elevator.isTakingRequests()) {
-        ArrayList<Request> distributedRequests;
-        if (elevator.getCurrentFloor() == 0) {
-          distributedRequests = this.getDistributedRequests(this.upRequests);
-          elevator.processRequests(distributedRequests);
-        } else if (elevator.getCurrentFloor() == this.numberOfFloors - 1) {
-          distributedRequests = this.getDistributedRequests(this.downRequests);
-          elevator.processRequests(distributedRequests);
-        }
+      if (elevator.getCurrentFloor() != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void stepMany(int ticks) throws IllegalArgumentException, IllegalStateException {
+    this.checkOwner();
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative.");
+    }
+    int remaining = ticks;
+    while (remaining > 0) {
+      // Nothing changes while the elevator system is out of service.
+      if (this.elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
+        return;
+      }
+      this.drainIntake();
+      int skip = this.ticksUntilNextEvent(remaining);
+      if (skip > 0) {
+        this.bank.skipTicks(skip);
+        this.tick += skip;
+        this.changed();
+        remaining -= skip;
+      } else {
+        this.step();
+        remaining--;
       }
     }
   }
 
   /**
-   * This private method is used to get a list of requests to be distributed into one elevator.
-   * @param requests the list of requests (up or down) stored in the building.
-   * @return a list of requests to be distributed to one elevator.
+   * This private method is used to find how many steps can be skipped at once. Steps can only be
+   * skipped while the building is running with no requests waiting, since then the dispatch
+   * strategy has nothing to do, and only up to the next event of any elevator.
+   *
+   * @param maxTicks the most steps to skip.
+   * @return the number of steps that can be skipped, 0 if the next step must be done.
    */
-  private ArrayList<Request> getDistributedRequests(ArrayList<Request> requests) {
-    ArrayList<Request> distributedRequests = new ArrayList<>();
-    while (!requests.isEmpty() && distributedRequests.size() < this.elevatorCapacity) {
-      distributedRequests.add(requests.remove(0));
+  private int ticksUntilNextEvent(int maxTicks) {
+    if (this.elevatorSystemStatus != ElevatorSystemStatus.running
+        || !this.upRequests.isEmpty() || !this.downRequests.isEmpty()) {
+      return 0;
     }
+    return Math.min(maxTicks, this.bank.ticksUntilNextEvent());
+  }
+
+  /**
+   * This private method is used when the building steps, to distribute up and
+   * down requests to all elevators through the dispatch strategy.
+   */
+  private void distributeRequest() {
+    if (this.upRequests.isEmpty() && this.downRequests.isEmpty()) {
+      return;
+    }
+    this.dispatchStrategy.distributeRequests(this.dispatchContext);
+  }
+
+  /**
+   * This private method is used to get a list of requests to be distributed into one elevator.
+   * @param requests the queue of requests (up or down) stored in the building.
+   * @param maxRequests the maximum number of requests to take.
+   * @return a list of requests to be distributed to one elevator. The list is reused for the
+   *     next elevator.
+   */
+  private ArrayList<Request> getDistributedRequests(RequestQueue requests, int maxRequests) {
+    int count = Math.min(Math.min(requests.size(), maxRequests), this.elevatorCapacity);
+    ArrayList<Request> distributedRequests = this.handOut;
+    distributedRequests.clear();
+    requests.drainTo(distributedRequests, count);
     return distributedRequests;
   }
 
+  /**
+   * This private method is used to give requests from one of the queues to an elevator.
+   * @param index the index of the elevator.
+   * @param requests the queue of requests (up or down) stored in the building.
+   * @param maxRequests the maximum number of requests to give.
+   * @return the number of requests given to the elevator.
+   */
+  private int assignRequests(int index, RequestQueue requests, int maxRequests) {
+    if (requests.isEmpty() || maxRequests <= 0) {
+      return 0;
+    }
+    ArrayList<Request> distributedRequests = this.getDistributedRequests(requests, maxRequests);
+    int count = distributedRequests.size();
+    this.elevators[index].processRequests(distributedRequests);
+    distributedRequests.clear();
+    return count;
+  }
+
   @Override
   public boolean startElevatorSystem() throws IllegalStateException {
+    this.checkOwner();
     if (this.elevatorSystemStatus == ElevatorSystemStatus.stopping) {
       throw new IllegalStateException("Elevator system is stopping now.");
     }
     if (this.elevatorSystemStatus == ElevatorSystemStatus.outOfService) {
+      // Drop any request that slipped in while the building was stopping.
+      this.drainIntake();
       this.elevatorSystemStatus = ElevatorSystemStatus.running;
       for (ElevatorInterface elevator : this.elevators) {
         elevator.start();
       }
+      this.changed();
       return true;
     }
     return false;
   }
 
   @Override
-  public void stopElevatorSystem() {
+  public void stopElevatorSystem() throws IllegalStateException {
+    this.checkOwner();
     for (ElevatorInterface elevator : this.elevators) {
       elevator.takeOutOfService();
     }
     this.elevatorSystemStatus = ElevatorSystemStatus.stopping;
+    this.drainIntake();
     this.downRequests.clear();
     this.upRequests.clear();
+    this.changed();
+  }
+
+  @Override
+  public void setSweepMode(SweepMode sweepMode) throws IllegalArgumentException,
+      IllegalStateException {
+    this.checkOwner();
+    if (sweepMode == null) {
+      throw new IllegalArgumentException("Sweep mode cannot be null.");
+    }
+    for (ElevatorInterface elevator : this.elevators) {
+      elevator.setSweepMode(sweepMode);
+    }
+    this.changed();
+  }
+
+  @Override
+  public void setDwellPolicy(DwellPolicy dwellPolicy) throws IllegalArgumentException,
+      IllegalStateException {
+    this.checkOwner();
+    if (dwellPolicy == null) {
+      throw new IllegalArgumentException("Dwell policy cannot be null.");
+    }
+    for (ElevatorInterface elevator : this.elevators) {
+      elevator.setDwellPolicy(dwellPolicy);
+    }
+    this.changed();
+  }
+
+  @Override
+  public int getBuildingId() {
+    return this.buildingId;
+  }
+
+  @Override
+  public void setParallelStepping(boolean parallel) throws IllegalStateException {
+    this.checkOwner();
+    // On one core a split step only adds the cost of handing out the tasks.
+    boolean cores = Runtime.getRuntime().availableProcessors() > 1;
+    this.stepPool = parallel && cores ? ForkJoinPool.commonPool() : null;
+  }
+
+  @Override
+  public synchronized void addBuildingListener(BuildingListener listener)
+      throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null.");
+    }
+    BuildingListener[] added = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+    added[added.length - 1] = listener;
+    this.listeners = added;
+  }
+
+  @Override
+  public synchronized void removeBuildingListener(BuildingListener listener) {
+    BuildingListener[] current = this.listeners;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == listener) {
+        BuildingListener[] removed = new BuildingListener[current.length - 1];
+        System.arraycopy(current, 0, removed, 0, i);
+        System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+        this.listeners = removed;
+        return;
+      }
+    }
   }
 
   @Override
-  public BuildingReport getElevatorSystemStatus() {
+  public JourneyStats getJourneyStats() throws IllegalStateException {
+    this.checkOwner();
+    return this.bank.getJourneyStats();
+  }
+
+  @Override
+  public void writeCheckpoint(WritableByteChannel channel) throws IOException,
+      IllegalArgumentException, IllegalStateException {
+    this.checkOwner();
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null.");
+    }
+    this.drainIntake();
+    int bodyBytes = BUILDING_CHECKPOINT_BYTES + (this.upRequests.size() + this.downRequests.size())
+        * REQUEST_CHECKPOINT_BYTES + this.bank.checkpointBytes();
+    ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_HEADER_BYTES + bodyBytes)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(CHECKPOINT_MAGIC);
+    buffer.putInt(CHECKPOINT_VERSION);
+    buffer.putInt(bodyBytes);
+    buffer.putInt(this.buildingId);
+    buffer.putInt(this.numberOfFloors);
+    buffer.putInt(this.numberOfElevators);
+    buffer.putInt(this.elevatorCapacity);
+    buffer.put((byte) this.elevatorSystemStatus.ordinal());
+    buffer.putLong(this.tick);
+    buffer.putLong(this.nextRequestId);
+    putRequests(buffer, this.upRequests.asList());
+    putRequests(buffer, this.downRequests.asList());
+    this.bank.writeCheckpoint(buffer);
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * This method is used to make a building from a checkpoint written by writeCheckpoint. The
+   * building steps exactly like the one that wrote the checkpoint did from then on. Listeners,
+   * parallel stepping and the dispatch strategy are not part of the checkpoint, so the strategy
+   * is given again, usually the same as the one the checkpoint was written with.
+   *
+   * @param channel the channel to read from, positioned at the start of the checkpoint. It is
+   *     not closed.
+   * @param dispatchStrategy the strategy used to distribute requests to the elevators.
+   * @return the building.
+   * @throws IOException if the channel cannot be read.
+   * @throws IllegalArgumentException if the channel or strategy is null, or the channel does not
+   *     hold a valid checkpoint of this version.
+   */
+  public static Building readCheckpoint(ReadableByteChannel channel,
+      DispatchStrategy dispatchStrategy) throws IOException, IllegalArgumentException {
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null.");
+    }
+    ByteBuffer header = readFully(channel, CHECKPOINT_HEADER_BYTES);
+    if (header.getInt() != CHECKPOINT_MAGIC) {
+      throw new IllegalArgumentException("This is not a checkpoint of a building.");
+    }
+    int version = header.getInt();
+    if (version != CHECKPOINT_VERSION) {
+      throw new IllegalArgumentException("Unknown checkpoint version " + version + ".");
+    }
+    int bodyBytes = header.getInt();
+    if (bodyBytes < BUILDING_CHECKPOINT_BYTES) {
+      throw new IllegalArgumentException("The checkpoint is not valid.");
+    }
+    if (channel instanceof SeekableByteChannel) {
+      SeekableByteChannel seekable = (SeekableByteChannel) channel;
+      if (bodyBytes > seekable.size() - seekable.position()) {
+        throw new IllegalArgumentException("The checkpoint ends early.");
+      }
+    }
+    ByteBuffer body = readFully(channel, bodyBytes);
+    try {
+      Building building = new Building(body.getInt(), body.getInt(), body.getInt(),
+          body.getInt(), dispatchStrategy);
+      building.restore(body);
+      if (body.hasRemaining()) {
+        throw new IllegalArgumentException("The checkpoint is longer than its building.");
+      }
+      return building;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("The checkpoint ends early.");
+    }
+  }
+
+  /**
+   * This private method is used to read a number of bytes from a channel. The buffer grows as
+   * the bytes arrive, so a number that is larger than what the channel holds fails once the
+   * channel ends, without allocating the whole number first.
+   * @param channel the channel to read from.
+   * @param bytes the number of bytes.
+   * @return a little-endian buffer of the bytes, ready to be read.
+   * @throws IOException if the channel cannot be read.
+   * @throws IllegalArgumentException if the channel ends before the bytes were read.
+   */
+  private static ByteBuffer readFully(ReadableByteChannel channel, int bytes)
+      throws IOException, IllegalArgumentException {
+    ByteBuffer buffer = ByteBuffer.allocate(Math.min(bytes, CHECKPOINT_READ_CHUNK));
+    while (buffer.position() < bytes) {
+      if (!buffer.hasRemaining()) {
+        int capacity = (int) Math.min(bytes, 2L * buffer.capacity());
+        buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+      }
+      if (channel.read(buffer) < 0) {
+        throw new IllegalArgumentException("The checkpoint ends early.");
+      }
+    }
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * This private method is used to replace the state of a new building with the rest of a
+   * checkpoint, after its size. Listeners added later are only told what changes from there.
+   * @param buffer the checkpoint, positioned after the size of the building.
+   * @throws IllegalArgumentException if the checkpoint is not valid.
+   */
+  private void restore(ByteBuffer buffer) throws IllegalArgumentException {
+    int status = buffer.get();
+    if (status < 0 || status >= ElevatorSystemStatus.values().length) {
+      throw new IllegalArgumentException("The checkpoint is not valid.");
+    }
+    this.elevatorSystemStatus = ElevatorSystemStatus.values()[status];
+    this.tick = buffer.getLong();
+    this.nextRequestId = buffer.getLong();
+    getRequests(buffer, this.upRequests);
+    getRequests(buffer, this.downRequests);
+    this.bank.readCheckpoint(buffer);
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      this.shownFloors[i] = this.elevators[i].getCurrentFloor();
+      this.shownDirections[i] = this.elevators[i].getDirection();
+      this.shownDoorsClosed[i] = this.elevators[i].isDoorClosed();
+    }
+    this.shownStatus = this.elevatorSystemStatus;
+    this.shownUpVersion = this.upRequests.getVersion();
+    this.shownDownVersion = this.downRequests.getVersion();
+    this.version++;
+    this.latestReport = this.makeReport();
+  }
+
+  /**
+   * This private method is used to write a queue of requests with their stamps.
+   * @param buffer the buffer to write to.
+   * @param requests the requests, oldest first.
+   */
+  private static void putRequests(ByteBuffer buffer, List<Request> requests) {
+    buffer.putInt(requests.size());
+    for (Request request : requests) {
+      buffer.putInt(request.getStartFloor());
+      buffer.putInt(request.getEndFloor());
+      buffer.putLong(request.getId());
+      buffer.putLong(request.getArrivalTick());
+    }
+  }
+
+  /**
+   * This private method is used to read a queue of requests written by putRequests.
+   * @param buffer the buffer to read from.
+   * @param requests the queue to add the requests to.
+   * @throws IllegalArgumentException if a request is not in the building.
+   */
+  private void getRequests(ByteBuffer buffer, RequestQueue requests)
+      throws IllegalArgumentException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / REQUEST_CHECKPOINT_BYTES) {
+      throw new IllegalArgumentException("The checkpoint is not valid.");
+    }
+    for (int i = 0; i < count; i++) {
+      Request request = new Request(buffer.getInt(), buffer.getInt(), buffer.getLong(),
+          buffer.getLong());
+      if (request.getStartFloor() < 0 || request.getStartFloor() >= this.numberOfFloors
+          || request.getEndFloor() < 0 || request.getEndFloor() >= this.numberOfFloors) {
+        throw new IllegalArgumentException("The checkpoint is not valid.");
+      }
+      requests.add(request);
+    }
+  }
+
+  @Override
+  public BuildingReport getElevatorSystemStatus() throws IllegalStateException {
+    this.checkOwner();
+    BuildingReport report = this.latestReport;
+    if (report.getVersion() != this.version) {
+      report = this.makeReport();
+      this.latestReport = report;
+    }
+    return report;
+  }
+
+  @Override
+  public BuildingReport getLatestReport() {
+    this.reportWanted = true;
+    return this.latestReport;
+  }
+
+  /**
+   * This private method is used to make an immutable report of the current state. The request
+   * lists are copied only when the queue changed since the last report.
+   * @return the report.
+   */
+  private BuildingReport makeReport() {
     ElevatorReport[] elevatorReports = new ElevatorReport[this.numberOfElevators];
     for (int i = 0; i < this.numberOfElevators; i++) {
       elevatorReports[i] = this.elevators[i].getElevatorStatus();
     }
+    BuildingReport last = this.latestReport;
+    List<Request> up;
+    if (last != null && last.getUpRequestsVersion() == this.upRequests.getVersion()) {
+      up = last.getUpRequests();
+    } else {
+      up = List.copyOf(this.upRequests.asList());
+    }
+    List<Request> down;
+    if (last != null && last.getDownRequestsVersion() == this.downRequests.getVersion()) {
+      down = last.getDownRequests();
+    } else {
+      down = List.copyOf(this.downRequests.asList());
+    }
     return new BuildingReport(this.numberOfFloors, this.numberOfElevators,
-        this.elevatorCapacity, elevatorReports, this.upRequests, this.downRequests,
-        this.elevatorSystemStatus);
+        this.elevatorCapacity, elevatorReports, up, down, this.elevatorSystemStatus, this.version,
+        this.upRequests.getVersion(), this.downRequests.getVersion());
   }
-}
 
+  /**
+   * This private method is used after every change to the building. It counts the change and,
+   * if another thread asked for the latest report since the last one was made, makes a new one.
+   */
+  private void changed() {
+    this.version++;
+    if (this.reportWanted) {
+      this.reportWanted = false;
+      this.latestReport = this.makeReport();
+    }
+    BuildingListener[] listeners = this.listeners;
+    if (listeners.length > 0) {
+      this.tellListeners(listeners);
+    }
+  }
+
+  /**
+   * This private method is used to tell the listeners what changed since they were last told.
+   * @param listeners the listeners to tell.
+   */
+  private void tellListeners(BuildingListener[] listeners) {
+    ElevatorSystemStatus status = this.elevatorSystemStatus;
+    if (status != this.shownStatus) {
+      this.shownStatus = status;
+      for (BuildingListener listener : listeners) {
+        listener.statusChanged(this.buildingId, status);
+      }
+    }
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      ElevatorInterface elevator = this.elevators[i];
+      int floor = elevator.getCurrentFloor();
+      Direction direction = elevator.getDirection();
+      if (floor != this.shownFloors[i] || direction != this.shownDirections[i]) {
+        this.shownFloors[i] = floor;
+        this.shownDirections[i] = direction;
+        for (BuildingListener listener : listeners) {
+          listener.elevatorMoved(this.buildingId, i, floor, direction);
+        }
+      }
+      boolean doorClosed = elevator.isDoorClosed();
+      if (doorClosed != this.shownDoorsClosed[i]) {
+        this.shownDoorsClosed[i] = doorClosed;
+        for (BuildingListener listener : listeners) {
+          listener.doorChanged(this.buildingId, i, floor, !doorClosed);
+        }
+      }
+    }
+    if (this.upRequests.getVersion() != this.shownUpVersion
+        || this.downRequests.getVersion() != this.shownDownVersion) {
+      this.shownUpVersion = this.upRequests.getVersion();
+      this.shownDownVersion = this.downRequests.getVersion();
+      for (BuildingListener listener : listeners) {
+        listener.queueChanged(this.buildingId, this.upRequests.asList(),
+            this.downRequests.asList());
+      }
+    }
+  }
+
+  @Override
+  public BuildingStatusTable getStatusTable(BuildingStatusTable table)
+      throws IllegalStateException {
+    this.checkOwner();
+    if (table == null || !table.belongsTo(this)) {
+      table = new BuildingStatusTable(this, this.bank.newStatusTable(),
+          this.upRequests.asList(), this.downRequests.asList());
+    }
+    this.bank.fillStatusTable(table.getElevatorTable());
+    table.fill(this.elevatorSystemStatus, this.version);
+    return table;
+  }
+
+  /**
+   * This private method is used to give an elevator the requests it can pick up on its way.
+   * @param index the index of the elevator.
+   * @param requests the queue of requests (up or down) stored in the building.
+   * @param maxRequests the maximum number of requests to give.
+   * @param goingUp true if the elevator is on its way up, false if it is on its way down.
+   * @return the number of requests given to the elevator.
+   */
+  private int assignHallCalls(int index, RequestQueue requests, int maxRequests,
+      boolean goingUp) {
+    ElevatorInterface elevator = this.elevators[index];
+    int count = Math.min(maxRequests, elevator.getSpareCapacity());
+    if (requests.isEmpty() || count <= 0) {
+      return 0;
+    }
+    ArrayList<Request> hallCalls = this.handOut;
+    hallCalls.clear();
+    this.hallCallFilter.floor = elevator.getCurrentFloor();
+    this.hallCallFilter.goingUp = goingUp;
+    requests.drainMatching(hallCalls, count, this.hallCallFilter);
+    int given = hallCalls.size();
+    if (given > 0) {
+      elevator.processHallCalls(hallCalls);
+      hallCalls.clear();
+    }
+    return given;
+  }
+
+  /**
+   * The requests that start ahead of an elevator on its way up or down.
+   */
+  private static final class HallCallFilter implements Predicate<Request> {
+    private int floor;
+    private boolean goingUp;
+
+    @Override
+    public boolean test(Request request) {
+      return this.goingUp ? request.getStartFloor() > this.floor
+          : request.getStartFloor() < this.floor;
+    }
+  }
+
+  /**
+   * The view of the building handed to the dispatch strategy. The elevators are exposed through
+   * read-only views that cannot be cast back to the elevators, so no reports are generated for
+   * dispatching and the strategy cannot control an elevator.
+   */
+  private class BuildingDispatchContext implements DispatchContext {
+
+    @Override
+    public int getNumFloors() {
+      return numberOfFloors;
+    }
+
+    @Override
+    public int getNumElevators() {
+      return numberOfElevators;
+    }
+
+    @Override
+    public int getElevatorCapacity() {
+      return elevatorCapacity;
+    }
+
+    @Override
+    public ElevatorState getElevator(int index) {
+      return elevatorStates[index];
+    }
 
+    @Override
+    public List<Request> getUpRequests() {
+      return upRequests.asList();
+    }
+
+    @Override
+    public List<Request> getDownRequests() {
+      return downRequests.asList();
+    }
+
+    @Override
+    public int assignUpRequests(int index, int maxRequests) {
+      return assignRequests(index, upRequests, maxRequests);
+    }
+
+    @Override
+    public int assignDownRequests(int index, int maxRequests) {
+      return assignRequests(index, downRequests, maxRequests);
+    }
+
+    @Override
+    public int assignUpHallCalls(int index, int maxRequests) {
+      return assignHallCalls(index, upRequests, maxRequests, true);
+    }
+
+    @Override
+    public int assignDownHallCalls(int index, int maxRequests) {
+      return assignHallCalls(index, downRequests, maxRequests, false);
+    }
+
+    @Override
+    public void summon(int index, int floor) {
+      elevators[index].summon(floor);
+    }
+  }
+}
@@ -1,15 +1,31 @@
 package building;
 
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
+import elevator.JourneyStats;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import scanerzus.Request;
 
 /**
  * This interface is used to represent a building. It contains methods that are used to interact
  * with the building, including processing requests and controlling the elevators.
+ *
+ * <p>A building is owned by one thread at a time. Only the owner steps the building, starts or
+ * stops it, sets it up, reads its status or its journey stats, or writes it to a checkpoint.
+ * The first thread to call one of these methods becomes the owner and stays it until it calls
+ * releaseOwnership; these methods throw an IllegalStateException on any other thread. Requests
+ * can be added, the latest report read and listeners added from any thread.
  */
 public interface BuildingInterface {
 
   /**
-   * This method is used to add a request to the building.
+   * This method is used to add a request to the building. It can be called from any number of
+   * threads at once without locking. The request is handed to the elevators from the next step.
+   * The owner puts the requests in the queues: a request it adds itself is in them at once,
+   * after every request added before it, and one added by another thread is put in them the
+   * next time the owner steps, adds a request, starts or stops the building or writes a
+   * checkpoint.
    * @param request the request to be added.
    * @return true if the building is running and the request is added, false if the building is out
    *         of service in which case requests cannot be added.
@@ -21,13 +37,26 @@ public interface BuildingInterface {
   /**
    * This method is used to step the building, evoking the step methods in all the elevators if
    * the building is not out of service.
+   * @throws IllegalStateException if another thread owns the building.
    */
-  void step();
+  void step() throws IllegalStateException;
+
+  /**
+   * This method is used to step the building a number of times in a row, as fast as possible.
+   * It has the same effect as calling step() that many times.
+   * While there are no requests waiting, the steps in which the elevators only move past
+   * floors or wait are skipped over in one go.
+   * @param ticks the number of steps.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  void stepMany(int ticks) throws IllegalArgumentException, IllegalStateException;
 
   /**
    * This method is used to start the elevator system and start all the elevators.
    * @return true if the elevator system is out of service, false if it's running.
-   * @throws IllegalStateException if the elevator system is stopping.
+   * @throws IllegalStateException if the elevator system is stopping, or if another thread owns
+   *     the building.
    */
   boolean startElevatorSystem() throws IllegalStateException;
 
@@ -35,13 +64,125 @@ public interface BuildingInterface {
    * This method is used to stop the elevator system. Elevators will go to the first floor and stop
    * servicing requests. All elevators are in stopping mode and all requests are purged. This method
    * has no effect on a stopping or out of service elevator system.
+   * @throws IllegalStateException if another thread owns the building.
    */
-  void stopElevatorSystem();
+  void stopElevatorSystem() throws IllegalStateException;
 
   /**
    * This method is used to get the status of the elevator system by generating a BuildingReport
-   * which contains the building information and the status of all elevators.
+   * which contains the building information and the status of all elevators. The report is an
+   * immutable snapshot. While nothing changes, the same report is returned again. Reading the
+   * status changes nothing in the building. Other threads read getLatestReport instead.
    * @return a BuildingReport object containing status of the elevator system.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  BuildingReport getElevatorSystemStatus() throws IllegalStateException;
+
+  /**
+   * This method is used to read the status of the elevator system from any thread, without
+   * locking and without touching the state of the building. It returns the latest immutable
+   * report. Calling it asks the building to make a new report after its next change, so a
+   * thread polling this method sees reports at most one change old, and the building makes no
+   * reports while nobody polls.
+   * @return the latest report of the elevator system.
+   */
+  BuildingReport getLatestReport();
+
+  /**
+   * This method is used to get the status of the elevator system without making a new report on
+   * every call. A table returned by this method can be passed back in, and is then filled again
+   * in place, so polling the status on every step allocates nothing. The table changes on every
+   * such call, so it must not be kept as a record of an earlier step.
+   * @param table a table returned by an earlier call to this method, or null.
+   * @return the given table filled with the current status, or a new table if the given one is
+   *     null or was not made by this building.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  BuildingStatusTable getStatusTable(BuildingStatusTable table) throws IllegalStateException;
+
+  /**
+   * This method is used to set how far all the elevators travel on a run.
+   * @param sweepMode FULL to go from the bottom floor to the top floor and back, LOOK to turn
+   *                  around as soon as there are no more stops ahead.
+   * @throws IllegalArgumentException if the sweep mode is null.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  void setSweepMode(SweepMode sweepMode) throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * This method is used to set when all the elevators dwell at the end of their run.
+   * @param dwellPolicy FIXED to always wait at the bottom or the top, WHEN_IDLE to take waiting
+   *                    requests as soon as the door opens and leave right away.
+   * @throws IllegalArgumentException if the dwell policy is null.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  void setDwellPolicy(DwellPolicy dwellPolicy) throws IllegalArgumentException,
+      IllegalStateException;
+
+  /**
+   * This method is used to get the id of the building. The reports of its elevators carry the id
+   * too, so that elevators of different buildings can be told apart.
+   * @return the id of the building, 0 unless it was given one.
+   */
+  int getBuildingId();
+
+  /**
+   * This method is used to step large fleets of elevators in parallel. The elevators of a building
+   * with at least ElevatorBank.PARALLEL_THRESHOLD of them are then split across the common
+   * ForkJoinPool on every step. Requests are still handed out in order after the elevators have
+   * stepped, so the building runs exactly the same as with serial stepping. On a machine with a
+   * single core the elevators are always stepped one by one.
+   * @param parallel true to step the elevators in parallel, false to step them one by one, which
+   *                 is the default.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  void setParallelStepping(boolean parallel) throws IllegalStateException;
+
+  /**
+   * This method is used to hand the building on to another thread. After the owner releases it,
+   * the next thread to step it, read its status or call any other method of the owner becomes
+   * the owner. Nothing happens if no thread owns the building.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  void releaseOwnership() throws IllegalStateException;
+
+  /**
+   * This method is used to be told about every change to the building instead of polling its
+   * status. The listener is called on the owner of the building, after each step and
+   * after the building is started, stopped or set up, with one call per change. It can be added
+   * from any thread.
+   * @param listener the listener to add.
+   * @throws IllegalArgumentException if the listener is null.
+   */
+  void addBuildingListener(BuildingListener listener) throws IllegalArgumentException;
+
+  /**
+   * This method is used to stop telling a listener about changes. Nothing happens if the listener
+   * was not added.
+   * @param listener the listener to remove.
+   */
+  void removeBuildingListener(BuildingListener listener);
+
+  /**
+   * This method is used to get how long the passengers waited for and rode the elevators. Every
+   * request the building takes is stamped with an id and the tick it arrived on, and the elevators
+   * note the ticks they pick each passenger up and drop them off on. Passengers still on their
+   * way are not counted yet.
+   * @return a copy of the wait, ride and total times of the passengers dropped off so far.
+   * @throws IllegalStateException if another thread owns the building.
+   */
+  JourneyStats getJourneyStats() throws IllegalStateException;
+
+  /**
+   * This method is used to write a checkpoint of the whole state of the building to a channel:
+   * every elevator with its passengers, the waiting requests, the status of the elevator system
+   * and the journey stats. Building.readCheckpoint makes a building from it that steps exactly
+   * like this one from then on, so a long run can be resumed or forked without replaying it.
+   * @param channel the channel to write to. It is not closed.
+   * @throws IOException if the channel cannot be written.
+   * @throws IllegalArgumentException if the channel is null.
+   * @throws IllegalStateException if another thread owns the building.
    */
-  BuildingReport getElevatorSystemStatus();
+  void writeCheckpoint(WritableByteChannel channel) throws IOException, IllegalArgumentException,
+      IllegalStateException;
 }
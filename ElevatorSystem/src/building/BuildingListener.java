@@ -0,0 +1,63 @@
+package building;
+
+import building.enums.Direction;
+import building.enums.ElevatorSystemStatus;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This interface is used to be told what changed in a building, instead of polling its reports.
+ * The building calls its listeners on the thread that steps it, after every step and after it is
+ * started, stopped or set up, with one call per change: an elevator that moved or turned, a door
+ * that opened or closed, a change to the queues of waiting requests, or a change of the status of
+ * the elevator system. Nothing is called when nothing changed. Every method does nothing by
+ * default, so a listener only implements the changes it cares about.
+ *
+ * <p>A new listener is only told about changes, so it should read the status of the building
+ * once when it is added. Every call carries the id of the building, so one listener can watch
+ * many buildings. Listeners are called while the building steps, so they should be quick.
+ */
+public interface BuildingListener {
+
+  /**
+   * This method is called when an elevator moved to another floor or changed its direction.
+   * When steps are skipped, an elevator can move several floors between two calls.
+   * @param buildingId the id of the building.
+   * @param elevatorId the id of the elevator.
+   * @param floor the floor the elevator is on now.
+   * @param direction the direction of the elevator now.
+   */
+  default void elevatorMoved(int buildingId, int elevatorId, int floor, Direction direction) {
+  }
+
+  /**
+   * This method is called when the door of an elevator opened or closed.
+   * @param buildingId the id of the building.
+   * @param elevatorId the id of the elevator.
+   * @param floor the floor the elevator is on.
+   * @param open true if the door is open now, false if it is closed.
+   */
+  default void doorChanged(int buildingId, int elevatorId, int floor, boolean open) {
+  }
+
+  /**
+   * This method is called when requests were added to or taken from the queues of waiting
+   * requests. The lists are read-only live views of the queues. The thread that steps the
+   * building can keep them and read them later, when they show the queues as they are then, but
+   * another thread must only read a copy.
+   * @param buildingId the id of the building.
+   * @param upRequests the waiting up requests, oldest first.
+   * @param downRequests the waiting down requests, oldest first.
+   */
+  default void queueChanged(int buildingId, List<Request> upRequests,
+      List<Request> downRequests) {
+  }
+
+  /**
+   * This method is called when the status of the elevator system changed.
+   * @param buildingId the id of the building.
+   * @param status the status of the elevator system now.
+   */
+  default void statusChanged(int buildingId, ElevatorSystemStatus status) {
+  }
+}
@@ -10,21 +10,27 @@ import scanerzus.Request;
  * This is the reporting class for the building.
  */
 public class BuildingReport {
-  int numFloors;
-  int numElevators;
+  private final int numFloors;
+  private final int numElevators;
 
-  int elevatorCapacity;
+  private final int elevatorCapacity;
 
-  ElevatorReport[] elevatorReports;
+  private final ElevatorReport[] elevatorReports;
 
-  List<Request> upRequests;
+  private final List<Request> upRequests;
 
-  List<Request> downRequests;
+  private final List<Request> downRequests;
 
-  ElevatorSystemStatus systemStatus;
+  private final ElevatorSystemStatus systemStatus;
+
+  // The version of the building the report was made at, and of its request queues.
+  private final long version;
+  private final long upRequestsVersion;
+  private final long downRequestsVersion;
 
   /**
-   * This constructor is used to create a new BuildingReport object.
+   * This constructor is used to create a new BuildingReport object. The report keeps copies of
+   * the elevator reports and of the requests, so it does not change with them.
    *
    * @param numFloors        The number of floors in the building.
    * @param numElevators     The number of elevators in the building.
@@ -41,6 +47,29 @@ public class BuildingReport {
                         List<Request> upRequests,
                         List<Request> downRequests,
                         ElevatorSystemStatus systemStatus) {
+    this(numFloors, numElevators, elevatorCapacity, elevatorsReports.clone(),
+        List.copyOf(upRequests), List.copyOf(downRequests), systemStatus, 0, -1, -1);
+  }
+
+  /**
+   * The constructor used by the building, which hands over an array and lists that nobody else
+   * holds, so they are kept without copying.
+   *
+   * @param numFloors           The number of floors in the building.
+   * @param numElevators        The number of elevators in the building.
+   * @param elevatorCapacity    The capacity of the elevators.
+   * @param elevatorsReports    The status of the elevators.
+   * @param upRequests          The up requests for the elevators, an unmodifiable list.
+   * @param downRequests        The down requests for the elevators, an unmodifiable list.
+   * @param systemStatus        The status of the elevator system.
+   * @param version             The version of the building.
+   * @param upRequestsVersion   The version of the up queue.
+   * @param downRequestsVersion The version of the down queue.
+   */
+  BuildingReport(int numFloors, int numElevators, int elevatorCapacity,
+                 ElevatorReport[] elevatorsReports, List<Request> upRequests,
+                 List<Request> downRequests, ElevatorSystemStatus systemStatus, long version,
+                 long upRequestsVersion, long downRequestsVersion) {
     this.numFloors = numFloors;
     this.numElevators = numElevators;
     this.elevatorCapacity = elevatorCapacity;
@@ -48,6 +77,9 @@ public class BuildingReport {
     this.upRequests = upRequests;
     this.downRequests = downRequests;
     this.systemStatus = systemStatus;
+    this.version = version;
+    this.upRequestsVersion = upRequestsVersion;
+    this.downRequestsVersion = downRequestsVersion;
   }
 
   /**
@@ -80,10 +112,10 @@ public class BuildingReport {
   /**
    * This method is used to get the status of the elevators.
    *
-   * @return the status of the elevators.
+   * @return a copy of the status of the elevators.
    */
   public ElevatorReport[] getElevatorReports() {
-    return this.elevatorReports;
+    return this.elevatorReports.clone();
   }
 
   /**
@@ -113,6 +145,49 @@ public class BuildingReport {
     return this.systemStatus;
   }
 
+  /**
+   * This method is used to get the version of the building the report was made at. The version
+   * goes up with every change to the building, so two reports with the same version show the
+   * same state.
+   *
+   * @return the version of the building.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method is used by the building to tell if the up queue changed since the report.
+   *
+   * @return the version of the up queue.
+   */
+  long getUpRequestsVersion() {
+    return this.upRequestsVersion;
+  }
+
+  /**
+   * This method is used by the building to tell if the down queue changed since the report.
+   *
+   * @return the version of the down queue.
+   */
+  long getDownRequestsVersion() {
+    return this.downRequestsVersion;
+  }
+
+  /**
+   * This method is used to get the steps saved by the dwell policy of all the elevators.
+   *
+   * @return the total number of steps the elevators left the bottom or the top earlier than
+   *         they would have with the FIXED dwell policy.
+   */
+  public int getDwellTicksSaved() {
+    int total = 0;
+    for (ElevatorReport report : this.elevatorReports) {
+      total += report.getDwellTicksSaved();
+    }
+    return total;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -0,0 +1,134 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorStatusTable;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This class is used to read the status of a building on every step without allocating. Unlike
+ * a BuildingReport, a table is filled again in place by Building.getStatusTable, and its request
+ * lists are read-only views of the queues of the building, so it only shows the status as of
+ * the last fill and must not be kept as a record of an earlier step.
+ */
+public final class BuildingStatusTable {
+  private final Building building;
+  private final ElevatorStatusTable elevatorTable;
+  private final List<Request> upRequests;
+  private final List<Request> downRequests;
+
+  private ElevatorSystemStatus systemStatus;
+  private long version;
+
+  /**
+   * The constructor for a table of a building, used by the building.
+   *
+   * @param building      The building the table is filled by.
+   * @param elevatorTable The table of the elevators of the building.
+   * @param upRequests    The view of the up requests of the building.
+   * @param downRequests  The view of the down requests of the building.
+   */
+  BuildingStatusTable(Building building, ElevatorStatusTable elevatorTable,
+                      List<Request> upRequests, List<Request> downRequests) {
+    this.building = building;
+    this.elevatorTable = elevatorTable;
+    this.upRequests = upRequests;
+    this.downRequests = downRequests;
+  }
+
+  /**
+   * This method is used by the building to tell if it made the table.
+   *
+   * @param building the building.
+   * @return true if the table belongs to the given building.
+   */
+  boolean belongsTo(Building building) {
+    return this.building == building;
+  }
+
+  /**
+   * This method is used by the building to fill the parts of the table that are not views.
+   *
+   * @param systemStatus the status of the elevator system.
+   * @param version      the version of the building.
+   */
+  void fill(ElevatorSystemStatus systemStatus, long version) {
+    this.systemStatus = systemStatus;
+    this.version = version;
+  }
+
+  /**
+   * This method is used to get the status of the elevators, one row per elevator.
+   *
+   * @return the status of the elevators.
+   */
+  public ElevatorStatusTable getElevatorTable() {
+    return this.elevatorTable;
+  }
+
+  /**
+   * This method is used to get the up requests for the elevators. The list is a read-only view
+   * that changes with the building.
+   *
+   * @return the requests for the elevators.
+   */
+  public List<Request> getUpRequests() {
+    return this.upRequests;
+  }
+
+  /**
+   * This method is used to get the down requests for the elevators. The list is a read-only view
+   * that changes with the building.
+   *
+   * @return the requests for the elevators.
+   */
+  public List<Request> getDownRequests() {
+    return this.downRequests;
+  }
+
+  /**
+   * This method is used to get the status of the elevator system.
+   *
+   * @return the status of the elevator system.
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    return this.systemStatus;
+  }
+
+  /**
+   * This method is used to get the version of the building the table was last filled at.
+   *
+   * @return the version of the building.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method is used to get the steps saved by the dwell policy of all the elevators.
+   *
+   * @return the total number of steps the elevators left the bottom or the top earlier than
+   *         they would have with the FIXED dwell policy.
+   */
+  public int getDwellTicksSaved() {
+    int total = 0;
+    for (int i = 0; i < this.elevatorTable.size(); i++) {
+      total += this.elevatorTable.getDwellTicksSaved(i);
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Building Report:\n");
+    sb.append("Elevator system status: ").append(this.systemStatus).append("\n");
+    sb.append("Elevator reports: \n");
+    for (int i = 0; i < this.elevatorTable.size(); i++) {
+      sb.append(this.elevatorTable.getElevatorReport(i)).append("\n");
+    }
+    sb.append("Up requests: ").append(this.upRequests).append("\n");
+    sb.append("Down requests: ").append(this.downRequests).append("\n");
+    return sb.toString();
+  }
+}
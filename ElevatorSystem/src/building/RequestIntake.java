@@ -0,0 +1,96 @@
+package building;
+
+import java.util.concurrent.atomic.AtomicReference;
+import scanerzus.Request;
+
+/**
+ * This class is a lock-free queue of incoming requests, for many threads adding requests and one
+ * thread taking them out. Adding a request is a single atomic swap of the tail, so producers
+ * never block or retry, no matter how many of them add at the same time. The building takes the
+ * requests out in a batch at the start of every step.
+ *
+ * <p>Only one thread at a time may take requests out with poll or clear.
+ */
+public final class RequestIntake {
+
+  private final AtomicReference<Node> tail;
+  // The node before the oldest request. Only the consumer reads and moves it.
+  private Node head;
+
+  /**
+   * The constructor for an empty intake.
+   */
+  public RequestIntake() {
+    this.head = new Node(null);
+    this.tail = new AtomicReference<>(this.head);
+  }
+
+  /**
+   * This method is used to add a request. It can be called from any thread.
+   *
+   * @param request the request to be added.
+   * @throws IllegalArgumentException if the request is null.
+   */
+  public void add(Request request) throws IllegalArgumentException {
+    if (request == null) {
+      throw new IllegalArgumentException("Request cannot be null.");
+    }
+    Node node = new Node(request);
+    Node previous = this.tail.getAndSet(node);
+    // Until this write the consumer sees the queue end at previous, and picks the node up on
+    // its next poll.
+    previous.next = node;
+  }
+
+  /**
+   * This method is used to take out the oldest request. Only the consumer thread may call it.
+   *
+   * @return the oldest request, or null if there is none.
+   */
+  public Request poll() {
+    Node next = this.head.next;
+    if (next == null) {
+      return null;
+    }
+    Request request = next.request;
+    next.request = null;
+    this.head = next;
+    return request;
+  }
+
+  /**
+   * This method is used to check if there are requests to take out. Only the consumer thread may
+   * call it. A request that is still being added may not be seen yet.
+   *
+   * @return true if there are no requests to take out.
+   */
+  public boolean isEmpty() {
+    return this.head.next == null;
+  }
+
+  /**
+   * This method is used to drop all the requests added so far. Only the consumer thread may call
+   * it.
+   *
+   * @return the number of requests dropped.
+   */
+  public int clear() {
+    int count = 0;
+    while (this.poll() != null) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * A link in the queue.
+   */
+  private static final class Node {
+    private Request request;
+    private volatile Node next;
+
+    private Node(Request request) {
+      this.request = request;
+    }
+  }
+}
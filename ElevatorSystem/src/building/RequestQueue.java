@@ -0,0 +1,195 @@
+package building;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * This class is a first-in-first-out queue of requests backed by a ring buffer. Adding a request
+ * and taking the oldest one are both constant time, so the building can hand out requests from a
+ * long backlog without shifting the whole backlog on every removal.
+ */
+class RequestQueue {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private Request[] buffer;
+  private int head;
+  private int size;
+  private long version;
+  private final List<Request> view;
+
+  /**
+   * The constructor for an empty request queue.
+   */
+  RequestQueue() {
+    this.buffer = new Request[DEFAULT_CAPACITY];
+    this.head = 0;
+    this.size = 0;
+    this.view = new View();
+  }
+
+  /**
+   * This method is used to add a request at the end of the queue.
+   *
+   * @param request the request to be added.
+   */
+  void add(Request request) {
+    if (this.size == this.buffer.length) {
+      this.grow();
+    }
+    this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = request;
+    this.size++;
+    this.version++;
+  }
+
+  /**
+   * This method is used to move up to maxRequests of the oldest requests, in order, into the
+   * target collection.
+   *
+   * @param target the collection receiving the requests.
+   * @param maxRequests the maximum number of requests to move.
+   * @return the number of requests moved.
+   */
+  int drainTo(Collection<? super Request> target, int maxRequests) {
+    int count = Math.min(maxRequests, this.size);
+    int mask = this.buffer.length - 1;
+    for (int i = 0; i < count; i++) {
+      target.add(this.buffer[this.head]);
+      this.buffer[this.head] = null;
+      this.head = (this.head + 1) & mask;
+    }
+    this.size -= count;
+    if (count > 0) {
+      this.version++;
+    }
+    return count;
+  }
+
+  /**
+   * This method is used to move up to maxRequests of the oldest requests that match a filter,
+   * in order, into the target collection. The requests that are left keep their order. This
+   * scans the queue up to the last request moved, so it is linear in the queue length.
+   *
+   * @param target the collection receiving the requests.
+   * @param maxRequests the maximum number of requests to move.
+   * @param filter the requests to move.
+   * @return the number of requests moved.
+   */
+  int drainMatching(Collection<? super Request> target, int maxRequests,
+      Predicate<? super Request> filter) {
+    int mask = this.buffer.length - 1;
+    int moved = 0;
+    int kept = 0;
+    int scanned = 0;
+    while (scanned < this.size && moved < maxRequests) {
+      Request request = this.buffer[(this.head + scanned) & mask];
+      if (filter.test(request)) {
+        target.add(request);
+        moved++;
+      } else {
+        this.buffer[(this.head + kept) & mask] = request;
+        kept++;
+      }
+      scanned++;
+    }
+    if (moved == 0) {
+      return 0;
+    }
+    // The kept requests are packed at the head. Shift them up against the unscanned ones and
+    // move the head past the gap, so the cost stays within the scanned part of the queue.
+    for (int i = kept - 1; i >= 0; i--) {
+      this.buffer[(this.head + i + moved) & mask] = this.buffer[(this.head + i) & mask];
+    }
+    for (int i = 0; i < moved; i++) {
+      this.buffer[(this.head + i) & mask] = null;
+    }
+    this.head = (this.head + moved) & mask;
+    this.size -= moved;
+    this.version++;
+    return moved;
+  }
+
+  /**
+   * This method is used to remove all requests from the queue.
+   */
+  void clear() {
+    int mask = this.buffer.length - 1;
+    for (int i = 0; i < this.size; i++) {
+      this.buffer[(this.head + i) & mask] = null;
+    }
+    this.head = 0;
+    this.size = 0;
+    this.version++;
+  }
+
+  /**
+   * This method is used to get the number of requests in the queue.
+   *
+   * @return the number of requests in the queue.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * This method is used to get the version of the queue, which goes up with every change.
+   *
+   * @return the version of the queue.
+   */
+  long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method is used to check if the queue is empty.
+   *
+   * @return true if there are no requests in the queue.
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * This method is used to get a read-only list view of the queue, oldest request first. The view
+   * reflects later changes to the queue.
+   *
+   * @return a read-only list view of the queue.
+   */
+  List<Request> asList() {
+    return this.view;
+  }
+
+  /**
+   * Double the buffer, unrolling the ring so that the oldest request is at index 0. The buffer
+   * length is always a power of two so that indices can wrap with a mask.
+   */
+  private void grow() {
+    Request[] larger = new Request[this.buffer.length * 2];
+    int firstPart = Math.min(this.size, this.buffer.length - this.head);
+    System.arraycopy(this.buffer, this.head, larger, 0, firstPart);
+    System.arraycopy(this.buffer, 0, larger, firstPart, this.size - firstPart);
+    this.buffer = larger;
+    this.head = 0;
+  }
+
+  /**
+   * The read-only list view of the queue.
+   */
+  private class View extends AbstractList<Request> {
+    @Override
+    public Request get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return buffer[(head + index) & (buffer.length - 1)];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
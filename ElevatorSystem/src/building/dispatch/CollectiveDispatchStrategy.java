@@ -0,0 +1,32 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+
+/**
+ * A dispatch strategy for collective control. Elevators waiting at the bottom or the top take
+ * requests as in TerminalDispatchStrategy. After that, every elevator that is on its run and has
+ * spare capacity picks up the pending requests that start ahead of it and go its way, so
+ * passengers in the middle of the building do not wait for a full sweep.
+ */
+public class CollectiveDispatchStrategy extends TerminalDispatchStrategy {
+
+  @Override
+  public void distributeRequests(DispatchContext context) {
+    super.distributeRequests(context);
+    for (int i = 0; i < context.getNumElevators(); i++) {
+      if (context.getUpRequests().isEmpty() && context.getDownRequests().isEmpty()) {
+        return;
+      }
+      ElevatorState elevator = context.getElevator(i);
+      if (elevator.isTakingRequests() || elevator.getSpareCapacity() == 0) {
+        continue;
+      }
+      if (elevator.getDirection() == Direction.UP) {
+        context.assignUpHallCalls(i, elevator.getSpareCapacity());
+      } else if (elevator.getDirection() == Direction.DOWN) {
+        context.assignDownHallCalls(i, elevator.getSpareCapacity());
+      }
+    }
+  }
+}
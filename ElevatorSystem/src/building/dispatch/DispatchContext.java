@@ -0,0 +1,97 @@
+package building.dispatch;
+
+import elevator.ElevatorState;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This interface is used to give a dispatch strategy what it needs for one round of
+ * distribution: read-only views of the elevators, the pending requests and a way to assign them.
+ * The views are live, so they are only valid during the call to the strategy.
+ */
+public interface DispatchContext {
+
+  /**
+   * This method is used to get the number of floors in the building.
+   * @return the number of floors in the building.
+   */
+  int getNumFloors();
+
+  /**
+   * This method is used to get the number of elevators in the building.
+   * @return the number of elevators in the building.
+   */
+  int getNumElevators();
+
+  /**
+   * This method is used to get the capacity of the elevators in the building.
+   * @return the capacity of the elevators in the building.
+   */
+  int getElevatorCapacity();
+
+  /**
+   * This method is used to get a read-only view of one elevator.
+   * @param index the index of the elevator, from 0 to getNumElevators() - 1.
+   * @return the state of the elevator.
+   */
+  ElevatorState getElevator(int index);
+
+  /**
+   * This method is used to get the pending up requests, oldest first.
+   * @return a read-only list of the pending up requests.
+   */
+  List<Request> getUpRequests();
+
+  /**
+   * This method is used to get the pending down requests, oldest first.
+   * @return a read-only list of the pending down requests.
+   */
+  List<Request> getDownRequests();
+
+  /**
+   * This method is used to give the oldest pending up requests to an elevator.
+   * @param index the index of the elevator.
+   * @param maxRequests the maximum number of requests to give.
+   * @return the number of requests given to the elevator.
+   * @throws IllegalStateException if the elevator cannot take the requests where it is.
+   */
+  int assignUpRequests(int index, int maxRequests) throws IllegalStateException;
+
+  /**
+   * This method is used to give the oldest pending down requests to an elevator.
+   * @param index the index of the elevator.
+   * @param maxRequests the maximum number of requests to give.
+   * @return the number of requests given to the elevator.
+   * @throws IllegalStateException if the elevator cannot take the requests where it is.
+   */
+  int assignDownRequests(int index, int maxRequests) throws IllegalStateException;
+
+  /**
+   * This method is used to give an elevator on its way up the oldest pending up requests that
+   * start above it, so it picks them up on this run.
+   * @param index the index of the elevator.
+   * @param maxRequests the maximum number of requests to give.
+   * @return the number of requests given to the elevator.
+   * @throws IllegalStateException if the elevator cannot take hall calls.
+   */
+  int assignUpHallCalls(int index, int maxRequests) throws IllegalStateException;
+
+  /**
+   * This method is used to give an elevator on its way down the oldest pending down requests
+   * that start below it, so it picks them up on this run.
+   * @param index the index of the elevator.
+   * @param maxRequests the maximum number of requests to give.
+   * @return the number of requests given to the elevator.
+   * @throws IllegalStateException if the elevator cannot take hall calls.
+   */
+  int assignDownHallCalls(int index, int maxRequests) throws IllegalStateException;
+
+  /**
+   * This method is used to send an elevator to a floor, so that it can take requests there.
+   * @param index the index of the elevator.
+   * @param floor the floor to send the elevator to.
+   * @throws IllegalStateException if the elevator is out of service.
+   * @throws IllegalArgumentException if the floor is not on the way of the elevator.
+   */
+  void summon(int index, int floor) throws IllegalStateException, IllegalArgumentException;
+}
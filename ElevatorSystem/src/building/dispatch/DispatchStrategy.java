@@ -0,0 +1,16 @@
+package building.dispatch;
+
+/**
+ * This interface is used to represent the way a building hands out its pending requests to the
+ * elevators. The building calls the strategy once per step while it is running and there are
+ * pending requests.
+ */
+public interface DispatchStrategy {
+
+  /**
+   * This method is used to distribute pending requests to the elevators.
+   * @param context the building's elevators and pending requests, and the operations used to
+   *                assign requests to elevators.
+   */
+  void distributeRequests(DispatchContext context);
+}
@@ -0,0 +1,87 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import building.enums.SweepMode;
+import elevator.ElevatorState;
+
+/**
+ * The default dispatch strategy. Elevators waiting for requests at the bottom floor take the
+ * oldest up requests and elevators waiting at the top floor take the oldest down requests, each
+ * as many as its capacity allows, in elevator order.
+ * LOOK elevators do not go to the top floor on their own, so when there are down requests and no
+ * elevator is going to the top floor, one LOOK elevator is summoned there.
+ */
+public class TerminalDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public void distributeRequests(DispatchContext context) {
+    int topFloor = context.getNumFloors() - 1;
+    for (int i = 0; i < context.getNumElevators(); i++) {
+      ElevatorState elevator = context.getElevator(i);
+      if (elevator.isTakingRequests()) {
+        if (elevator.getCurrentFloor() == 0) {
+          context.assignUpRequests(i, context.getElevatorCapacity());
+        } else if (elevator.getCurrentFloor() == topFloor) {
+          context.assignDownRequests(i, context.getElevatorCapacity());
+        }
+      }
+    }
+    if (!context.getDownRequests().isEmpty()) {
+      this.summonToTopFloor(context);
+    }
+  }
+
+  /**
+   * Summon a LOOK elevator to the top floor, unless an elevator is already going there. The
+   * elevator closest to the top is preferred, out of those on their way up, those going back
+   * down to park with no stops below them and those waiting at the bottom.
+   * @param context the building's elevators and pending requests.
+   */
+  private void summonToTopFloor(DispatchContext context) {
+    int topFloor = context.getNumFloors() - 1;
+    int best = -1;
+    int bestFloor = -1;
+    for (int i = 0; i < context.getNumElevators(); i++) {
+      ElevatorState elevator = context.getElevator(i);
+      boolean goingUp = elevator.getDirection() == Direction.UP && !elevator.isTakingRequests();
+      if (goingUp && (elevator.getSweepMode() == SweepMode.FULL
+          || elevator.getCurrentFloor() == topFloor || elevator.hasFloorRequest(topFloor))) {
+        return;
+      }
+      if (elevator.getCurrentFloor() == topFloor && elevator.isTakingRequests()) {
+        return;
+      }
+      if (elevator.getSweepMode() != SweepMode.LOOK) {
+        continue;
+      }
+      boolean waitingAtBottom = elevator.isTakingRequests() && elevator.getCurrentFloor() == 0;
+      boolean returning = isReturning(elevator) && elevator.getCurrentFloor() < topFloor;
+      if ((goingUp || waitingAtBottom || returning) && elevator.getCurrentFloor() > bestFloor) {
+        best = i;
+        bestFloor = elevator.getCurrentFloor();
+      }
+    }
+    if (best >= 0) {
+      context.summon(best, topFloor);
+    }
+  }
+
+  /**
+   * Check if an elevator is going back down to park, with no stops at or below its floor.
+   * @param elevator the elevator to check.
+   * @return true if the elevator can turn around for the top floor.
+   */
+  private static boolean isReturning(ElevatorState elevator) {
+    // An elevator out of service also goes down, but has no spare capacity.
+    if (elevator.getDirection() != Direction.DOWN || elevator.isTakingRequests()
+        || elevator.getCurrentFloor() == 0 || elevator.getSpareCapacity() == 0) {
+      return false;
+    }
+    for (int floor = elevator.getCurrentFloor(); floor >= 0; floor--) {
+      if (elevator.hasFloorRequest(floor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
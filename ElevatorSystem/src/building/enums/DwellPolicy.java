@@ -0,0 +1,23 @@
+package building.enums;
+
+/**
+ * This enum is used to represent when an elevator dwells at the end of its run.
+ * FIXED elevators let the passengers out, then wait for requests at the bottom or the top.
+ * WHEN_IDLE elevators take requests as soon as their door opens at the end of the run, so waiting
+ * passengers board while the others get out and the elevator leaves right away. They only dwell
+ * when there is nobody waiting.
+ */
+public enum DwellPolicy {
+  FIXED("Fixed"),
+  WHEN_IDLE("When Idle");
+  final String display;
+
+  DwellPolicy(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
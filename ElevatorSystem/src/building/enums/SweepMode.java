@@ -0,0 +1,23 @@
+package building.enums;
+
+/**
+ * This enum is used to represent how far the elevators travel on a run.
+ * FULL elevators always go all the way to the top floor and back to the bottom floor.
+ * LOOK elevators turn around as soon as there are no more stops ahead of them, going up or down.
+ * When they have no stops at all they go down and park at the bottom floor, where they take
+ * requests, instead of going on to the top floor.
+ */
+public enum SweepMode {
+  FULL("Full"),
+  LOOK("Look");
+  final String display;
+
+  SweepMode(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
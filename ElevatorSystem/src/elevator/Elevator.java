@@ -2,6 +2,8 @@ package elevator;
 
 
 import building.enums.Direction;
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
 
 import java.util.List;
 
@@ -10,85 +12,25 @@ import scanerzus.Request;
 
 /**
  * An implementation of the ElevatorStatus interface.
+ * The state of the elevator is kept in an ElevatorBank, and the elevator
+ * works on its entry there.  An elevator made on its own has a bank of one.
  */
 public class Elevator implements ElevatorInterface {
   /************************************************************************
-   * static value used to initialize the elevator id.
+   * The bank that holds the state of the elevator.
    ************************************************************************/
-  private static int newElevatorId = 0;
+  private final ElevatorBank bank;
 
   /************************************************************************
-   * The id of the elevator.This is read only.
+   * The index of the elevator in its bank.
    ************************************************************************/
-  private final int id = newElevatorId++;
-
-  /************************************************************************
-   * The total number of floors in the building.
-   ************************************************************************/
-  private final int maxFloor;
-
-  /************************************************************************
-   * The maximum number of people that can fit in the elevator.
-   ************************************************************************/
-  private final int maxOccupancy;
-
-  /************************************************************************
-   * The number of steps that the door is open for.
-   ************************************************************************/
-  @SuppressWarnings("FieldCanBeLocal")
-  private final int doorOpenTimeTotal = 3;
-
-  /************************************************************************
-   * The number of steps that the elevator will wait at the top or bottom.
-   ************************************************************************/
-  private final int stopWaitTimeTotal = 5;
-
-  /************************************************************************
-   * The class variables that change as the elevator runs.
-   ************************************************************************/
-  private boolean takingRequests;
-
-
-  /************************************************************************
-   * The current floor of the elevator. Starts at 0.
-   ************************************************************************/
-  private int currentFloor;
-
-
-  /************************************************************************
-   * The direction the elevator is moving.
-   ************************************************************************/
-  private Direction direction;
-
-  /************************************************************************
-   * The timer for the door.
-   ************************************************************************/
-  private int doorOpenTimeLeft = 0;
-
-  /************************************************************************
-   * The state of the door.
-   ************************************************************************/
-  private boolean doorClosed = true;
-
-
-  /************************************************************************
-   * The timer for the end of the run.
-   ************************************************************************/
-  private int stopWaitTimeLeft = 0;
-
-
-  /************************************************************************
-   * The requests for the floors.
-   ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
-
-
-  private boolean outOfService;  // start must be issued on the elevator to start it.
+  private final int index;
 
 
   /**
    * The constructor for this elevator.
    * The elevator is initially at the ground floor and is not moving.
+   * It is not part of a building, so its id and building id are 0.
    *
    * @param maxFloor     the total number of floors in the building
    *                     must be greater than 0
@@ -99,21 +41,18 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
-    if (maxFloor < 3 || maxFloor > 30) {
-      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
-    }
-    if (maxOccupancy < 3 || maxOccupancy > 20) {
-      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
-    }
-
-    this.maxFloor = maxFloor;
-    this.maxOccupancy = maxOccupancy;
-    this.currentFloor = 0;
-    this.direction = Direction.STOPPED;
-    this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
-    this.takingRequests = false;
+    this(new ElevatorBank(1, maxFloor, maxOccupancy), 0);
+  }
 
+  /**
+   * The constructor for the view of an elevator in a bank.
+   *
+   * @param bank  the bank that holds the state of the elevator
+   * @param index the index of the elevator in the bank
+   */
+  Elevator(ElevatorBank bank, int index) {
+    this.bank = bank;
+    this.index = index;
   }
 
   /* ***********************************************************************
@@ -127,7 +66,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public int getCurrentFloor() {
-    return this.currentFloor;
+    return this.bank.getCurrentFloor(this.index);
   }
 
   /**
@@ -137,7 +76,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public int getMaxFloor() {
-    return this.maxFloor;
+    return this.bank.getMaxFloor();
   }
 
   /**
@@ -147,7 +86,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public int getMaxOccupancy() {
-    return this.maxOccupancy;
+    return this.bank.getMaxOccupancy();
   }
 
   /**
@@ -157,7 +96,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public Direction getDirection() {
-    return this.direction;
+    return this.bank.getDirection(this.index);
   }
 
   /**
@@ -165,7 +104,15 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public int getElevatorId() {
-    return this.id;
+    return this.bank.getElevatorId(this.index);
+  }
+
+  /**
+   * Get the id of the building of the elevator.
+   */
+  @Override
+  public int getBuildingId() {
+    return this.bank.getBuildingId();
   }
 
   /**
@@ -175,17 +122,119 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public boolean isDoorClosed() {
-    return doorClosed;
+    return this.bank.isDoorClosed(this.index);
   }
 
   /**
-   * Return the current stop requests.
+   * Return the current stop requests.  This is a copy with one entry
+   * per floor, it does not change as the elevator runs.
    *
    * @return the current stop requests.
    */
   @Override
   public boolean[] getFloorRequests() {
-    return this.floorRequests;
+    return this.bank.getFloorRequests(this.index);
+  }
+
+  /**
+   * Get the number of requests the elevator can still take on this run.
+   * Passengers dropped off make room for new ones.
+   *
+   * @return the spare capacity of the elevator.
+   */
+  @Override
+  public int getSpareCapacity() {
+    return this.bank.getSpareCapacity(this.index);
+  }
+
+  /**
+   * Get the number of passengers on board.  Passengers board when the door
+   * opens at their start floor, unless the elevator is full, and get off
+   * when it opens at their end floor.
+   *
+   * @return the occupancy of the elevator.
+   */
+  @Override
+  public int getOccupancy() {
+    return this.bank.getOccupancy(this.index);
+  }
+
+  /**
+   * Get how full the elevator is.
+   *
+   * @return the occupancy divided by the maximum occupancy.
+   */
+  @Override
+  public double getLoadFactor() {
+    return this.bank.getLoadFactor(this.index);
+  }
+
+  /**
+   * Check if the elevator will stop at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if there is a stop request for the floor.
+   */
+  @Override
+  public boolean hasFloorRequest(int floor) {
+    return this.bank.hasFloorRequest(this.index, floor);
+  }
+
+  /**
+   * SweepMode getter.
+   *
+   * @return how far the elevator travels on a run.
+   */
+  @Override
+  public SweepMode getSweepMode() {
+    return this.bank.getSweepMode(this.index);
+  }
+
+  /**
+   * SweepMode setter.
+   *
+   * @param sweepMode how far the elevator travels on a run.
+   */
+  @Override
+  public void setSweepMode(SweepMode sweepMode) {
+    if (sweepMode == null) {
+      throw new IllegalArgumentException("sweepMode cannot be null");
+    }
+    this.bank.setSweepMode(this.index, sweepMode);
+  }
+
+  /**
+   * DwellPolicy getter.
+   *
+   * @return when the elevator dwells at the end of its run.
+   */
+  @Override
+  public DwellPolicy getDwellPolicy() {
+    return this.bank.getDwellPolicy(this.index);
+  }
+
+  /**
+   * DwellPolicy setter.
+   *
+   * @param dwellPolicy when the elevator dwells at the end of its run.
+   */
+  @Override
+  public void setDwellPolicy(DwellPolicy dwellPolicy) {
+    if (dwellPolicy == null) {
+      throw new IllegalArgumentException("dwellPolicy cannot be null");
+    }
+    this.bank.setDwellPolicy(this.index, dwellPolicy);
+  }
+
+  /**
+   * Get the steps saved by the dwell policy.
+   *
+   * @return the number of steps the elevator left earlier than it would have with
+   *         the FIXED dwell policy.
+   */
+  @Override
+  public int getDwellTicksSaved() {
+    return this.bank.getDwellTicksSaved(this.index);
   }
 
   /* ***********************************************************************
@@ -194,6 +243,8 @@ public class Elevator implements ElevatorInterface {
    * start() - start the elevator
    * step() - move the elevator one step
    * processRequests() - process the requests
+   * processHallCalls() - pick up requests on the way
+   * summon() - send the elevator to a floor
    * takeOutOfService() - take the elevator out of service
    * isTakingRequests() - is the elevator taking requests
    * toString() - string representation of the elevator
@@ -207,13 +258,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public void start() {
-    this.outOfService = false;
-    this.takingRequests = true;
-    clearStopRequests();
-    this.doorClosed = true;
-    this.doorOpenTimeLeft = 0;
-    this.stopWaitTimeLeft = this.stopWaitTimeTotal;
-    this.direction = Direction.UP;
+    this.bank.start(this.index);
   }
 
 
@@ -224,144 +269,39 @@ public class Elevator implements ElevatorInterface {
    * Third Check to see if the elevator is waiting at the top or bottom.
    * Fourth check to see if there is a request at this floor.
    */
+  @Override
   public void step() {
-    // If the elevator is out of service then we need to deal with that.
-    if (this.outOfService) {
-      this.stepOutOfService();
-      return;
-    }
-
-    // If the door is open we call the stepDoorOpen function and return.
-    if (!this.doorClosed) {
-      this.stepDoorOpen();
-      return;
-    }
-
-    // If the elevator is at the top or bottom we call the
-    // stepTopOrBottom function and return.
-    if (this.stopWaitTimeLeft > 0) {
-      this.stepTopOrBottom();
-      return;
-    }
-
-    // We are not out of service,
-    // the door is closed and we are not waiting at the top or bottom.
-    // now we check to see if there is a request at this floor
-    // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
-      this.doorClosed = false;
-      this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
-      return;
-    }
-
-    // We are not out of service
-    // the door is closed
-    // and there is no request at this floor.
-    // We may be at the top or the bottom
-
-
-    // If we are at the bottom
-    // and the direction is down
-    // we need to set the direction to up
-    // we set the timer to this.stopWaitTimeTotal
-    if (this.currentFloor == 0 && this.direction == Direction.DOWN) {
-      this.direction = Direction.STOPPED;
-      this.stopWaitTimeLeft = this.stopWaitTimeTotal;
-      this.takingRequests = true;
-      return;
-    }
-
-    // If we are at the top
-    // and the direction is up
-    // we need to set the direction to down
-    // we set the timer to this.stopWaitTimeTotal
-    if (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP) {
-      this.direction = Direction.STOPPED;
-      this.stopWaitTimeLeft = this.stopWaitTimeTotal;
-      this.takingRequests = true;
-      return;
-    }
-
-    // we have exhausted all of our options.
-    // We are not out of service
-    // the door is closed
-    // there is no request at this floor
-    // we are not at the top or the bottom
-    // we need to move the elevator in the direction it is currently moving.
-
-    int floorIncrement = 1;
-    if (this.direction == Direction.UP) {
-      this.currentFloor += floorIncrement;
-    } else if (this.direction == Direction.DOWN) {
-      this.currentFloor -= floorIncrement;
-    }
+    this.bank.step(this.index);
   }
 
   /**
-   * Step the elevator when out of service.
-   * If the elevator is on the ground floor and the door is open return
-   * If the elevator is on the ground floor and the door is closed
-   * then open the door.
-   * <p></p>
-   * If the elevator is not on the ground floor and the door is open
-   * then execute stepDoorOpen
-   */
-  private void stepOutOfService() {
-    if (this.currentFloor == 0 && !this.doorClosed) {
-      return;
-    }
-
-    //
-    if (this.currentFloor == 0) {
-      this.doorClosed = false;
-      // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
-      // we can set the elevator to stopped.
-      this.direction = Direction.STOPPED;
-      return;
-    }
-
-    // at this point we know we are not on the ground floor
-    // check to see if the door is open.
-
-    if (!this.doorClosed) {
-      this.stepDoorOpen();
-
-      return;
-    }
-
-    // set the direction of the elevator to down.
-    this.direction = Direction.DOWN;
-    this.currentFloor--;
-  }
-
-  /**
-   * Process the door open step function.
+   * Count the steps ahead in which nothing happens but a timer
+   * counting down or the elevator moving past floors where it does not stop.
+   * Those steps can be done at once with skipTicks.
+   * A step where the door opens or closes, the direction changes or the
+   * elevator starts or stops taking requests is an event and ends the count.
+   * The count assumes no requests are given to the elevator in the meantime.
+   *
+   * @return the number of steps before the next event,
+   *         Integer.MAX_VALUE if the elevator stays as it is.
    */
-  private void stepDoorOpen() {
-    this.doorOpenTimeLeft--;
-    if (this.doorOpenTimeLeft == 0) {
-      this.doorClosed = true;
-    }
+  @Override
+  public int ticksUntilNextEvent() {
+    return this.bank.ticksUntilNextEvent(this.index);
   }
 
   /**
-   * Process the top or bottom step function.
+   * Do a number of steps at once.  The steps must not go past the next event,
+   * so this has the same effect as calling step() that many times.
+   *
+   * @param ticks the number of steps, at most ticksUntilNextEvent().
+   * @throws IllegalArgumentException if ticks is negative or goes past the next event.
    */
-  private void stepTopOrBottom() {
-    this.stopWaitTimeLeft--;
-    if (this.stopWaitTimeLeft == 0) {
-      this.takingRequests = false;
-      if (this.currentFloor == 0) {
-        this.direction = Direction.UP;
-      } else if (this.currentFloor == this.maxFloor - 1) {
-        this.direction = Direction.DOWN;
-      }
-    }
+  @Override
+  public void skipTicks(int ticks) throws IllegalArgumentException {
+    this.bank.skipTicks(this.index, ticks);
   }
 
-
   /**
    * Process the requests.  The Building will only give us requests
    * that are on the way to our current direction.  That is,
@@ -372,23 +312,34 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public void processRequests(List<Request> requests) throws IllegalStateException {
-    if (this.currentFloor != 0 && this.currentFloor != this.maxFloor - 1) {
-      throw new IllegalStateException("Elevator cannot process requests "
-          + "unless it is at the bottom or top floor.");
-    }
-
-    if (requests.isEmpty()) {
-      return;
-    }
+    this.bank.processRequests(this.index, requests);
+  }
 
-    this.processStopRequests(requests);
-    if (this.currentFloor == 0) {
-      this.direction = Direction.UP;
-    } else if (this.currentFloor == this.maxFloor - 1) {
-      this.direction = Direction.DOWN;
-    }
-    this.takingRequests = false;
+  /**
+   * Process hall calls.  This is collective control: an elevator that is
+   * on its run and has spare capacity can pick up requests on the way,
+   * without going back to the bottom or the top first.
+   * A hall call must go the same way as the elevator and start on a floor
+   * the elevator has not reached yet.  The stops of the current run are kept.
+   */
+  @Override
+  public void processHallCalls(List<Request> requests) throws IllegalStateException,
+      IllegalArgumentException {
+    this.bank.processHallCalls(this.index, requests);
+  }
 
+  /**
+   * Summon the elevator to a floor, so that it can take requests there.
+   * In LOOK mode an elevator only goes as far as its stops, so the building
+   * uses this to send one to the top floor when there are down requests.
+   * An elevator waiting at the bottom or the top leaves right away towards
+   * the floor.  An elevator on its run must not have passed the floor yet,
+   * unless it is a LOOK elevator going back down to park with no stops below
+   * it, which turns around.
+   */
+  @Override
+  public void summon(int floor) throws IllegalStateException, IllegalArgumentException {
+    this.bank.summon(this.index, floor);
   }
 
   /**
@@ -396,12 +347,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public void takeOutOfService() {
-    this.clearStopRequests();
-    this.takingRequests = false;
-    this.direction = Direction.DOWN;
-
-    this.outOfService = true;
-    this.stopWaitTimeLeft = 0;
+    this.bank.takeOutOfService(this.index);
   }
 
   /**
@@ -412,29 +358,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public boolean isTakingRequests() {
-    return this.takingRequests;
-  }
-
-
-  private void processStopRequests(List<Request> requests) {
-    clearStopRequests();
-
-    for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
-    }
-    // if the elevator was waiting at the top or bottom
-    // set the timer to 0 and we are off to the races.
-    this.stopWaitTimeLeft = 0;
-  }
-
-  /**
-   * Clear the Floor Requests.
-   */
-  private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
-    }
+    return this.bank.isTakingRequests(this.index);
   }
 
   /**
@@ -444,18 +368,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public String toString() {
-    ElevatorReport report = new ElevatorReport(
-        this.id,
-        this.currentFloor,
-        this.direction,
-        this.doorClosed,
-        this.floorRequests,
-        this.doorOpenTimeLeft,
-        this.stopWaitTimeLeft,
-        this.outOfService,
-        this.takingRequests);
-
-    return report.toString();
+    return this.getElevatorStatus().toString();
   }
 
 
@@ -466,16 +379,7 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public ElevatorReport getElevatorStatus() {
-    return new ElevatorReport(
-        this.id,
-        this.currentFloor,
-        this.direction,
-        this.doorClosed,
-        this.floorRequests,
-        this.doorOpenTimeLeft,
-        this.stopWaitTimeLeft,
-        this.outOfService,
-        this.takingRequests);
+    return this.bank.getElevatorStatus(this.index);
   }
 
 }
@@ -0,0 +1,1124 @@
+package elevator;
+
+import building.enums.Direction;
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import scanerzus.Request;
+
+/**
+ * A bank of elevators of the same size, kept as parallel arrays with one entry per elevator
+ * instead of one object per elevator. Stepping the bank steps every elevator in one loop over
+ * the arrays. Each elevator in the bank can also be used on its own through an Elevator view,
+ * which works on its entry in the arrays, so the bank and its views always agree.
+ */
+public final class ElevatorBank {
+  /************************************************************************
+   * The number of steps that the door is open for.
+   ************************************************************************/
+  private static final int DOOR_OPEN_TIME_TOTAL = 3;
+
+  /************************************************************************
+   * The number of steps that the elevator will wait at the top or bottom.
+   ************************************************************************/
+  private static final int STOP_WAIT_TIME_TOTAL = 5;
+
+  /************************************************************************
+   * The smallest bank that is stepped in parallel, and the number of
+   * elevators each parallel task steps.  Below the threshold the cost of
+   * handing out the tasks is more than the cost of the steps.
+   *
+   * ParallelStepBenchmark (benchmarks/results/parallel-step.txt) measures
+   * a serial step at about 10 ns per elevator, and handing a step to the
+   * pool at about 1.5 us for 256 elevators and 5 us for 1024.  On two
+   * cores a split saves half the step, so it pays off from about
+   * 2 * 5 us / 10 ns = 1000 elevators; the threshold is the next power of
+   * two.  These runs had one core, where the split never saves anything,
+   * so Building only steps in parallel on more than one core.
+   ************************************************************************/
+  public static final int PARALLEL_THRESHOLD = 2048;
+  private static final int PARALLEL_CHUNK = 1024;
+
+  /************************************************************************
+   * An elevator is given requests for up to RIDERS_PER_SEAT passengers per
+   * seat, counting the ones on board and the ones it is on its way to pick
+   * up.  Only the passengers on board take a seat, so an elevator can be
+   * given more requests than it has seats, and the passengers who find it
+   * full are left behind.  The bound keeps the arrays of an elevator from
+   * growing.
+   ************************************************************************/
+  private static final int RIDERS_PER_SEAT = 2;
+
+  /************************************************************************
+   * The bytes of an elevator in a checkpoint without its passengers, and
+   * of each passenger.  The flags of an elevator are packed in one byte.
+   ************************************************************************/
+  private static final int ELEVATOR_CHECKPOINT_BYTES = 42;
+  private static final int REQUEST_CHECKPOINT_BYTES = 24;
+  private static final int DOOR_CLOSED_FLAG = 1;
+  private static final int TAKING_REQUESTS_FLAG = 2;
+  private static final int OUT_OF_SERVICE_FLAG = 4;
+  private static final int LOOK_FLAG = 8;
+  private static final int WHEN_IDLE_FLAG = 16;
+
+  /************************************************************************
+   * The directions, stored by their ordinal.
+   ************************************************************************/
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final byte UP = (byte) Direction.UP.ordinal();
+  private static final byte DOWN = (byte) Direction.DOWN.ordinal();
+  private static final byte STOPPED = (byte) Direction.STOPPED.ordinal();
+
+  /************************************************************************
+   * The id of the building the bank belongs to.  The elevators of the bank
+   * are numbered from 0 in order, so ids depend only on how the building
+   * is made and not on what else is made at the same time.
+   ************************************************************************/
+  private final int buildingId;
+
+  /************************************************************************
+   * The total number of floors and the maximum number of people
+   * that can fit in each elevator.
+   ************************************************************************/
+  private final int maxFloor;
+  private final int maxOccupancy;
+
+  /************************************************************************
+   * The state of the elevators, one entry per elevator.
+   * The stop requests of an elevator are one bit per floor; the 30 floor
+   * limit keeps them within a single word.
+   ************************************************************************/
+  private final int[] currentFloor;
+  private final byte[] direction;
+  private final boolean[] doorClosed;
+  private final int[] doorOpenTimeLeft;
+  private final int[] stopWaitTimeLeft;
+  private final long[] floorRequests;
+  private final boolean[] takingRequests;
+  private final boolean[] outOfService;
+  private final boolean[] look;
+  private final boolean[] whenIdle;
+  private final int[] dwellTicksSaved;
+
+  /************************************************************************
+   * The passengers of the elevators.  Each elevator counts its own steps,
+   * and keeps the requests it was given until it drops them off, with the
+   * tick each was picked up on, or -1 while it is still waiting.  The
+   * arrays of an elevator are made when it is started, so a step does
+   * not allocate them.
+   * onBoard counts the passengers picked up, which is never more than
+   * maxOccupancy.  Passengers who find the elevator full are left behind
+   * at their floor, for the building to hand out again.  The list of a
+   * chunk has room for every elevator of it to leave a full load behind.
+   *
+   * The passengers left behind and the journeys are kept per chunk of
+   * PARALLEL_CHUNK elevators, the part of the bank a parallel task steps,
+   * so the tasks share nothing and take no lock.  They are put together
+   * in the order of the chunks when they are read, after the step.
+   ************************************************************************/
+  private final long[] ticks;
+  private final Request[][] riders;
+  private final long[][] pickupTicks;
+  private final int[] riderCount;
+  private final int[] onBoard;
+  private final List<ArrayList<Request>> leftBehind;
+  private final JourneyStats[] journeys;
+
+  /************************************************************************
+   * The views of the elevators, made when first asked for, and their
+   * read-only views.
+   ************************************************************************/
+  private final Elevator[] elevators;
+  private final ElevatorStateView[] states;
+
+  /**
+   * The constructor for a bank of elevators that is not part of a building,
+   * which has building id 0.
+   *
+   * @param numberOfElevators the number of elevators, at least 1
+   * @param maxFloor          the total number of floors in the building, from 3 to 30
+   * @param maxOccupancy      the maximum number of people that can fit in an elevator,
+   *                          from 3 to 20
+   * @throws IllegalArgumentException if a value is out of range
+   */
+  public ElevatorBank(int numberOfElevators, int maxFloor, int maxOccupancy) {
+    this(0, numberOfElevators, maxFloor, maxOccupancy);
+  }
+
+  /**
+   * The constructor for a bank of elevators.
+   * The elevators are initially at the ground floor, not moving and out of service.
+   * Their ids are 0 to numberOfElevators - 1.
+   *
+   * @param buildingId        the id of the building, at least 0
+   * @param numberOfElevators the number of elevators, at least 1
+   * @param maxFloor          the total number of floors in the building, from 3 to 30
+   * @param maxOccupancy      the maximum number of people that can fit in an elevator,
+   *                          from 3 to 20
+   * @throws IllegalArgumentException if a value is out of range
+   */
+  public ElevatorBank(int buildingId, int numberOfElevators, int maxFloor, int maxOccupancy) {
+    if (buildingId < 0) {
+      throw new IllegalArgumentException("buildingId cannot be negative");
+    }
+    if (numberOfElevators < 1) {
+      throw new IllegalArgumentException("numberOfElevators must be at least 1");
+    }
+    if (maxFloor < 3 || maxFloor > 30) {
+      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
+    }
+    if (maxOccupancy < 3 || maxOccupancy > 20) {
+      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    }
+    this.buildingId = buildingId;
+    this.maxFloor = maxFloor;
+    this.maxOccupancy = maxOccupancy;
+    this.currentFloor = new int[numberOfElevators];
+    this.direction = new byte[numberOfElevators];
+    this.doorClosed = new boolean[numberOfElevators];
+    this.doorOpenTimeLeft = new int[numberOfElevators];
+    this.stopWaitTimeLeft = new int[numberOfElevators];
+    this.floorRequests = new long[numberOfElevators];
+    this.takingRequests = new boolean[numberOfElevators];
+    this.outOfService = new boolean[numberOfElevators];
+    this.look = new boolean[numberOfElevators];
+    this.whenIdle = new boolean[numberOfElevators];
+    this.dwellTicksSaved = new int[numberOfElevators];
+    this.ticks = new long[numberOfElevators];
+    this.riders = new Request[numberOfElevators][];
+    this.pickupTicks = new long[numberOfElevators][];
+    this.riderCount = new int[numberOfElevators];
+    this.onBoard = new int[numberOfElevators];
+    int chunks = (numberOfElevators + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+    this.leftBehind = new ArrayList<>(chunks);
+    this.journeys = new JourneyStats[chunks];
+    for (int c = 0; c < chunks; c++) {
+      int chunkSize = Math.min(PARALLEL_CHUNK, numberOfElevators - c * PARALLEL_CHUNK);
+      this.leftBehind.add(new ArrayList<>(chunkSize * maxOccupancy));
+      this.journeys[c] = new JourneyStats();
+    }
+    this.elevators = new Elevator[numberOfElevators];
+    this.states = new ElevatorStateView[numberOfElevators];
+    for (int i = 0; i < numberOfElevators; i++) {
+      this.direction[i] = STOPPED;
+      this.doorClosed[i] = true;
+      this.outOfService[i] = true;
+    }
+  }
+
+  /**
+   * Get the number of elevators in the bank.
+   *
+   * @return the number of elevators.
+   */
+  public int size() {
+    return this.elevators.length;
+  }
+
+  /**
+   * Get the id of the building the bank belongs to.
+   *
+   * @return the building id.
+   */
+  public int getBuildingId() {
+    return this.buildingId;
+  }
+
+  /**
+   * Get the times of the journeys of the passengers dropped off so far.
+   *
+   * @return a copy of the journey stats.
+   */
+  public JourneyStats getJourneyStats() {
+    JourneyStats journeys = new JourneyStats();
+    for (JourneyStats chunk : this.journeys) {
+      journeys.add(chunk);
+    }
+    return journeys;
+  }
+
+  /**
+   * Move the passengers who were left behind because their elevator was
+   * full into a collection, so that they can be handed out again.  They
+   * keep the id and the arrival tick they were stamped with.
+   *
+   * @param target the consumer receiving the requests of the passengers.
+   * @return the number of passengers moved.
+   */
+  public int drainLeftBehind(Consumer<? super Request> target) {
+    int count = 0;
+    for (int c = 0; c < this.leftBehind.size(); c++) {
+      ArrayList<Request> chunk = this.leftBehind.get(c);
+      // Indexed, so that draining makes no iterator or array.
+      for (int j = 0; j < chunk.size(); j++) {
+        target.accept(chunk.get(j));
+      }
+      count += chunk.size();
+      chunk.clear();
+    }
+    return count;
+  }
+
+  /**
+   * Get the view of an elevator in the bank.
+   *
+   * @param index the index of the elevator in the bank.
+   * @return the elevator.
+   */
+  public Elevator getElevator(int index) {
+    if (this.elevators[index] == null) {
+      this.elevators[index] = new Elevator(this, index);
+    }
+    return this.elevators[index];
+  }
+
+  /**
+   * Get the read-only view of an elevator in the bank, which cannot be used
+   * to control the elevator.
+   *
+   * @param index the index of the elevator in the bank.
+   * @return the read-only view of the elevator.
+   */
+  public ElevatorStateView getState(int index) {
+    if (this.states[index] == null) {
+      this.states[index] = new ElevatorStateView(this.getElevator(index));
+    }
+    return this.states[index];
+  }
+
+  /**
+   * Step every elevator in the bank once, in order.
+   */
+  public void step() {
+    this.step(0, this.elevators.length);
+  }
+
+  /**
+   * Step every elevator in the bank once, splitting the bank across a pool
+   * when it has at least threshold elevators.  An elevator step only changes
+   * the entries of that elevator, so the result is the same as step().
+   * The method returns when every elevator has stepped.
+   *
+   * @param pool      the pool that runs the steps.
+   * @param threshold the smallest bank to split, usually PARALLEL_THRESHOLD.
+   * @throws IllegalArgumentException if the pool is null.
+   */
+  public void step(ForkJoinPool pool, int threshold) throws IllegalArgumentException {
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+    if (this.elevators.length < threshold) {
+      this.step();
+      return;
+    }
+    pool.invoke(new StepTask(0, this.elevators.length));
+  }
+
+  /**
+   * Get the number of steps before the next event of any elevator in the bank.
+   *
+   * @return the smallest ticksUntilNextEvent of the elevators.
+   */
+  public int ticksUntilNextEvent() {
+    int ticks = Integer.MAX_VALUE;
+    for (int i = 0; i < this.elevators.length && ticks > 0; i++) {
+      ticks = Math.min(ticks, this.ticksUntilNextEvent(i));
+    }
+    return ticks;
+  }
+
+  /**
+   * Do a number of steps at once for every elevator in the bank.
+   *
+   * @param ticks the number of steps, at most ticksUntilNextEvent().
+   * @throws IllegalArgumentException if ticks is negative or goes past the next event.
+   */
+  public void skipTicks(int ticks) throws IllegalArgumentException {
+    if (ticks < 0 || ticks > this.ticksUntilNextEvent()) {
+      throw new IllegalArgumentException("Cannot skip " + ticks + " steps.");
+    }
+    for (int i = 0; i < this.elevators.length; i++) {
+      this.skipQuietTicks(i, ticks);
+    }
+  }
+
+  /**
+   * Make a table for the status of all the elevators in the bank, to be filled with
+   * fillStatusTable.
+   *
+   * @return an empty table with one row per elevator.
+   */
+  public ElevatorStatusTable newStatusTable() {
+    return new ElevatorStatusTable(this.buildingId, this.elevators.length, this.maxFloor,
+        this.maxOccupancy);
+  }
+
+  /**
+   * Fill a table with the status of all the elevators in the bank, so that reporting on every
+   * step allocates nothing.  The reports made by getElevatorStatus are not changed.
+   *
+   * @param table a table made by newStatusTable of this bank.
+   * @throws IllegalArgumentException if the table does not have one row per elevator.
+   */
+  public void fillStatusTable(ElevatorStatusTable table) throws IllegalArgumentException {
+    if (table.size() != this.elevators.length) {
+      throw new IllegalArgumentException("There must be one row per elevator.");
+    }
+    table.fill(this.currentFloor, this.direction, this.doorClosed, this.floorRequests,
+        this.doorOpenTimeLeft, this.stopWaitTimeLeft, this.outOfService, this.takingRequests,
+        this.dwellTicksSaved, this.onBoard);
+  }
+
+  /**
+   * Get the number of bytes that writeCheckpoint writes for the bank as it is now.
+   *
+   * @return the size of the checkpoint of the bank.
+   */
+  public int checkpointBytes() {
+    int bytes = 12 + this.elevators.length * ELEVATOR_CHECKPOINT_BYTES;
+    for (int i = 0; i < this.elevators.length; i++) {
+      bytes += this.riderCount[i] * (REQUEST_CHECKPOINT_BYTES + 8);
+    }
+    bytes += 4;
+    for (List<Request> chunk : this.leftBehind) {
+      bytes += chunk.size() * REQUEST_CHECKPOINT_BYTES;
+    }
+    return bytes + this.getJourneyStats().checkpointBytes();
+  }
+
+  /**
+   * Write the whole state of the bank to a buffer: the state of every elevator, the passengers
+   * it carries or was given, the passengers left behind and the journey stats.  A bank of the
+   * same size that reads it back steps exactly like this one.  The bank must not step while it
+   * is written.
+   *
+   * @param buffer the buffer, with at least checkpointBytes() bytes remaining.
+   */
+  public void writeCheckpoint(ByteBuffer buffer) {
+    buffer.putInt(this.elevators.length);
+    buffer.putInt(this.maxFloor);
+    buffer.putInt(this.maxOccupancy);
+    for (int i = 0; i < this.elevators.length; i++) {
+      buffer.putInt(this.currentFloor[i]);
+      buffer.put(this.direction[i]);
+      buffer.put((byte) ((this.doorClosed[i] ? DOOR_CLOSED_FLAG : 0)
+          | (this.takingRequests[i] ? TAKING_REQUESTS_FLAG : 0)
+          | (this.outOfService[i] ? OUT_OF_SERVICE_FLAG : 0)
+          | (this.look[i] ? LOOK_FLAG : 0)
+          | (this.whenIdle[i] ? WHEN_IDLE_FLAG : 0)));
+      buffer.putInt(this.doorOpenTimeLeft[i]);
+      buffer.putInt(this.stopWaitTimeLeft[i]);
+      buffer.putLong(this.floorRequests[i]);
+      buffer.putInt(this.dwellTicksSaved[i]);
+      buffer.putLong(this.ticks[i]);
+      buffer.putInt(this.onBoard[i]);
+      buffer.putInt(this.riderCount[i]);
+      for (int j = 0; j < this.riderCount[i]; j++) {
+        putRequest(buffer, this.riders[i][j]);
+        buffer.putLong(this.pickupTicks[i][j]);
+      }
+    }
+    int leftBehindCount = 0;
+    for (List<Request> chunk : this.leftBehind) {
+      leftBehindCount += chunk.size();
+    }
+    buffer.putInt(leftBehindCount);
+    for (List<Request> chunk : this.leftBehind) {
+      for (Request request : chunk) {
+        putRequest(buffer, request);
+      }
+    }
+    this.getJourneyStats().writeCheckpoint(buffer);
+  }
+
+  /**
+   * Replace the whole state of the bank with one written by writeCheckpoint.  The views of the
+   * elevators stay valid and show the new state.
+   *
+   * @param buffer the buffer, positioned at the start of the checkpoint of a bank.
+   * @throws IllegalArgumentException if the checkpoint is of a bank of another size, or is not
+   *     valid.
+   */
+  public void readCheckpoint(ByteBuffer buffer) throws IllegalArgumentException {
+    try {
+      if (buffer.getInt() != this.elevators.length || buffer.getInt() != this.maxFloor
+          || buffer.getInt() != this.maxOccupancy) {
+        throw new IllegalArgumentException("The checkpoint is of a bank of another size.");
+      }
+      for (int i = 0; i < this.elevators.length; i++) {
+        this.currentFloor[i] = buffer.getInt();
+        this.direction[i] = buffer.get();
+        if (this.currentFloor[i] < 0 || this.currentFloor[i] >= this.maxFloor
+            || this.direction[i] < 0 || this.direction[i] >= DIRECTIONS.length) {
+          throw new IllegalArgumentException("The checkpoint of elevator " + i
+              + " is not valid.");
+        }
+        int flags = buffer.get();
+        this.doorClosed[i] = (flags & DOOR_CLOSED_FLAG) != 0;
+        this.takingRequests[i] = (flags & TAKING_REQUESTS_FLAG) != 0;
+        this.outOfService[i] = (flags & OUT_OF_SERVICE_FLAG) != 0;
+        this.look[i] = (flags & LOOK_FLAG) != 0;
+        this.whenIdle[i] = (flags & WHEN_IDLE_FLAG) != 0;
+        this.doorOpenTimeLeft[i] = buffer.getInt();
+        this.stopWaitTimeLeft[i] = buffer.getInt();
+        this.floorRequests[i] = buffer.getLong();
+        this.dwellTicksSaved[i] = buffer.getInt();
+        this.ticks[i] = buffer.getLong();
+        this.onBoard[i] = buffer.getInt();
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / (REQUEST_CHECKPOINT_BYTES + 8)
+            || this.onBoard[i] < 0 || this.onBoard[i] > Math.min(count, this.maxOccupancy)) {
+          throw new IllegalArgumentException("The checkpoint of elevator " + i
+              + " is not valid.");
+        }
+        if (count > 0 && (this.riders[i] == null || this.riders[i].length < count)) {
+          int length = Math.max(this.maxOccupancy, count);
+          this.riders[i] = new Request[length];
+          this.pickupTicks[i] = new long[length];
+        }
+        if (this.riders[i] != null) {
+          Arrays.fill(this.riders[i], null);
+        }
+        for (int j = 0; j < count; j++) {
+          this.riders[i][j] = getRequest(buffer);
+          this.pickupTicks[i][j] = buffer.getLong();
+        }
+        this.riderCount[i] = count;
+      }
+      int leftBehindCount = buffer.getInt();
+      if (leftBehindCount < 0 || leftBehindCount > buffer.remaining() / REQUEST_CHECKPOINT_BYTES) {
+        throw new IllegalArgumentException("The checkpoint of the bank is not valid.");
+      }
+      // The chunks are put together when they are read, so the whole checkpoint goes into the
+      // first chunk.
+      for (List<Request> chunk : this.leftBehind) {
+        chunk.clear();
+      }
+      for (int j = 0; j < leftBehindCount; j++) {
+        this.leftBehind.get(0).add(getRequest(buffer));
+      }
+      for (int c = 1; c < this.journeys.length; c++) {
+        this.journeys[c] = new JourneyStats();
+      }
+      this.journeys[0].readCheckpoint(buffer);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("The checkpoint of the bank ends early.");
+    }
+  }
+
+  /**
+   * Write a request with its stamp.
+   */
+  private static void putRequest(ByteBuffer buffer, Request request) {
+    buffer.putInt(request.getStartFloor());
+    buffer.putInt(request.getEndFloor());
+    buffer.putLong(request.getId());
+    buffer.putLong(request.getArrivalTick());
+  }
+
+  /**
+   * Read a request written by putRequest.
+   */
+  private static Request getRequest(ByteBuffer buffer) {
+    return new Request(buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong());
+  }
+
+  /* ***********************************************************************
+   * The state of one elevator, used by the Elevator view.
+   * **********************************************************************/
+
+  int getElevatorId(int i) {
+    return i;
+  }
+
+  int getMaxFloor() {
+    return this.maxFloor;
+  }
+
+  int getMaxOccupancy() {
+    return this.maxOccupancy;
+  }
+
+  int getCurrentFloor(int i) {
+    return this.currentFloor[i];
+  }
+
+  Direction getDirection(int i) {
+    return DIRECTIONS[this.direction[i]];
+  }
+
+  boolean isDoorClosed(int i) {
+    return this.doorClosed[i];
+  }
+
+  boolean isTakingRequests(int i) {
+    return this.takingRequests[i];
+  }
+
+  boolean[] getFloorRequests(int i) {
+    return FloorRequestSet.toArray(this.floorRequests[i], this.maxFloor);
+  }
+
+  boolean hasFloorRequest(int i, int floor) {
+    return FloorRequestSet.contains(this.floorRequests[i], floor);
+  }
+
+  int getSpareCapacity(int i) {
+    if (this.outOfService[i]) {
+      return 0;
+    }
+    return Math.max(0, Math.min(this.maxOccupancy - this.onBoard[i],
+        RIDERS_PER_SEAT * this.maxOccupancy - this.riderCount[i]));
+  }
+
+  int getOccupancy(int i) {
+    return this.onBoard[i];
+  }
+
+  double getLoadFactor(int i) {
+    return (double) this.onBoard[i] / this.maxOccupancy;
+  }
+
+  SweepMode getSweepMode(int i) {
+    return this.look[i] ? SweepMode.LOOK : SweepMode.FULL;
+  }
+
+  void setSweepMode(int i, SweepMode sweepMode) {
+    this.look[i] = sweepMode == SweepMode.LOOK;
+  }
+
+  DwellPolicy getDwellPolicy(int i) {
+    return this.whenIdle[i] ? DwellPolicy.WHEN_IDLE : DwellPolicy.FIXED;
+  }
+
+  void setDwellPolicy(int i, DwellPolicy dwellPolicy) {
+    this.whenIdle[i] = dwellPolicy == DwellPolicy.WHEN_IDLE;
+  }
+
+  int getDwellTicksSaved(int i) {
+    return this.dwellTicksSaved[i];
+  }
+
+  ElevatorReport getElevatorStatus(int i) {
+    return new ElevatorReport(
+        this.buildingId,
+        i,
+        this.currentFloor[i],
+        DIRECTIONS[this.direction[i]],
+        this.doorClosed[i],
+        this.floorRequests[i],
+        this.maxFloor,
+        this.doorOpenTimeLeft[i],
+        this.stopWaitTimeLeft[i],
+        this.outOfService[i],
+        this.takingRequests[i],
+        this.dwellTicksSaved[i],
+        this.onBoard[i],
+        this.maxOccupancy);
+  }
+
+  /* ***********************************************************************
+   * The behaviour of one elevator, used by the bank and the Elevator view.
+   * **********************************************************************/
+
+  void start(int i) {
+    this.outOfService[i] = false;
+    this.takingRequests[i] = true;
+    this.floorRequests[i] = 0L;
+    this.doorClosed[i] = true;
+    this.doorOpenTimeLeft[i] = 0;
+    this.stopWaitTimeLeft[i] = STOP_WAIT_TIME_TOTAL;
+    this.direction[i] = UP;
+    this.riderCount[i] = 0;
+    this.onBoard[i] = 0;
+    if (this.riders[i] == null) {
+      this.riders[i] = new Request[RIDERS_PER_SEAT * this.maxOccupancy];
+      this.pickupTicks[i] = new long[RIDERS_PER_SEAT * this.maxOccupancy];
+    }
+  }
+
+  void takeOutOfService(int i) {
+    this.floorRequests[i] = 0L;
+    this.takingRequests[i] = false;
+    this.direction[i] = DOWN;
+    this.outOfService[i] = true;
+    this.stopWaitTimeLeft[i] = 0;
+    // The passengers still on board leave with the elevator and are not counted.
+    this.riderCount[i] = 0;
+    this.onBoard[i] = 0;
+  }
+
+  void step(int i) {
+    this.ticks[i]++;
+    // If the elevator is out of service then we need to deal with that.
+    if (this.outOfService[i]) {
+      this.stepOutOfService(i);
+      return;
+    }
+
+    // If the door is open we count the door timer down.
+    if (!this.doorClosed[i]) {
+      this.stepDoorOpen(i);
+      return;
+    }
+
+    // If the elevator is waiting at the top or bottom we count the wait timer down.
+    if (this.stopWaitTimeLeft[i] > 0) {
+      this.stepTopOrBottom(i);
+      return;
+    }
+
+    int floor = this.currentFloor[i];
+    long floorBit = 1L << floor;
+    byte direction = this.direction[i];
+
+    // If there is a request at this floor we open the door.
+    if ((this.floorRequests[i] & floorBit) != 0) {
+      this.doorClosed[i] = false;
+      this.doorOpenTimeLeft[i] = DOOR_OPEN_TIME_TOTAL;
+      this.floorRequests[i] &= ~floorBit;
+      if (this.riderCount[i] > 0) {
+        this.exchangePassengers(i, floor);
+      }
+      // With the WHEN_IDLE dwell policy, if this is the end of the run
+      // we take requests while the door is open.
+      if (this.whenIdle[i] && this.isEndOfRun(i)) {
+        this.takingRequests[i] = true;
+      }
+      return;
+    }
+
+    // In LOOK mode, if we are going up and there are no stops above us
+    // we turn around here instead of going to the top.
+    if (this.look[i] && direction == UP && floor < this.maxFloor - 1
+        && this.nextStopAbove(i) < 0) {
+      this.direction[i] = DOWN;
+      return;
+    }
+
+    // The same going down, when the only stops left are above us. A LOOK elevator with no
+    // stops at all goes on down, because it parks at the bottom and takes requests there.
+    if (this.look[i] && direction == DOWN && floor > 0
+        && this.previousStopBelow(i) < 0 && this.floorRequests[i] != 0L) {
+      this.direction[i] = UP;
+      return;
+    }
+
+    // At the bottom going down, or at the top going up,
+    // we stop and wait, taking requests.
+    if ((floor == 0 && direction == DOWN) || (floor == this.maxFloor - 1 && direction == UP)) {
+      this.direction[i] = STOPPED;
+      this.stopWaitTimeLeft[i] = STOP_WAIT_TIME_TOTAL;
+      this.takingRequests[i] = true;
+      return;
+    }
+
+    // Otherwise we move in the direction we are going.
+    if (direction == UP) {
+      this.currentFloor[i] = floor + 1;
+    } else if (direction == DOWN) {
+      this.currentFloor[i] = floor - 1;
+    }
+  }
+
+  int ticksUntilNextEvent(int i) {
+    if (this.outOfService[i]) {
+      if (this.currentFloor[i] == 0 && !this.doorClosed[i]) {
+        return Integer.MAX_VALUE;
+      }
+      return 0;
+    }
+    if (!this.doorClosed[i]) {
+      return this.doorOpenTimeLeft[i] - 1;
+    }
+    if (this.stopWaitTimeLeft[i] > 0) {
+      if (this.isParked(i)) {
+        return Integer.MAX_VALUE;
+      }
+      return this.stopWaitTimeLeft[i] - 1;
+    }
+    int floor = this.currentFloor[i];
+    if (this.hasFloorRequest(i, floor)) {
+      return 0;
+    }
+    if (this.direction[i] == UP) {
+      int nextStop = this.nextStopAbove(i);
+      if (nextStop < 0) {
+        // FULL elevators go to the top, LOOK elevators turn around here.
+        return this.look[i] ? 0 : this.maxFloor - 1 - floor;
+      }
+      return nextStop - floor;
+    }
+    if (this.direction[i] == DOWN) {
+      int previousStop = this.previousStopBelow(i);
+      if (previousStop < 0 && this.look[i] && this.floorRequests[i] != 0L) {
+        // LOOK elevators with stops only above turn around here.
+        return 0;
+      }
+      return floor - Math.max(previousStop, 0);
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  void skipTicks(int i, int ticks) throws IllegalArgumentException {
+    if (ticks < 0 || ticks > this.ticksUntilNextEvent(i)) {
+      throw new IllegalArgumentException("Cannot skip " + ticks + " steps.");
+    }
+    this.skipQuietTicks(i, ticks);
+  }
+
+  void processRequests(int i, List<Request> requests) throws IllegalStateException {
+    int floor = this.currentFloor[i];
+    if (floor != 0 && floor != this.maxFloor - 1) {
+      throw new IllegalStateException("Elevator cannot process requests "
+          + "unless it is at the bottom or top floor.");
+    }
+
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    // With the WHEN_IDLE dwell policy we may get requests at the end of the run,
+    // before we stopped to wait.  Passengers board through the open door
+    // and we leave without opening it again.
+    boolean doorWasOpen = !this.doorClosed[i];
+    boolean endOfRun = this.whenIdle[i] && this.stopWaitTimeLeft[i] == 0 && this.isEndOfRun(i);
+    if (endOfRun && doorWasOpen) {
+      this.dwellTicksSaved[i] += this.doorOpenTimeLeft[i] + 2;
+    } else if (endOfRun) {
+      this.dwellTicksSaved[i] += 1;
+    }
+
+    // A new run replaces the stops and the passengers of the last one.
+    this.floorRequests[i] = 0L;
+    this.riderCount[i] = 0;
+    this.onBoard[i] = 0;
+    this.addStops(i, requests);
+    // if the elevator was waiting at the top or bottom
+    // set the timer to 0 and we are off to the races.
+    this.stopWaitTimeLeft[i] = 0;
+
+    if (endOfRun && doorWasOpen) {
+      this.floorRequests[i] &= ~(1L << floor);
+      this.doorOpenTimeLeft[i] = DOOR_OPEN_TIME_TOTAL;
+      this.exchangePassengers(i, floor);
+    }
+    if (floor == 0) {
+      this.direction[i] = UP;
+    } else {
+      this.direction[i] = DOWN;
+    }
+    this.takingRequests[i] = false;
+  }
+
+  void processHallCalls(int i, List<Request> requests) throws IllegalStateException,
+      IllegalArgumentException {
+    if (this.outOfService[i] || this.takingRequests[i] || this.direction[i] == STOPPED) {
+      throw new IllegalStateException("Elevator can only take hall calls "
+          + "while it is on its run.");
+    }
+    if (requests.size() > this.getSpareCapacity(i)) {
+      throw new IllegalStateException("Elevator does not have room for "
+          + requests.size() + " more requests.");
+    }
+    // Indexed loops here and in addStops, so that handing out requests makes no iterator.
+    for (int j = 0; j < requests.size(); j++) {
+      Request request = requests.get(j);
+      if (!this.isOnTheWay(i, request)) {
+        throw new IllegalArgumentException("Request " + request
+            + " is not on the way of the elevator.");
+      }
+    }
+
+    this.addStops(i, requests);
+  }
+
+  void summon(int i, int floor) throws IllegalStateException, IllegalArgumentException {
+    if (this.outOfService[i]) {
+      throw new IllegalStateException("Elevator is out of service.");
+    }
+    int current = this.currentFloor[i];
+    if (floor < 0 || floor >= this.maxFloor || floor == current) {
+      throw new IllegalArgumentException("Elevator cannot be summoned to floor " + floor + ".");
+    }
+    if (this.takingRequests[i]) {
+      this.floorRequests[i] |= 1L << floor;
+      this.direction[i] = floor > current ? UP : DOWN;
+      this.takingRequests[i] = false;
+      this.stopWaitTimeLeft[i] = 0;
+      return;
+    }
+    // A LOOK elevator going back down to park with no stops below it turns around for a floor
+    // above it.
+    boolean returning = this.look[i] && this.direction[i] == DOWN
+        && !this.hasFloorRequest(i, current) && this.previousStopBelow(i) < 0;
+    if ((this.direction[i] == UP && floor > current)
+        || (this.direction[i] == DOWN && (floor < current || returning))) {
+      this.floorRequests[i] |= 1L << floor;
+      return;
+    }
+    throw new IllegalArgumentException("Floor " + floor + " is not on the way of the elevator.");
+  }
+
+  /* ***********************************************************************
+   * Private helpers.
+   * **********************************************************************/
+
+  /**
+   * Step the elevators from index from up to but not including index to.
+   */
+  private void step(int from, int to) {
+    for (int i = from; i < to; i++) {
+      this.step(i);
+    }
+  }
+
+  /**
+   * Steps a range of the bank, splitting it in half until it is at most
+   * PARALLEL_CHUNK elevators.  The range is only split between two chunks,
+   * so every chunk is stepped by one task.
+   */
+  private final class StepTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int from;
+    private final int to;
+
+    private StepTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= PARALLEL_CHUNK) {
+        ElevatorBank.this.step(this.from, this.to);
+        return;
+      }
+      int chunks = (this.to - this.from + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+      int middle = this.from + chunks / 2 * PARALLEL_CHUNK;
+      invokeAll(new StepTask(this.from, middle), new StepTask(middle, this.to));
+    }
+  }
+
+  /**
+   * Step an elevator that is out of service.  It goes down to the ground floor
+   * and opens its door there.
+   */
+  private void stepOutOfService(int i) {
+    if (this.currentFloor[i] == 0 && !this.doorClosed[i]) {
+      return;
+    }
+
+    if (this.currentFloor[i] == 0) {
+      this.doorClosed[i] = false;
+      // we can clear the floor request now
+      this.floorRequests[i] &= ~1L;
+      // we can set the elevator to stopped.
+      this.direction[i] = STOPPED;
+      return;
+    }
+
+    // We are not on the ground floor, let the door close first.
+    if (!this.doorClosed[i]) {
+      this.stepDoorOpen(i);
+      return;
+    }
+
+    this.direction[i] = DOWN;
+    this.currentFloor[i]--;
+  }
+
+  /**
+   * Count the door timer down and close the door when it runs out.
+   */
+  private void stepDoorOpen(int i) {
+    this.doorOpenTimeLeft[i]--;
+    if (this.doorOpenTimeLeft[i] == 0) {
+      this.doorClosed[i] = true;
+    }
+  }
+
+  /**
+   * Count the wait timer down at the top or bottom and leave when it runs out.
+   */
+  private void stepTopOrBottom(int i) {
+    this.stopWaitTimeLeft[i]--;
+    if (this.stopWaitTimeLeft[i] == 0) {
+      // In LOOK mode an elevator with nothing to do stays parked at the bottom
+      // and keeps taking requests.
+      if (this.look[i] && this.currentFloor[i] == 0 && this.floorRequests[i] == 0L) {
+        this.stopWaitTimeLeft[i] = STOP_WAIT_TIME_TOTAL;
+        return;
+      }
+      this.takingRequests[i] = false;
+      if (this.currentFloor[i] == 0) {
+        this.direction[i] = UP;
+      } else if (this.currentFloor[i] == this.maxFloor - 1) {
+        this.direction[i] = DOWN;
+      }
+    }
+  }
+
+  /**
+   * Do steps that only count a timer down or move past floors without a stop.
+   * The caller checks that the steps do not go past the next event.
+   */
+  private void skipQuietTicks(int i, int ticks) {
+    this.ticks[i] += ticks;
+    if (ticks == 0 || this.outOfService[i]) {
+      return;
+    }
+    if (!this.doorClosed[i]) {
+      this.doorOpenTimeLeft[i] -= ticks;
+    } else if (this.stopWaitTimeLeft[i] > 0) {
+      if (this.isParked(i)) {
+        // The wait timer of a parked elevator starts over every time it runs out.
+        this.stopWaitTimeLeft[i] =
+            Math.floorMod(this.stopWaitTimeLeft[i] - 1 - ticks, STOP_WAIT_TIME_TOTAL) + 1;
+      } else {
+        this.stopWaitTimeLeft[i] -= ticks;
+      }
+    } else if (this.direction[i] == UP) {
+      this.currentFloor[i] += ticks;
+    } else if (this.direction[i] == DOWN) {
+      this.currentFloor[i] -= ticks;
+    }
+  }
+
+  /**
+   * Add the start and end floors of requests to the stops of an elevator,
+   * and the requests to its passengers.
+   */
+  private void addStops(int i, List<Request> requests) {
+    int count = this.riderCount[i];
+    if (this.riders[i] == null || count + requests.size() > this.riders[i].length) {
+      int length = Math.max(this.maxOccupancy, count + requests.size());
+      this.riders[i] = this.riders[i] == null
+          ? new Request[length] : Arrays.copyOf(this.riders[i], length);
+      this.pickupTicks[i] = this.pickupTicks[i] == null
+          ? new long[length] : Arrays.copyOf(this.pickupTicks[i], length);
+    }
+    Request[] riders = this.riders[i];
+    long[] pickupTicks = this.pickupTicks[i];
+    long stops = this.floorRequests[i];
+    for (int j = 0; j < requests.size(); j++) {
+      Request request = requests.get(j);
+      stops |= 1L << request.getStartFloor();
+      stops |= 1L << request.getEndFloor();
+      riders[count] = request;
+      pickupTicks[count] = -1;
+      count++;
+    }
+    this.floorRequests[i] = stops;
+    this.riderCount[i] = count;
+  }
+
+  /**
+   * Drop off the passengers going to a floor and then pick up the ones
+   * waiting there, as many as there is room for, counting the journeys of
+   * the ones dropped off.  The door of the elevator has just opened at the
+   * floor.
+   */
+  private void exchangePassengers(int i, int floor) {
+    Request[] riders = this.riders[i];
+    long[] pickupTicks = this.pickupTicks[i];
+    long now = this.ticks[i];
+    int count = this.riderCount[i];
+    int onBoard = this.onBoard[i];
+    JourneyStats journeys = this.journeys[i / PARALLEL_CHUNK];
+    int j = 0;
+    while (j < count) {
+      if (pickupTicks[j] >= 0 && riders[j].getEndFloor() == floor) {
+        journeys.record(riders[j].getArrivalTick(), pickupTicks[j], now);
+        onBoard--;
+        count = this.removeRider(i, j, count);
+      } else {
+        j++;
+      }
+    }
+    j = 0;
+    while (j < count) {
+      Request rider = riders[j];
+      if (pickupTicks[j] >= 0 || rider.getStartFloor() != floor) {
+        j++;
+      } else if (rider.getEndFloor() == floor) {
+        // Going nowhere, so the passenger gets on and off at once.
+        journeys.record(rider.getArrivalTick(), now, now);
+        count = this.removeRider(i, j, count);
+      } else if (onBoard < this.maxOccupancy) {
+        pickupTicks[j] = now;
+        onBoard++;
+        j++;
+      } else {
+        this.leftBehind.get(i / PARALLEL_CHUNK).add(rider);
+        count = this.removeRider(i, j, count);
+      }
+    }
+    this.riderCount[i] = count;
+    this.onBoard[i] = onBoard;
+  }
+
+  /**
+   * Remove a passenger from an elevator by moving the last one into the gap.
+   *
+   * @return the number of passengers left.
+   */
+  private int removeRider(int i, int j, int count) {
+    int last = count - 1;
+    this.riders[i][j] = this.riders[i][last];
+    this.pickupTicks[i][j] = this.pickupTicks[i][last];
+    this.riders[i][last] = null;
+    return last;
+  }
+
+  /**
+   * Check if a request starts ahead of an elevator and goes the same way.
+   */
+  private boolean isOnTheWay(int i, Request request) {
+    int start = request.getStartFloor();
+    int end = request.getEndFloor();
+    if (this.direction[i] == UP) {
+      return start > this.currentFloor[i] && end >= start && end < this.maxFloor;
+    }
+    return start < this.currentFloor[i] && end <= start && end >= 0;
+  }
+
+  /**
+   * Check if an elevator is at the end of its run, that is at the bottom going down
+   * or at the top going up.
+   */
+  private boolean isEndOfRun(int i) {
+    return (this.currentFloor[i] == 0 && this.direction[i] == DOWN)
+        || (this.currentFloor[i] == this.maxFloor - 1 && this.direction[i] == UP);
+  }
+
+  /**
+   * Check if an elevator is parked, that is a LOOK elevator waiting at the bottom
+   * with nothing to do.
+   */
+  private boolean isParked(int i) {
+    return this.look[i] && this.currentFloor[i] == 0 && this.stopWaitTimeLeft[i] > 0
+        && this.floorRequests[i] == 0L;
+  }
+
+  /**
+   * Find the closest stop above the current floor of an elevator, or -1 if there is none.
+   */
+  private int nextStopAbove(int i) {
+    return FloorRequestSet.nextAbove(this.floorRequests[i], this.currentFloor[i]);
+  }
+
+  /**
+   * Find the closest stop below the current floor of an elevator, or -1 if there is none.
+   */
+  private int previousStopBelow(int i) {
+    return FloorRequestSet.previousBelow(this.floorRequests[i], this.currentFloor[i]);
+  }
+}
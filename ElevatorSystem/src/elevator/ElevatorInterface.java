@@ -1,63 +1,16 @@
 package elevator;
 
-import building.enums.Direction;
-
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
 import java.util.List;
 
 import scanerzus.Request;
 
 
 /**
- * An interface for an elevator.
+ * An interface for an elevator. The read-only getters are inherited from ElevatorState.
  */
-public interface ElevatorInterface {
-
-  /**
-   * ElevatorStatus ID getter.
-   *
-   * @return the elevator ID as a string.
-   */
-  int getElevatorId();
-
-  /**
-   * Returns the maximum number of floors the elevator can go to.
-   *
-   * @return the maximum number of floors the elevator can go to.
-   */
-  int getMaxFloor();
-
-
-  /**
-   * maxOccupancy getter
-   * Notice that it is not the responsibility of the elevator to
-   * keep track of the people in the elevator.
-   *
-   * @return the maximum number of people that can fit in the elevator.
-   */
-  int getMaxOccupancy();
-
-  /**
-   * Returns the current floor of the elevator.
-   *
-   * @return the current floor of the elevator.
-   */
-
-  int getCurrentFloor();
-
-
-  /**
-   * Returns the direction the elevator is moving in.
-   *
-   * @return the direction the elevator is moving in.
-   */
-  Direction getDirection();
-
-  /**
-   * Returns the door status of the elevator.
-   *
-   * @return the door status of the elevator.
-   */
-  boolean isDoorClosed();
+public interface ElevatorInterface extends ElevatorState {
 
   /**
    * Return the current stop requests.
@@ -91,6 +44,23 @@ public interface ElevatorInterface {
    */
   void step();
 
+  /**
+   * Returns the number of steps ahead in which nothing happens but a timer counting
+   * down or the elevator moving past floors where it does not stop, assuming it gets
+   * no requests in the meantime.
+   *
+   * @return the number of steps before the next event, Integer.MAX_VALUE if there is none.
+   */
+  int ticksUntilNextEvent();
+
+  /**
+   * Do a number of steps at once, with the same effect as calling step() that many times.
+   *
+   * @param ticks the number of steps, at most ticksUntilNextEvent().
+   * @throws IllegalArgumentException if ticks is negative or goes past the next event.
+   */
+  void skipTicks(int ticks) throws IllegalArgumentException;
+
   /**
    * processUpRequests.
    * This will tell the elevator to process these upRequests on the next run.
@@ -100,14 +70,47 @@ public interface ElevatorInterface {
    */
   void processRequests(List<Request> requests) throws IllegalArgumentException;
 
+  /**
+   * processHallCalls.
+   * This will tell the elevator to pick up these requests on its current run.
+   * These are only accepted while the elevator is moving, if it has spare capacity
+   * and if every request starts ahead of it and goes the same way.
+   *
+   * @param requests the requests to pick up on the way.
+   * @throws IllegalStateException if the elevator is not on a run or does not have room.
+   * @throws IllegalArgumentException if a request is not on the way of the elevator.
+   */
+  void processHallCalls(List<Request> requests) throws IllegalStateException,
+      IllegalArgumentException;
+
+
+  /**
+   * summon.
+   * This will send the elevator to a floor, so that it can take requests there.
+   * An elevator waiting at the bottom or the top leaves towards the floor,
+   * an elevator on its run adds a stop if it has not passed the floor yet.
+   * A LOOK elevator going back down to park with no stops below it turns
+   * around for a floor above it.
+   *
+   * @param floor the floor to send the elevator to.
+   * @throws IllegalStateException if the elevator is out of service.
+   * @throws IllegalArgumentException if the floor is not on the way of the elevator.
+   */
+  void summon(int floor) throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Set how far the elevator travels on a run.
+   *
+   * @param sweepMode the sweep mode of the elevator.
+   */
+  void setSweepMode(SweepMode sweepMode);
 
   /**
-   * isTakingRequests.
-   * This will tell the building if the elevator is taking requests.
+   * Set when the elevator dwells at the end of its run.
    *
-   * @return true if the elevator is taking requests, false otherwise.
+   * @param dwellPolicy the dwell policy of the elevator.
    */
-  boolean isTakingRequests();
+  void setDwellPolicy(DwellPolicy dwellPolicy);
 
   /**
    * This method is used to get the elevator status ElevatorReport.
@@ -6,10 +6,13 @@ import building.enums.Direction;
  * This class is used to represent the status of the elevators.
  */
 public class ElevatorReport {
+  // An elevator is identified by its building id together with its elevator id.
+  private final int buildingId;
   private final int elevatorId;
   private final int currentFloor;
   private final boolean doorClosed;
-  private final boolean[] floorRequests;
+  private final long floorRequests;
+  private final int numFloors;
   private final Direction direction;
 
   private final int doorOpenTimer;
@@ -19,6 +22,10 @@ public class ElevatorReport {
 
   private final boolean isTakingRequests;
 
+  private final int dwellTicksSaved;
+
+  private final int occupancy;
+  private final int maxOccupancy;
 
   /**
    * This constructor is used to create a new ElevatorReport object.
@@ -32,6 +39,7 @@ public class ElevatorReport {
    * @param endWaitTimer     The timer for the end of the run.
    * @param outOfService     The status of the elevator.
    * @param isTakingRequests Is the elevator taking requests.
+   * @throws IllegalArgumentException if there are more than 64 floors.
    */
   public ElevatorReport(int elevatorId,
                         int currentFloor,
@@ -42,21 +50,95 @@ public class ElevatorReport {
                         int doorOpenTimer,
                         int endWaitTimer,
                         boolean outOfService,
-                        boolean isTakingRequests) {
+                        boolean isTakingRequests) throws IllegalArgumentException {
+    this(elevatorId, currentFloor, direction, doorClosed, floorRequests, doorOpenTimer,
+        endWaitTimer, outOfService, isTakingRequests, 0);
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object that also reports the
+   * steps saved by the dwell policy of the elevator.
+   *
+   * @param elevatorId       The id of the elevator.
+   * @param currentFloor     The current floor of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param floorRequests    The requests for the floors.
+   * @param direction        The direction of the elevator.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   * @param dwellTicksSaved  The steps saved by the dwell policy.
+   * @throws IllegalArgumentException if there are more than 64 floors.
+   */
+  public ElevatorReport(int elevatorId,
+                        int currentFloor,
+                        Direction direction,
+                        boolean doorClosed,
+                        boolean[] floorRequests,
+                        int doorOpenTimer,
+                        int endWaitTimer,
+                        boolean outOfService,
+                        boolean isTakingRequests,
+                        int dwellTicksSaved) throws IllegalArgumentException {
+    this(0, elevatorId, currentFloor, direction, doorClosed, FloorRequestSet.of(floorRequests),
+        floorRequests.length, doorOpenTimer, endWaitTimer, outOfService, isTakingRequests,
+        dwellTicksSaved, 0, 0);
+  }
+
+  /**
+   * This constructor is used by the elevator and the status table, which hand over the stop
+   * requests as a bitset instead of an array, see FloorRequestSet.
+   *
+   * @param buildingId       The id of the building of the elevator.
+   * @param floorRequests    The requests for the floors, bit i for floor i.
+   * @param numFloors        The number of floors in the building.
+   * @param occupancy        The number of passengers on board.
+   * @param maxOccupancy     The maximum number of passengers.
+   */
+  ElevatorReport(int buildingId,
+                 int elevatorId,
+                 int currentFloor,
+                 Direction direction,
+                 boolean doorClosed,
+                 long floorRequests,
+                 int numFloors,
+                 int doorOpenTimer,
+                 int endWaitTimer,
+                 boolean outOfService,
+                 boolean isTakingRequests,
+                 int dwellTicksSaved,
+                 int occupancy,
+                 int maxOccupancy) {
+    this.buildingId = buildingId;
     this.elevatorId = elevatorId;
     this.currentFloor = currentFloor;
     this.doorClosed = doorClosed;
     this.floorRequests = floorRequests;
+    this.numFloors = numFloors;
     this.direction = direction;
     this.doorOpenTimer = doorOpenTimer;
     this.endWaitTimer = endWaitTimer;
     this.outOfService = outOfService;
     this.isTakingRequests = isTakingRequests;
+    this.dwellTicksSaved = dwellTicksSaved;
+    this.occupancy = occupancy;
+    this.maxOccupancy = maxOccupancy;
   }
 
 
   // getters, no setters
 
+  /**
+   * This method is used to get the id of the building of the elevator. Elevator ids are only
+   * unique within a building, so two reports are about the same elevator when both ids match.
+   *
+   * @return The id of the building, 0 for an elevator that is not part of a building.
+   */
+  public int getBuildingId() {
+    return buildingId;
+  }
+
   /**
    * This method is used to get the id of the elevator.
    *
@@ -87,10 +169,10 @@ public class ElevatorReport {
   /**
    * This method is used to get the requests for the floors.
    *
-   * @return The requests for the floors.
+   * @return The requests for the floors, one entry per floor.
    */
   public boolean[] getFloorRequests() {
-    return floorRequests;
+    return FloorRequestSet.toArray(this.floorRequests, this.numFloors);
   }
 
   /**
@@ -139,6 +221,45 @@ public class ElevatorReport {
     return isTakingRequests;
   }
 
+  /**
+   * This method is used to get the steps saved by the dwell policy of the elevator.
+   *
+   * @return the number of steps the elevator left earlier than it would have with
+   *         the FIXED dwell policy.
+   */
+  public int getDwellTicksSaved() {
+    return dwellTicksSaved;
+  }
+
+  /**
+   * This method is used to get the number of passengers on board.
+   *
+   * @return The occupancy of the elevator, 0 for a report that was not made by an elevator.
+   */
+  public int getOccupancy() {
+    return occupancy;
+  }
+
+  /**
+   * This method is used to get the maximum number of passengers.
+   *
+   * @return The maximum occupancy of the elevator, 0 for a report that was not made by an
+   *         elevator.
+   */
+  public int getMaxOccupancy() {
+    return maxOccupancy;
+  }
+
+  /**
+   * This method is used to get how full the elevator is, so that dispatching can prefer the
+   * elevators with room.
+   *
+   * @return The occupancy divided by the maximum occupancy, from 0 to 1.
+   */
+  public double getLoadFactor() {
+    return maxOccupancy == 0 ? 0 : (double) occupancy / maxOccupancy;
+  }
+
   /**
    * toString method for the ElevatorReport.
    *
@@ -169,8 +290,8 @@ public class ElevatorReport {
       sb.append(String.format("O %d]<", this.doorOpenTimer));
     }
 
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i]) {
+    for (int i = 0; i < this.numFloors; i++) {
+      if (FloorRequestSet.contains(this.floorRequests, i)) {
         sb.append(String.format(" %2d", i));
       } else {
         sb.append(" --");
@@ -196,6 +317,9 @@ public class ElevatorReport {
       return false;
     }
     ElevatorReport that = (ElevatorReport) o;
+    if (this.buildingId != that.buildingId) {
+      return false;
+    }
     if (this.elevatorId != that.elevatorId) {
       return false;
     }
@@ -220,12 +344,13 @@ public class ElevatorReport {
     if (this.isTakingRequests != that.isTakingRequests) {
       return false;
     }
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i] != that.floorRequests[i]) {
-        return false;
-      }
+    if (this.dwellTicksSaved != that.dwellTicksSaved) {
+      return false;
     }
-    return true;
+    if (this.occupancy != that.occupancy || this.maxOccupancy != that.maxOccupancy) {
+      return false;
+    }
+    return this.numFloors == that.numFloors && this.floorRequests == that.floorRequests;
   }
 
   /**
@@ -234,6 +359,7 @@ public class ElevatorReport {
   @Override
   public int hashCode() {
     int result = 17;
+    result = 31 * result + this.buildingId;
     result = 31 * result + this.elevatorId;
     result = 31 * result + this.currentFloor;
     result = 31 * result + (this.doorClosed ? 1 : 0);
@@ -241,10 +367,12 @@ public class ElevatorReport {
     result = 31 * result + this.endWaitTimer;
     result = 31 * result + (this.outOfService ? 1 : 0);
     result = 31 * result + (this.isTakingRequests ? 1 : 0);
+    result = 31 * result + this.dwellTicksSaved;
+    result = 31 * result + this.occupancy;
+    result = 31 * result + this.maxOccupancy;
     result = 31 * result + this.direction.hashCode();
-    for (boolean floorRequest : this.floorRequests) {
-      result = 31 * result + (floorRequest ? 1 : 0);
-    }
+    result = 31 * result + this.numFloors;
+    result = 31 * result + Long.hashCode(this.floorRequests);
     return result;
   }
 }
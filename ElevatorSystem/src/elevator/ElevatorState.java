@@ -0,0 +1,132 @@
+package elevator;
+
+import building.enums.Direction;
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
+
+/**
+ * A read-only view of an elevator. This lets the building share the state of its elevators,
+ * e.g. with a dispatch strategy, without generating a report for every elevator and without
+ * handing out the methods that control the elevator.
+ */
+public interface ElevatorState {
+
+  /**
+   * ElevatorStatus ID getter.
+   *
+   * @return the elevator ID as a string.
+   */
+  int getElevatorId();
+
+  /**
+   * Returns the id of the building the elevator belongs to. Elevator ids are
+   * only unique within a building.
+   *
+   * @return the building ID, 0 for an elevator that is not part of a building.
+   */
+  int getBuildingId();
+
+  /**
+   * Returns the maximum number of floors the elevator can go to.
+   *
+   * @return the maximum number of floors the elevator can go to.
+   */
+  int getMaxFloor();
+
+
+  /**
+   * maxOccupancy getter
+   * Notice that it is not the responsibility of the elevator to
+   * keep track of the people in the elevator.
+   *
+   * @return the maximum number of people that can fit in the elevator.
+   */
+  int getMaxOccupancy();
+
+  /**
+   * Returns the current floor of the elevator.
+   *
+   * @return the current floor of the elevator.
+   */
+
+  int getCurrentFloor();
+
+
+  /**
+   * Returns the direction the elevator is moving in.
+   *
+   * @return the direction the elevator is moving in.
+   */
+  Direction getDirection();
+
+  /**
+   * Returns the door status of the elevator.
+   *
+   * @return the door status of the elevator.
+   */
+  boolean isDoorClosed();
+
+  /**
+   * isTakingRequests.
+   * This will tell the building if the elevator is taking requests.
+   *
+   * @return true if the elevator is taking requests, false otherwise.
+   */
+  boolean isTakingRequests();
+
+  /**
+   * Returns the number of requests the elevator can still take on its current run.
+   * This is the maximum occupancy minus the passengers on board, so an elevator can be
+   * given more requests than it has seats, and passengers who find it full are left
+   * behind. It is never more than twice the maximum occupancy minus the passengers on
+   * board and the ones it is on its way to pick up, and 0 if the elevator is out of
+   * service.
+   *
+   * @return the spare capacity of the elevator.
+   */
+  int getSpareCapacity();
+
+  /**
+   * Returns the number of passengers on board.
+   *
+   * @return the occupancy of the elevator.
+   */
+  int getOccupancy();
+
+  /**
+   * Returns how full the elevator is.
+   *
+   * @return the occupancy divided by the maximum occupancy, from 0 to 1.
+   */
+  double getLoadFactor();
+
+  /**
+   * Returns whether the elevator will stop at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if there is a stop request for the floor.
+   */
+  boolean hasFloorRequest(int floor);
+
+  /**
+   * Returns how far the elevator travels on a run.
+   *
+   * @return the sweep mode of the elevator.
+   */
+  SweepMode getSweepMode();
+
+  /**
+   * Returns when the elevator dwells at the end of its run.
+   *
+   * @return the dwell policy of the elevator.
+   */
+  DwellPolicy getDwellPolicy();
+
+  /**
+   * Returns the number of steps the elevator left the bottom or the top earlier than it would
+   * have with the FIXED dwell policy.
+   *
+   * @return the number of steps saved by the dwell policy.
+   */
+  int getDwellTicksSaved();
+}
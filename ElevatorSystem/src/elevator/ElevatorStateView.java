@@ -0,0 +1,106 @@
+package elevator;
+
+import building.enums.Direction;
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
+
+/**
+ * A read-only view of an elevator in a bank. The view only has the getters of ElevatorState, and
+ * it is not an ElevatorInterface, so whoever is handed it cannot cast it back to control the
+ * elevator. A bank keeps one view per elevator, so handing them out allocates nothing.
+ */
+public final class ElevatorStateView implements ElevatorState {
+  /************************************************************************
+   * The elevator that is viewed.
+   ************************************************************************/
+  private final Elevator elevator;
+
+  /**
+   * The constructor for the view of an elevator, used by its bank.
+   *
+   * @param elevator the elevator that is viewed
+   */
+  ElevatorStateView(Elevator elevator) {
+    this.elevator = elevator;
+  }
+
+  @Override
+  public int getElevatorId() {
+    return this.elevator.getElevatorId();
+  }
+
+  @Override
+  public int getBuildingId() {
+    return this.elevator.getBuildingId();
+  }
+
+  @Override
+  public int getMaxFloor() {
+    return this.elevator.getMaxFloor();
+  }
+
+  @Override
+  public int getMaxOccupancy() {
+    return this.elevator.getMaxOccupancy();
+  }
+
+  @Override
+  public int getCurrentFloor() {
+    return this.elevator.getCurrentFloor();
+  }
+
+  @Override
+  public Direction getDirection() {
+    return this.elevator.getDirection();
+  }
+
+  @Override
+  public boolean isDoorClosed() {
+    return this.elevator.isDoorClosed();
+  }
+
+  @Override
+  public boolean isTakingRequests() {
+    return this.elevator.isTakingRequests();
+  }
+
+  @Override
+  public int getSpareCapacity() {
+    return this.elevator.getSpareCapacity();
+  }
+
+  @Override
+  public int getOccupancy() {
+    return this.elevator.getOccupancy();
+  }
+
+  @Override
+  public double getLoadFactor() {
+    return this.elevator.getLoadFactor();
+  }
+
+  @Override
+  public boolean hasFloorRequest(int floor) {
+    return this.elevator.hasFloorRequest(floor);
+  }
+
+  @Override
+  public SweepMode getSweepMode() {
+    return this.elevator.getSweepMode();
+  }
+
+  @Override
+  public DwellPolicy getDwellPolicy() {
+    return this.elevator.getDwellPolicy();
+  }
+
+  @Override
+  public int getDwellTicksSaved() {
+    return this.elevator.getDwellTicksSaved();
+  }
+
+  @Override
+  public String toString() {
+    return this.elevator.toString();
+  }
+}
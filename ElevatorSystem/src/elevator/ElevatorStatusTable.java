@@ -0,0 +1,215 @@
+package elevator;
+
+import building.enums.Direction;
+
+/**
+ * This class is used to hold the status of all the elevators of a bank in one table, one row per
+ * elevator, so that reading the status on every step allocates nothing. Unlike an
+ * ElevatorReport, a table is filled again in place by ElevatorBank.fillStatusTable, so it only
+ * shows the status as of the last fill and must not be kept as a record of an earlier step.
+ * ElevatorReport stays immutable; getElevatorReport makes one from a row.
+ */
+public final class ElevatorStatusTable {
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int buildingId;
+  private final int numFloors;
+  private final int maxOccupancy;
+
+  private final int[] currentFloor;
+  private final Direction[] direction;
+  private final boolean[] doorClosed;
+  private final long[] floorRequests;
+  private final int[] doorOpenTimer;
+  private final int[] endWaitTimer;
+  private final boolean[] outOfService;
+  private final boolean[] takingRequests;
+  private final int[] dwellTicksSaved;
+  private final int[] occupancy;
+
+  /**
+   * The constructor for a table of a bank, used by the bank.
+   *
+   * @param buildingId       The id of the building of the elevators.
+   * @param numElevators     The number of elevators.
+   * @param numFloors        The number of floors in the building.
+   * @param maxOccupancy     The maximum number of passengers of an elevator.
+   */
+  ElevatorStatusTable(int buildingId, int numElevators, int numFloors, int maxOccupancy) {
+    this.buildingId = buildingId;
+    this.numFloors = numFloors;
+    this.maxOccupancy = maxOccupancy;
+    this.currentFloor = new int[numElevators];
+    this.direction = new Direction[numElevators];
+    this.doorClosed = new boolean[numElevators];
+    this.floorRequests = new long[numElevators];
+    this.doorOpenTimer = new int[numElevators];
+    this.endWaitTimer = new int[numElevators];
+    this.outOfService = new boolean[numElevators];
+    this.takingRequests = new boolean[numElevators];
+    this.dwellTicksSaved = new int[numElevators];
+    this.occupancy = new int[numElevators];
+  }
+
+  /**
+   * This method is used by the bank to fill the table with the status of its elevators.
+   */
+  void fill(int[] currentFloor, byte[] direction, boolean[] doorClosed, long[] floorRequests,
+            int[] doorOpenTimer, int[] endWaitTimer, boolean[] outOfService,
+            boolean[] takingRequests, int[] dwellTicksSaved, int[] occupancy) {
+    int n = this.currentFloor.length;
+    System.arraycopy(currentFloor, 0, this.currentFloor, 0, n);
+    for (int i = 0; i < n; i++) {
+      this.direction[i] = DIRECTIONS[direction[i]];
+    }
+    System.arraycopy(doorClosed, 0, this.doorClosed, 0, n);
+    System.arraycopy(floorRequests, 0, this.floorRequests, 0, n);
+    System.arraycopy(doorOpenTimer, 0, this.doorOpenTimer, 0, n);
+    System.arraycopy(endWaitTimer, 0, this.endWaitTimer, 0, n);
+    System.arraycopy(outOfService, 0, this.outOfService, 0, n);
+    System.arraycopy(takingRequests, 0, this.takingRequests, 0, n);
+    System.arraycopy(dwellTicksSaved, 0, this.dwellTicksSaved, 0, n);
+    System.arraycopy(occupancy, 0, this.occupancy, 0, n);
+  }
+
+  /**
+   * This method is used to get the number of elevators in the table.
+   *
+   * @return The number of elevators.
+   */
+  public int size() {
+    return this.currentFloor.length;
+  }
+
+  /**
+   * This method is used to get the id of the building of the elevators.
+   *
+   * @return The id of the building.
+   */
+  public int getBuildingId() {
+    return this.buildingId;
+  }
+
+  /**
+   * This method is used to get the maximum number of passengers of an elevator.
+   *
+   * @return The maximum occupancy of the elevators.
+   */
+  public int getMaxOccupancy() {
+    return this.maxOccupancy;
+  }
+
+  /**
+   * This method is used to get the current floor of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The current floor of the elevator.
+   */
+  public int getCurrentFloor(int i) {
+    return this.currentFloor[i];
+  }
+
+  /**
+   * This method is used to get the direction of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The direction of the elevator.
+   */
+  public Direction getDirection(int i) {
+    return this.direction[i];
+  }
+
+  /**
+   * This method is used to get the status of the door of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The status of the door.
+   */
+  public boolean isDoorClosed(int i) {
+    return this.doorClosed[i];
+  }
+
+  /**
+   * This method is used to check if an elevator will stop at a floor.
+   *
+   * @param i The index of the elevator.
+   * @param floor The floor to check.
+   * @return true if the elevator has a request for the floor.
+   */
+  public boolean hasFloorRequest(int i, int floor) {
+    return FloorRequestSet.contains(this.floorRequests[i], floor);
+  }
+
+  /**
+   * This method is used to get the timer for the door of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The timer for the door.
+   */
+  public int getDoorOpenTimer(int i) {
+    return this.doorOpenTimer[i];
+  }
+
+  /**
+   * This method is used to get the timer for the end of the run of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The timer for the end of the run.
+   */
+  public int getEndWaitTimer(int i) {
+    return this.endWaitTimer[i];
+  }
+
+  /**
+   * This method is used to get the status of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return true if the elevator is out of service.
+   */
+  public boolean isOutOfService(int i) {
+    return this.outOfService[i];
+  }
+
+  /**
+   * This method is used to check if an elevator is taking requests.
+   *
+   * @param i The index of the elevator.
+   * @return true if the elevator is taking requests.
+   */
+  public boolean isTakingRequests(int i) {
+    return this.takingRequests[i];
+  }
+
+  /**
+   * This method is used to get the steps saved by the dwell policy of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The steps saved by the dwell policy.
+   */
+  public int getDwellTicksSaved(int i) {
+    return this.dwellTicksSaved[i];
+  }
+
+  /**
+   * This method is used to get the number of passengers on board of an elevator.
+   *
+   * @param i The index of the elevator.
+   * @return The occupancy of the elevator.
+   */
+  public int getOccupancy(int i) {
+    return this.occupancy[i];
+  }
+
+  /**
+   * This method is used to make an immutable report of a row of the table.
+   *
+   * @param i The index of the elevator.
+   * @return The report of the elevator as of the last fill.
+   */
+  public ElevatorReport getElevatorReport(int i) {
+    return new ElevatorReport(this.buildingId, i, this.currentFloor[i], this.direction[i],
+        this.doorClosed[i], this.floorRequests[i], this.numFloors, this.doorOpenTimer[i],
+        this.endWaitTimer[i], this.outOfService[i], this.takingRequests[i],
+        this.dwellTicksSaved[i], this.occupancy[i], this.maxOccupancy);
+  }
+}
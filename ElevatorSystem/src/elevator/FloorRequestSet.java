@@ -0,0 +1,95 @@
+package elevator;
+
+/**
+ * This class holds the operations on the set of floors an elevator will stop at, kept as a
+ * bitset in a single word, bit i for floor i. The elevator bank keeps one word per elevator and
+ * reports copy it, so clearing the set and finding the next stop above or below a floor take a
+ * few instructions instead of a loop over the floors. A building of up to 64 floors fits.
+ */
+final class FloorRequestSet {
+
+  /**
+   * The most floors a set can hold.
+   */
+  static final int MAX_FLOORS = Long.SIZE;
+
+  private FloorRequestSet() {
+  }
+
+  /**
+   * This method is used to make a set of floor requests from an array with one entry per floor.
+   *
+   * @param floorRequests true for every floor with a request.
+   * @return the set of floor requests.
+   * @throws IllegalArgumentException if there are more than MAX_FLOORS floors.
+   */
+  static long of(boolean[] floorRequests) throws IllegalArgumentException {
+    if (floorRequests.length > MAX_FLOORS) {
+      throw new IllegalArgumentException("A building cannot have more than " + MAX_FLOORS
+          + " floors.");
+    }
+    long set = 0L;
+    for (int i = 0; i < floorRequests.length; i++) {
+      if (floorRequests[i]) {
+        set |= 1L << i;
+      }
+    }
+    return set;
+  }
+
+  /**
+   * This method is used to check if there is a request for a floor.
+   *
+   * @param set the floor requests.
+   * @param floor the floor to check.
+   * @return true if there is a request for the floor.
+   */
+  static boolean contains(long set, int floor) {
+    return (set & (1L << floor)) != 0;
+  }
+
+  /**
+   * This method is used to find the closest request above a floor.
+   *
+   * @param set the floor requests.
+   * @param floor the floor to look above.
+   * @return the closest floor above with a request, or -1 if there is none.
+   */
+  static int nextAbove(long set, int floor) {
+    if (floor >= MAX_FLOORS - 1) {
+      return -1;
+    }
+    long above = set & (-2L << floor);
+    return above == 0L ? -1 : Long.numberOfTrailingZeros(above);
+  }
+
+  /**
+   * This method is used to find the closest request below a floor.
+   *
+   * @param set the floor requests.
+   * @param floor the floor to look below.
+   * @return the closest floor below with a request, or -1 if there is none.
+   */
+  static int previousBelow(long set, int floor) {
+    if (floor <= 0) {
+      return -1;
+    }
+    long below = floor >= MAX_FLOORS ? set : set & ((1L << floor) - 1);
+    return 63 - Long.numberOfLeadingZeros(below);
+  }
+
+  /**
+   * This method is used to get the requests as an array with one entry per floor.
+   *
+   * @param set the floor requests.
+   * @param numFloors the number of floors in the building.
+   * @return true for every floor with a request.
+   */
+  static boolean[] toArray(long set, int numFloors) {
+    boolean[] floorRequests = new boolean[numFloors];
+    for (long word = set; word != 0L; word &= word - 1) {
+      floorRequests[Long.numberOfTrailingZeros(word)] = true;
+    }
+    return floorRequests;
+  }
+}
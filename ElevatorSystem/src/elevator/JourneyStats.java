@@ -0,0 +1,148 @@
+package elevator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The times of the journeys of the passengers of a bank of elevators, in ticks.  The wait is
+ * from the arrival of a request at the building to the pickup, the ride from the pickup to the
+ * drop-off, and the journey from the arrival to the drop-off.  Requests that were not stamped by
+ * a building have no arrival tick, so only their ride is counted.
+ *
+ * <p>The stats of a bank are recorded while it steps, which can be on many threads.  Each part
+ * of the bank stepped by one task has stats of its own, so recording takes no lock, and the bank
+ * adds them up when it is asked for its stats.  The stats handed out by the bank and the
+ * building are new, so they do not change afterwards.
+ */
+public final class JourneyStats {
+  private final LatencyHistogram waitTimes;
+  private final LatencyHistogram rideTimes;
+  private final LatencyHistogram journeyTimes;
+
+  /**
+   * The constructor for empty stats.
+   */
+  public JourneyStats() {
+    this.waitTimes = new LatencyHistogram();
+    this.rideTimes = new LatencyHistogram();
+    this.journeyTimes = new LatencyHistogram();
+  }
+
+  /**
+   * Count the journey of a passenger who was dropped off.
+   *
+   * @param arrivalTick the tick the request arrived on, or -1 if it is not known.
+   * @param pickupTick  the tick the passenger was picked up on.
+   * @param dropOffTick the tick the passenger was dropped off on.
+   */
+  void record(long arrivalTick, long pickupTick, long dropOffTick) {
+    this.rideTimes.record(dropOffTick - pickupTick);
+    if (arrivalTick >= 0) {
+      this.waitTimes.record(pickupTick - arrivalTick);
+      this.journeyTimes.record(dropOffTick - arrivalTick);
+    }
+  }
+
+  /**
+   * Copy the stats.
+   *
+   * @return a copy of the stats.
+   */
+  public JourneyStats copy() {
+    JourneyStats copy = new JourneyStats();
+    copy.add(this);
+    return copy;
+  }
+
+  /**
+   * Get the number of bytes writeCheckpoint writes for the stats.
+   *
+   * @return the size of the checkpoint.
+   */
+  int checkpointBytes() {
+    return this.waitTimes.checkpointBytes() + this.rideTimes.checkpointBytes()
+        + this.journeyTimes.checkpointBytes();
+  }
+
+  /**
+   * Write the stats to a buffer, for the checkpoint of a bank.
+   *
+   * @param buffer the buffer, with at least checkpointBytes() bytes remaining.
+   */
+  void writeCheckpoint(ByteBuffer buffer) {
+    this.waitTimes.writeCheckpoint(buffer);
+    this.rideTimes.writeCheckpoint(buffer);
+    this.journeyTimes.writeCheckpoint(buffer);
+  }
+
+  /**
+   * Replace the stats with ones written by writeCheckpoint.
+   *
+   * @param buffer the buffer, positioned at the start of the checkpoint of the stats.
+   * @throws IllegalArgumentException if the checkpoint is not valid.
+   */
+  void readCheckpoint(ByteBuffer buffer) throws IllegalArgumentException {
+    this.waitTimes.readCheckpoint(buffer);
+    this.rideTimes.readCheckpoint(buffer);
+    this.journeyTimes.readCheckpoint(buffer);
+  }
+
+  /**
+   * Add the journeys of other stats to these, for example to sum up several buildings.
+   *
+   * @param other the stats to add.
+   */
+  public void add(JourneyStats other) {
+    this.waitTimes.add(other.waitTimes);
+    this.rideTimes.add(other.rideTimes);
+    this.journeyTimes.add(other.journeyTimes);
+  }
+
+  /**
+   * Get the number of passengers dropped off.
+   *
+   * @return the number of journeys.
+   */
+  public long getJourneys() {
+    return this.rideTimes.getCount();
+  }
+
+  /**
+   * Get the times from the arrival of the requests to the pickup.
+   *
+   * @return the histogram of the wait times.
+   */
+  public LatencyHistogram getWaitTimes() {
+    return this.waitTimes;
+  }
+
+  /**
+   * Get the times from the pickup to the drop-off.
+   *
+   * @return the histogram of the ride times.
+   */
+  public LatencyHistogram getRideTimes() {
+    return this.rideTimes;
+  }
+
+  /**
+   * Get the times from the arrival of the requests to the drop-off.
+   *
+   * @return the histogram of the journey times.
+   */
+  public LatencyHistogram getJourneyTimes() {
+    return this.journeyTimes;
+  }
+
+  /**
+   * Get a summary of the stats.
+   *
+   * @return the number of journeys and the percentiles of each time, one per line.
+   */
+  @Override
+  public String toString() {
+    return "Journeys: " + this.getJourneys() + "\n"
+        + "Wait: " + this.waitTimes + "\n"
+        + "Ride: " + this.rideTimes + "\n"
+        + "Total: " + this.journeyTimes + "\n";
+  }
+}
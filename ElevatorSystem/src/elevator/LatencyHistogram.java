@@ -0,0 +1,226 @@
+package elevator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A histogram of times in ticks, for percentiles such as the median wait of the passengers.
+ * Times below 64 ticks are counted exactly. Longer times share a bucket with times within about
+ * 3% of them: every power of two is split into 32 buckets. Recording a time is a few arithmetic
+ * operations and one increment.  A new histogram already has the buckets of all the times up to
+ * MAX_PRESIZED ticks, so recording allocates nothing and it can be left on for long simulations.
+ * A histogram is not safe to record into from many threads at once.
+ */
+public final class LatencyHistogram {
+  /************************************************************************
+   * Times below EXACT have a bucket each.  Above that every power of two
+   * has 2 to the SUB_BITS buckets.
+   ************************************************************************/
+  private static final int EXACT_BITS = 6;
+  private static final int EXACT = 1 << EXACT_BITS;
+  private static final int SUB_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+  /************************************************************************
+   * A new histogram has the buckets of the times up to MAX_PRESIZED, about
+   * 7 KB of counts.  Only a longer time grows it.  A checkpoint holds the
+   * buckets up to the longest time counted.
+   ************************************************************************/
+  private static final long MAX_PRESIZED = Integer.MAX_VALUE;
+  private static final int PRESIZED = bucketOf(MAX_PRESIZED) + 1;
+
+  private long[] counts;
+  private long count;
+  private long sum;
+  private long max;
+
+  /**
+   * The constructor for an empty histogram.
+   */
+  public LatencyHistogram() {
+    this.counts = new long[PRESIZED];
+  }
+
+  /**
+   * Count one time.
+   *
+   * @param ticks the time, in ticks.
+   * @throws IllegalArgumentException if the time is negative.
+   */
+  public void record(long ticks) throws IllegalArgumentException {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("A time cannot be negative.");
+    }
+    int bucket = bucketOf(ticks);
+    if (bucket >= this.counts.length) {
+      this.counts = Arrays.copyOf(this.counts,
+          Math.max(bucket + 1, this.counts.length + SUB_BUCKETS));
+    }
+    this.counts[bucket]++;
+    this.count++;
+    this.sum += ticks;
+    if (ticks > this.max) {
+      this.max = ticks;
+    }
+  }
+
+  /**
+   * Add all the times of another histogram to this one.
+   *
+   * @param other the histogram to add.
+   */
+  public void add(LatencyHistogram other) {
+    if (other.counts.length > this.counts.length) {
+      this.counts = Arrays.copyOf(this.counts, other.counts.length);
+    }
+    for (int i = 0; i < other.counts.length; i++) {
+      this.counts[i] += other.counts[i];
+    }
+    this.count += other.count;
+    this.sum += other.sum;
+    this.max = Math.max(this.max, other.max);
+  }
+
+  /**
+   * Get the number of times counted.
+   *
+   * @return the number of times.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Get the longest time counted.
+   *
+   * @return the longest time, 0 if there are none.
+   */
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * Get the mean of the times counted.
+   *
+   * @return the mean time, 0 if there are none.
+   */
+  public double getMean() {
+    return this.count == 0 ? 0 : (double) this.sum / this.count;
+  }
+
+  /**
+   * Get a percentile of the times counted, that is the time that the given share of the times
+   * are at or below.  Times of 64 ticks and more are rounded up to the end of their bucket.
+   *
+   * @param percentile the percentile, from 0 to 100.
+   * @return the time, 0 if there are none.
+   * @throws IllegalArgumentException if the percentile is out of range.
+   */
+  public long getPercentile(double percentile) throws IllegalArgumentException {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+    }
+    if (this.count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+    long seen = 0;
+    for (int i = 0; i < this.counts.length; i++) {
+      seen += this.counts[i];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(i), this.max);
+      }
+    }
+    return this.max;
+  }
+
+  /**
+   * Get the number of bytes writeCheckpoint writes for the histogram.
+   *
+   * @return the size of the checkpoint.
+   */
+  int checkpointBytes() {
+    return 4 + 8 * this.usedBuckets() + 24;
+  }
+
+  /**
+   * Get the number of buckets up to the one of the longest time, at least EXACT.
+   */
+  private int usedBuckets() {
+    return this.count == 0 ? EXACT : Math.max(EXACT, bucketOf(this.max) + 1);
+  }
+
+  /**
+   * Write the counts of the histogram to a buffer.
+   *
+   * @param buffer the buffer, with at least checkpointBytes() bytes remaining.
+   */
+  void writeCheckpoint(ByteBuffer buffer) {
+    int used = this.usedBuckets();
+    buffer.putInt(used);
+    for (int i = 0; i < used; i++) {
+      buffer.putLong(this.counts[i]);
+    }
+    buffer.putLong(this.count);
+    buffer.putLong(this.sum);
+    buffer.putLong(this.max);
+  }
+
+  /**
+   * Replace the counts of the histogram with ones written by writeCheckpoint.
+   *
+   * @param buffer the buffer, positioned at the start of the checkpoint of a histogram.
+   * @throws IllegalArgumentException if the checkpoint is not valid.
+   */
+  void readCheckpoint(ByteBuffer buffer) throws IllegalArgumentException {
+    int length = buffer.getInt();
+    if (length < EXACT || length > buffer.remaining() / 8) {
+      throw new IllegalArgumentException("The checkpoint of a histogram is not valid.");
+    }
+    long[] counts = new long[Math.max(length, PRESIZED)];
+    for (int i = 0; i < length; i++) {
+      counts[i] = buffer.getLong();
+    }
+    this.counts = counts;
+    this.count = buffer.getLong();
+    this.sum = buffer.getLong();
+    this.max = buffer.getLong();
+  }
+
+  /**
+   * Find the bucket of a time.
+   */
+  private static int bucketOf(long ticks) {
+    if (ticks < EXACT) {
+      return (int) ticks;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(ticks);
+    int shift = exponent - SUB_BITS;
+    return EXACT + (exponent - EXACT_BITS) * SUB_BUCKETS
+        + (int) ((ticks >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /**
+   * Find the longest time that falls in a bucket.
+   */
+  private static long highestValueOf(int bucket) {
+    if (bucket < EXACT) {
+      return bucket;
+    }
+    int group = (bucket - EXACT) / SUB_BUCKETS;
+    int sub = (bucket - EXACT) % SUB_BUCKETS;
+    int shift = group + EXACT_BITS - SUB_BITS;
+    return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+  }
+
+  /**
+   * Get the median and the tail of the times.
+   *
+   * @return a string of the form "p50 3, p95 12, p99 20, max 31".
+   */
+  @Override
+  public String toString() {
+    return "p50 " + this.getPercentile(50) + ", p95 " + this.getPercentile(95)
+        + ", p99 " + this.getPercentile(99) + ", max " + this.max;
+  }
+}
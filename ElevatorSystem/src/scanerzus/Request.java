@@ -3,11 +3,15 @@ package scanerzus;
 
 /**
  * This class represents a request to the elevator.
- * All requests have a startFloor and endFloor
+ * All requests have a startFloor and endFloor.  A building stamps the
+ * requests it takes with an id and the tick they arrived on, so that
+ * it can follow each passenger from arrival to drop-off.
  */
 public class Request implements RequestInterface {
   private final int startFloor;
   private final int endFloor;
+  private final long id;
+  private final long arrivalTick;
 
   /**
    * The constructor for the request.
@@ -23,8 +27,22 @@ public class Request implements RequestInterface {
    * @param endFloor   the end floor.
    */
   public Request(int startFloor, int endFloor) {
+    this(startFloor, endFloor, -1, -1);
+  }
+
+  /**
+   * The constructor for a request stamped by a building.
+   *
+   * @param startFloor  the start floor.
+   * @param endFloor    the end floor.
+   * @param id          the id the building gave the request.
+   * @param arrivalTick the tick the request arrived at the building on.
+   */
+  public Request(int startFloor, int endFloor, long id, long arrivalTick) {
     this.startFloor = startFloor;
     this.endFloor = endFloor;
+    this.id = id;
+    this.arrivalTick = arrivalTick;
   }
 
   /**
@@ -45,6 +63,24 @@ public class Request implements RequestInterface {
     return endFloor;
   }
 
+  /**
+   * Gets the id of the request.
+   *
+   * @return the id the building gave the request, or -1 if it has not been stamped.
+   */
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Gets the tick the request arrived on.
+   *
+   * @return the tick the request arrived at the building on, or -1 if it has not been stamped.
+   */
+  public long getArrivalTick() {
+    return arrivalTick;
+  }
+
   /**
    * Returns a string representation of the request.
    * This is a string of the form:
@@ -55,6 +91,34 @@ public class Request implements RequestInterface {
   public String toString() {
     return startFloor + "->" + endFloor;
   }
-}
 
+  /**
+   * Checks if another request is for the same trip.  The id and the arrival
+   * tick tell passengers apart, not trips, so they are not compared.  A
+   * request stamped by a building is equal to the request it was made from.
+   *
+   * @param o the object to compare with.
+   * @return true if o is a request with the same start and end floors.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Request)) {
+      return false;
+    }
+    Request other = (Request) o;
+    return startFloor == other.startFloor && endFloor == other.endFloor;
+  }
 
+  /**
+   * Returns a hash code of the trip of the request.
+   *
+   * @return a hash code of the start and end floors.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * startFloor + endFloor;
+  }
+}
@@ -19,4 +19,18 @@ public interface RequestInterface {
    */
   int getEndFloor();
 
+  /**
+   * This is the id the building gave the request when it arrived.
+   *
+   * @return the id of the request, or -1 if it has not been stamped.
+   */
+  long getId();
+
+  /**
+   * This is the tick the request arrived at the building on.
+   *
+   * @return the arrival tick of the request, or -1 if it has not been stamped.
+   */
+  long getArrivalTick();
+
 }
@@ -0,0 +1,185 @@
+package simulation;
+
+import building.BuildingReport;
+import building.enums.ElevatorSystemStatus;
+import elevator.JourneyStats;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This is the reporting class for a run of many buildings with the SimulationEngine. It adds up
+ * the state of all the buildings at the end of the run.
+ */
+public class CampusReport {
+  private final long ticks;
+  private final long elapsedNanos;
+  private final int threads;
+  private final List<BuildingReport> buildingReports;
+  private final int elevators;
+  private final int buildingsRunning;
+  private final int pendingUpRequests;
+  private final int pendingDownRequests;
+  private final JourneyStats journeyStats;
+
+  /**
+   * This constructor is used to create a new CampusReport object.
+   *
+   * @param ticks           The number of steps run.
+   * @param elapsedNanos    The wall clock time of the run, in nanoseconds.
+   * @param threads         The number of worker threads of the run.
+   * @param buildingReports The status of every building at the end of the run.
+   * @param journeyStats    The times of the passengers of all the buildings together.
+   */
+  public CampusReport(long ticks, long elapsedNanos, int threads,
+                      List<BuildingReport> buildingReports, JourneyStats journeyStats) {
+    this.ticks = ticks;
+    this.elapsedNanos = elapsedNanos;
+    this.threads = threads;
+    this.buildingReports = Collections.unmodifiableList(buildingReports);
+    int elevators = 0;
+    int running = 0;
+    int up = 0;
+    int down = 0;
+    for (BuildingReport report : buildingReports) {
+      elevators += report.getNumElevators();
+      if (report.getSystemStatus() == ElevatorSystemStatus.running) {
+        running++;
+      }
+      up += report.getUpRequests().size();
+      down += report.getDownRequests().size();
+    }
+    this.elevators = elevators;
+    this.buildingsRunning = running;
+    this.pendingUpRequests = up;
+    this.pendingDownRequests = down;
+    this.journeyStats = journeyStats;
+  }
+
+  /**
+   * This method is used to get the number of steps run.
+   *
+   * @return the number of steps run.
+   */
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * This method is used to get the wall clock time of the run.
+   *
+   * @return the wall clock time of the run, in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * This method is used to get the number of worker threads of the run.
+   *
+   * @return the number of worker threads.
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * This method is used to get the status of every building at the end of the run.
+   *
+   * @return the reports of the buildings, in the order the engine was given them.
+   */
+  public List<BuildingReport> getBuildingReports() {
+    return this.buildingReports;
+  }
+
+  /**
+   * This method is used to get the number of buildings.
+   *
+   * @return the number of buildings.
+   */
+  public int getNumBuildings() {
+    return this.buildingReports.size();
+  }
+
+  /**
+   * This method is used to get the number of elevators in all the buildings.
+   *
+   * @return the number of elevators.
+   */
+  public int getNumElevators() {
+    return this.elevators;
+  }
+
+  /**
+   * This method is used to get the number of buildings whose elevator system is running.
+   *
+   * @return the number of running buildings.
+   */
+  public int getBuildingsRunning() {
+    return this.buildingsRunning;
+  }
+
+  /**
+   * This method is used to get the number of up requests still waiting in all the buildings.
+   *
+   * @return the number of pending up requests.
+   */
+  public int getPendingUpRequests() {
+    return this.pendingUpRequests;
+  }
+
+  /**
+   * This method is used to get the number of down requests still waiting in all the buildings.
+   *
+   * @return the number of pending down requests.
+   */
+  public int getPendingDownRequests() {
+    return this.pendingDownRequests;
+  }
+
+  /**
+   * This method is used to get the throughput of the run, counting a step of every building as
+   * one tick.
+   *
+   * @return the number of steps per second of wall clock time.
+   */
+  public double getTicksPerSecond() {
+    if (this.elapsedNanos == 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return this.ticks * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * This method is used to get the wait, ride and total times of the passengers of all the
+   * buildings together, since the buildings were made.
+   *
+   * @return the journey stats of the campus.
+   */
+  public JourneyStats getJourneyStats() {
+    return this.journeyStats;
+  }
+
+  /**
+   * This method is used to get the throughput of the run over all the buildings.
+   *
+   * @return the number of building steps per second of wall clock time.
+   */
+  public double getBuildingTicksPerSecond() {
+    return this.getTicksPerSecond() * this.buildingReports.size();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Campus Report:\n");
+    sb.append(String.format("Buildings: %d (%d running), %d elevators, %d threads\n",
+        this.getNumBuildings(), this.buildingsRunning, this.elevators, this.threads));
+    sb.append(String.format("Ticks: %d in %.3f s (%,.0f ticks/sec, %,.0f building ticks/sec)\n",
+        this.ticks, this.elapsedNanos / 1e9, this.getTicksPerSecond(),
+        this.getBuildingTicksPerSecond()));
+    sb.append(String.format("Pending requests: %d up, %d down\n",
+        this.pendingUpRequests, this.pendingDownRequests));
+    sb.append(this.journeyStats);
+    return sb.toString();
+  }
+}
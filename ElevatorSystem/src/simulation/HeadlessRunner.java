@@ -0,0 +1,110 @@
+package simulation;
+
+import building.BuildingInterface;
+import java.util.Random;
+import scanerzus.Request;
+
+/**
+ * This class runs a building without a display, as fast as the CPU allows. Requests can be
+ * added at random at a given average rate. Between two arrivals the building is advanced with
+ * stepMany, so a quiet building costs no more than its steps.
+ */
+public class HeadlessRunner {
+
+  private final BuildingInterface building;
+  private final int numberOfFloors;
+  private final double arrivalsPerTick;
+  private final Random random;
+
+  /**
+   * The constructor for a runner without traffic.
+   *
+   * @param building the building to run, with its elevator system started or not.
+   */
+  public HeadlessRunner(BuildingInterface building) {
+    this(building, 0, 0);
+  }
+
+  /**
+   * The constructor for a runner with random traffic. Arrivals are a Poisson process, start and
+   * end floors are uniform over the building.
+   *
+   * @param building the building to run, with its elevator system started or not.
+   * @param arrivalsPerTick the average number of requests arriving per step.
+   * @param seed the seed of the random traffic, so that runs can be repeated.
+   * @throws IllegalArgumentException if the building is null or the rate is negative or not
+   *     finite.
+   */
+  public HeadlessRunner(BuildingInterface building, double arrivalsPerTick, long seed) {
+    if (building == null) {
+      throw new IllegalArgumentException("Building cannot be null.");
+    }
+    if (!(arrivalsPerTick >= 0) || Double.isInfinite(arrivalsPerTick)) {
+      throw new IllegalArgumentException("The arrival rate must be a finite number of at least 0.");
+    }
+    this.building = building;
+    this.numberOfFloors = building.getElevatorSystemStatus().getNumFloors();
+    this.arrivalsPerTick = arrivalsPerTick;
+    this.random = new Random(seed);
+  }
+
+  /**
+   * This method is used to run the building for a number of steps and measure the throughput.
+   *
+   * @param ticks the number of steps to run.
+   * @return a report of the run.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   */
+  public RunReport run(int ticks) throws IllegalArgumentException {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative.");
+    }
+    long offered = 0;
+    long accepted = 0;
+    long start = System.nanoTime();
+    if (this.arrivalsPerTick == 0) {
+      this.building.stepMany(ticks);
+    } else {
+      int tick = 0;
+      double arrivalTime = this.nextInterarrivalTime();
+      while (arrivalTime < ticks) {
+        int arrivalTick = (int) arrivalTime;
+        this.building.stepMany(arrivalTick - tick);
+        tick = arrivalTick;
+        offered++;
+        if (this.building.addRequest(this.nextRequest())) {
+          accepted++;
+        }
+        arrivalTime += this.nextInterarrivalTime();
+      }
+      this.building.stepMany(ticks - tick);
+    }
+    long elapsed = System.nanoTime() - start;
+    return new RunReport(ticks, elapsed, offered, accepted,
+        this.building.getElevatorSystemStatus(), this.building.getJourneyStats());
+  }
+
+  /**
+   * Draw the time between two arrivals. Arrival times are kept as real numbers and the request
+   * is added on the step the arrival falls in, so several requests can arrive on one step.
+   *
+   * @return the time until the next arrival, in steps.
+   */
+  private double nextInterarrivalTime() {
+    return -Math.log(1.0 - this.random.nextDouble()) / this.arrivalsPerTick;
+  }
+
+  /**
+   * Draw a request between two different floors.
+   *
+   * @return a random request.
+   */
+  private Request nextRequest() {
+    int start = this.random.nextInt(this.numberOfFloors);
+    int end = this.random.nextInt(this.numberOfFloors - 1);
+    if (end >= start) {
+      end++;
+    }
+    return new Request(start, end);
+  }
+}
@@ -0,0 +1,120 @@
+package simulation;
+
+import building.BuildingReport;
+import elevator.JourneyStats;
+
+/**
+ * This is the reporting class for a headless run.
+ */
+public class RunReport {
+  private final long ticks;
+  private final long elapsedNanos;
+  private final long requestsOffered;
+  private final long requestsAccepted;
+  private final BuildingReport buildingReport;
+  private final JourneyStats journeyStats;
+
+  /**
+   * This constructor is used to create a new RunReport object.
+   *
+   * @param ticks            The number of steps run.
+   * @param elapsedNanos     The wall clock time of the run, in nanoseconds.
+   * @param requestsOffered  The number of requests offered to the building.
+   * @param requestsAccepted The number of requests the building accepted.
+   * @param buildingReport   The status of the building at the end of the run.
+   * @param journeyStats     The times of the passengers of the building at the end of the run.
+   */
+  public RunReport(long ticks, long elapsedNanos, long requestsOffered, long requestsAccepted,
+                   BuildingReport buildingReport, JourneyStats journeyStats) {
+    this.ticks = ticks;
+    this.elapsedNanos = elapsedNanos;
+    this.requestsOffered = requestsOffered;
+    this.requestsAccepted = requestsAccepted;
+    this.buildingReport = buildingReport;
+    this.journeyStats = journeyStats;
+  }
+
+  /**
+   * This method is used to get the number of steps run.
+   *
+   * @return the number of steps run.
+   */
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * This method is used to get the wall clock time of the run.
+   *
+   * @return the wall clock time of the run, in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * This method is used to get the number of requests offered to the building.
+   *
+   * @return the number of requests offered to the building.
+   */
+  public long getRequestsOffered() {
+    return this.requestsOffered;
+  }
+
+  /**
+   * This method is used to get the number of requests the building accepted.
+   *
+   * @return the number of requests the building accepted.
+   */
+  public long getRequestsAccepted() {
+    return this.requestsAccepted;
+  }
+
+  /**
+   * This method is used to get the status of the building at the end of the run.
+   *
+   * @return the status of the building at the end of the run.
+   */
+  public BuildingReport getBuildingReport() {
+    return this.buildingReport;
+  }
+
+  /**
+   * This method is used to get the wait, ride and total times of the passengers the building has
+   * dropped off since it was made, up to the end of the run.
+   *
+   * @return the journey stats of the building.
+   */
+  public JourneyStats getJourneyStats() {
+    return this.journeyStats;
+  }
+
+  /**
+   * This method is used to get the throughput of the run.
+   *
+   * @return the number of steps per second of wall clock time.
+   */
+  public double getTicksPerSecond() {
+    if (this.elapsedNanos == 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return this.ticks * 1e9 / this.elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Run Report:\n");
+    sb.append(String.format("Ticks: %d in %.3f s (%,.0f ticks/sec)\n",
+        this.ticks, this.elapsedNanos / 1e9, this.getTicksPerSecond()));
+    sb.append(String.format("Requests: %d offered, %d accepted\n",
+        this.requestsOffered, this.requestsAccepted));
+    sb.append(String.format("Pending requests: %d up, %d down\n",
+        this.buildingReport.getUpRequests().size(),
+        this.buildingReport.getDownRequests().size()));
+    sb.append("Elevator system status: ").append(this.buildingReport.getSystemStatus())
+        .append("\n");
+    sb.append(this.journeyStats);
+    return sb.toString();
+  }
+}
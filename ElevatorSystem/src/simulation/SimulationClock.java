@@ -0,0 +1,235 @@
+package simulation;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class runs a simulation on its own thread, one tick at a time, apart from the clock of
+ * the display. Ticks are due at a fixed rate from the start, so the time a tick takes does not
+ * add up into drift: a late tick is followed at once by the next one. A clock without a tick
+ * period runs as fast as the CPU allows.
+ *
+ * <p>Between two ticks the clock also runs a frame task, at most once per frame period. This
+ * is where a display samples the latest state of the simulation. The frame task runs on the
+ * clock thread between ticks, so it sees a consistent state, and it should only take a copy and
+ * hand it on, for example with SwingUtilities.invokeLater.
+ *
+ * <p>The clock thread is the only thread that changes the simulation. Other threads, such as the
+ * Swing thread, submit commands instead, and the clock runs them in order between two ticks.
+ * So a tick never sees a change half made, and the tick itself takes no lock. A clock that
+ * waits for its next tick wakes up for a command, so commands are not held up by a slow rate.
+ */
+public final class SimulationClock {
+  /**
+   * The tick period of a clock that runs as fast as it can.
+   */
+  public static final long UNTHROTTLED = 0;
+
+  /**
+   * A clock that is late by more than this does not try to catch up, for example after the
+   * machine was suspended, and carries on from now instead.
+   */
+  private static final long MAX_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final Runnable tick;
+  private final Runnable frame;
+  private final long frameNanos;
+  private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+  private volatile long tickNanos;
+  private volatile long ticks;
+  private volatile Thread thread;
+
+  /**
+   * The constructor for a clock. The clock does not run until it is started.
+   *
+   * @param tick the task of one tick, for example a step of a building.
+   * @param tickNanos the period of the ticks in nanoseconds, or UNTHROTTLED.
+   * @param frame the task that samples the simulation for a display.
+   * @param frameNanos the shortest time between two frames in nanoseconds.
+   * @throws IllegalArgumentException if a task is null or a period is negative.
+   */
+  public SimulationClock(Runnable tick, long tickNanos, Runnable frame, long frameNanos)
+      throws IllegalArgumentException {
+    if (tick == null || frame == null) {
+      throw new IllegalArgumentException("Task cannot be null.");
+    }
+    if (tickNanos < 0 || frameNanos < 0) {
+      throw new IllegalArgumentException("A period cannot be negative.");
+    }
+    this.tick = tick;
+    this.tickNanos = tickNanos;
+    this.frame = frame;
+    this.frameNanos = frameNanos;
+  }
+
+  /**
+   * This method is used to start the clock on a new thread.
+   *
+   * @throws IllegalStateException if the clock is already running.
+   */
+  public synchronized void start() throws IllegalStateException {
+    if (this.thread != null) {
+      throw new IllegalStateException("The clock is already running.");
+    }
+    this.thread = new Thread(this::run, "simulation clock");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * This method is used to stop the clock. It waits for the tick or frame that is running to
+   * finish, unless it is called from one of them.
+   */
+  public synchronized void stop() {
+    Thread running = this.thread;
+    if (running == null) {
+      return;
+    }
+    this.thread = null;
+    running.interrupt();
+    if (running != Thread.currentThread()) {
+      boolean interrupted = false;
+      while (running.isAlive()) {
+        try {
+          running.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * This method is used to run a command on the clock thread, between two ticks. Commands run in
+   * the order they were submitted. A clock that is not running keeps them until it is started.
+   * It can be called from any thread.
+   *
+   * @param command the command, for example a request to add to a building.
+   * @throws IllegalArgumentException if the command is null.
+   */
+  public void submit(Runnable command) throws IllegalArgumentException {
+    if (command == null) {
+      throw new IllegalArgumentException("Command cannot be null.");
+    }
+    this.commands.add(command);
+    Thread running = this.thread;
+    if (running != null) {
+      LockSupport.unpark(running);
+    }
+  }
+
+  /**
+   * This method is used to tell whether the clock is running.
+   *
+   * @return true if the clock was started and not stopped.
+   */
+  public synchronized boolean isRunning() {
+    return this.thread != null;
+  }
+
+  /**
+   * This method is used to change the tick period. A running clock counts the next ticks from
+   * the tick it is on, so it neither catches up nor waits for the time of the old period.
+   *
+   * @param tickNanos the period of the ticks in nanoseconds, or UNTHROTTLED.
+   * @throws IllegalArgumentException if the period is negative.
+   */
+  public void setTickNanos(long tickNanos) throws IllegalArgumentException {
+    if (tickNanos < 0) {
+      throw new IllegalArgumentException("A period cannot be negative.");
+    }
+    this.tickNanos = tickNanos;
+    Thread running = this.thread;
+    if (running != null) {
+      LockSupport.unpark(running);
+    }
+  }
+
+  /**
+   * This method is used to get the tick period.
+   *
+   * @return the period of the ticks in nanoseconds, or UNTHROTTLED.
+   */
+  public long getTickNanos() {
+    return this.tickNanos;
+  }
+
+  /**
+   * This method is used to get the number of ticks run since the clock was made.
+   *
+   * @return the number of ticks.
+   */
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * Run ticks until the clock is stopped.
+   */
+  private void run() {
+    Thread self = Thread.currentThread();
+    long period = this.tickNanos;
+    long due = System.nanoTime();
+    long lastDue = due;
+    long nextFrame = due;
+    while (true) {
+      long now = System.nanoTime();
+      while (!self.isInterrupted()) {
+        if (this.runCommands()) {
+          now = System.nanoTime();
+          if (now - nextFrame >= 0) {
+            this.frame.run();
+            nextFrame = now + this.frameNanos;
+          }
+        }
+        if (period != this.tickNanos) {
+          period = this.tickNanos;
+          due = lastDue + period;
+          if (due - now < 0) {
+            due = now;
+          }
+        }
+        if (due - now <= 0) {
+          break;
+        }
+        LockSupport.parkNanos(this, due - now);
+        now = System.nanoTime();
+      }
+      if (self.isInterrupted()) {
+        return;
+      }
+      if (now - due > MAX_LAG_NANOS) {
+        due = now;
+      }
+      this.tick.run();
+      this.ticks++;
+      lastDue = due;
+      due += period;
+      now = System.nanoTime();
+      if (now - nextFrame >= 0) {
+        this.frame.run();
+        nextFrame = now + this.frameNanos;
+      }
+    }
+  }
+
+  /**
+   * Run the commands submitted since the last time.
+   *
+   * @return true if a command was run.
+   */
+  private boolean runCommands() {
+    boolean ran = false;
+    for (Runnable command = this.commands.poll(); command != null;
+        command = this.commands.poll()) {
+      command.run();
+      ran = true;
+    }
+    return ran;
+  }
+}
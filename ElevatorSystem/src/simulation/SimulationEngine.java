@@ -0,0 +1,292 @@
+package simulation;
+
+import building.BuildingInterface;
+import building.BuildingReport;
+import elevator.JourneyStats;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class runs many buildings together without a display, for example all the buildings of a
+ * campus. The buildings are split into shards, one per worker thread, and each worker steps the
+ * buildings of its shard. After every round the workers wait for each other at a barrier, so no
+ * building is ever more than one round ahead of another, and the tick count of the engine is
+ * the same for every building.
+ *
+ * <p>Buildings do not share any state, so a run gives the same result as stepping every building
+ * on its own. A round can be longer than one tick: the buildings then advance with stepMany
+ * between two barriers, which skips their quiet ticks and waits at the barrier less often.
+ */
+public class SimulationEngine {
+
+  private final List<BuildingInterface> buildings;
+  // The indexes of the buildings of each shard in the list of buildings.
+  private final List<int[]> shards;
+  private final int ticksPerRound;
+  private long tick;
+
+  /**
+   * The constructor for an engine with one worker per core, that waits at the barrier every tick.
+   *
+   * @param buildings the buildings to run, with their elevator systems started or not.
+   * @throws IllegalArgumentException if the list is null or empty or holds a null building or
+   *     the same building twice.
+   */
+  public SimulationEngine(List<? extends BuildingInterface> buildings)
+      throws IllegalArgumentException {
+    this(buildings, Runtime.getRuntime().availableProcessors(), 1);
+  }
+
+  /**
+   * The constructor for an engine.
+   *
+   * @param buildings the buildings to run, with their elevator systems started or not.
+   * @param threads the number of worker threads. There are never more workers than buildings.
+   * @param ticksPerRound the number of ticks the buildings advance between two barriers.
+   * @throws IllegalArgumentException if the list is null or empty or holds a null building or
+   *     the same building twice, or the number of threads or ticks per round is less than 1.
+   */
+  public SimulationEngine(List<? extends BuildingInterface> buildings, int threads,
+      int ticksPerRound) throws IllegalArgumentException {
+    if (buildings == null || buildings.isEmpty()) {
+      throw new IllegalArgumentException("There must be at least one building.");
+    }
+    if (buildings.contains(null)) {
+      throw new IllegalArgumentException("Building cannot be null.");
+    }
+    // By identity, since two workers stepping one building would race.
+    Set<BuildingInterface> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (BuildingInterface building : buildings) {
+      if (!distinct.add(building)) {
+        throw new IllegalArgumentException("A building cannot be run twice.");
+      }
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least one thread.");
+    }
+    if (ticksPerRound < 1) {
+      throw new IllegalArgumentException("A round must be at least one tick.");
+    }
+    this.buildings = Collections.unmodifiableList(new ArrayList<>(buildings));
+    this.shards = makeShards(this.buildings, Math.min(threads, this.buildings.size()));
+    this.ticksPerRound = ticksPerRound;
+  }
+
+  /**
+   * Split the buildings into shards of about the same work. A step costs about the same per
+   * elevator, so each building goes to the shard with the fewest elevators so far, the largest
+   * buildings first.
+   *
+   * @param buildings the buildings.
+   * @param count the number of shards.
+   * @return the indexes of the buildings of each shard, the shards in no particular order.
+   */
+  private static List<int[]> makeShards(List<BuildingInterface> buildings, int count) {
+    int[] elevators = new int[buildings.size()];
+    List<Integer> bySize = new ArrayList<>();
+    for (int i = 0; i < elevators.length; i++) {
+      elevators[i] = elevators(buildings.get(i));
+      bySize.add(i);
+    }
+    bySize.sort((a, b) -> Integer.compare(elevators[b], elevators[a]));
+    List<List<Integer>> members = new ArrayList<>();
+    long[] load = new long[count];
+    for (int i = 0; i < count; i++) {
+      members.add(new ArrayList<>());
+    }
+    for (int index : bySize) {
+      int lightest = 0;
+      for (int i = 1; i < count; i++) {
+        if (load[i] < load[lightest]) {
+          lightest = i;
+        }
+      }
+      members.get(lightest).add(index);
+      load[lightest] += elevators[index];
+    }
+    List<int[]> shards = new ArrayList<>();
+    for (List<Integer> shard : members) {
+      int[] indexes = new int[shard.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = shard.get(i);
+      }
+      shards.add(indexes);
+    }
+    return shards;
+  }
+
+  private static int elevators(BuildingInterface building) {
+    return building.getLatestReport().getNumElevators();
+  }
+
+  /**
+   * This method is used to get the buildings the engine runs.
+   *
+   * @return the buildings, in the order they were given. The list cannot be changed.
+   */
+  public List<BuildingInterface> getBuildings() {
+    return this.buildings;
+  }
+
+  /**
+   * This method is used to get the number of worker threads of a run.
+   *
+   * @return the number of worker threads.
+   */
+  public int getThreads() {
+    return this.shards.size();
+  }
+
+  /**
+   * This method is used to get the number of ticks run so far, over all runs.
+   *
+   * @return the number of ticks run so far.
+   */
+  public long getTick() {
+    return this.tick;
+  }
+
+  /**
+   * This method is used to run every building for a number of ticks and report on the campus.
+   * The calling thread works on the first shard and returns when every building has run all the
+   * ticks. The workers own the buildings during the run, so no other thread may own one when
+   * the run starts; the calling thread releases the ones it owns.
+   *
+   * @param ticks the number of ticks to run.
+   * @return a report of the run.
+   * @throws IllegalArgumentException if the number of ticks is negative.
+   * @throws IllegalStateException if another thread owns a building, or if a building failed
+   *     during the run. The other buildings stop at the next barrier, so the buildings may have
+   *     run different numbers of ticks.
+   */
+  public CampusReport run(int ticks) throws IllegalArgumentException, IllegalStateException {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative.");
+    }
+    int rounds = (ticks + this.ticksPerRound - 1) / this.ticksPerRound;
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    // Decided once per round by the barrier, before any worker goes on. A worker checking the
+    // failure itself could see a failure from the next round of a faster worker and stop a round
+    // early, leaving the others waiting at the barrier.
+    AtomicBoolean stop = new AtomicBoolean(false);
+    CyclicBarrier barrier = new CyclicBarrier(this.shards.size(),
+        () -> stop.set(failure.get() != null));
+    // The workers own the buildings of their shards during the run, so the calling thread hands
+    // on the ones it owns. Each worker reads the status of its own buildings at the end into
+    // the slots of the buildings, and releases them.
+    for (BuildingInterface building : this.buildings) {
+      building.releaseOwnership();
+    }
+    BuildingReport[] reports = new BuildingReport[this.buildings.size()];
+    List<Thread> workers = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int i = 1; i < this.shards.size(); i++) {
+      int[] shard = this.shards.get(i);
+      Thread worker = new Thread(
+          () -> runShard(shard, ticks, rounds, barrier, failure, stop, reports),
+          "simulation-worker-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+      worker.start();
+    }
+    runShard(this.shards.get(0), ticks, rounds, barrier, failure, stop, reports);
+    for (Thread worker : workers) {
+      boolean interrupted = false;
+      while (worker.isAlive()) {
+        try {
+          worker.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    if (failure.get() != null) {
+      throw new IllegalStateException("A building failed during the run.", failure.get());
+    }
+    this.tick += ticks;
+    JourneyStats journeys = new JourneyStats();
+    for (BuildingInterface building : this.buildings) {
+      journeys.add(building.getJourneyStats());
+    }
+    return new CampusReport(ticks, elapsed, this.shards.size(), Arrays.asList(reports),
+        journeys);
+  }
+
+  /**
+   * Run the buildings of one shard, waiting at the barrier after every round. A worker whose
+   * building fails records the failure and still comes to the barrier, and every worker stops
+   * after the barrier of that round. A worker that ran all the rounds reads the status of its
+   * buildings into their slots of the reports. Every worker releases its buildings at the end.
+   */
+  private void runShard(int[] shard, int ticks, int rounds,
+      CyclicBarrier barrier, AtomicReference<Throwable> failure, AtomicBoolean stop,
+      BuildingReport[] reports) {
+    try {
+      this.runRounds(shard, ticks, rounds, barrier, failure, stop, reports);
+    } finally {
+      for (int index : shard) {
+        try {
+          this.buildings.get(index).releaseOwnership();
+        } catch (IllegalStateException e) {
+          failure.compareAndSet(null, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Run the rounds of one shard for runShard.
+   */
+  private void runRounds(int[] shard, int ticks, int rounds,
+      CyclicBarrier barrier, AtomicReference<Throwable> failure, AtomicBoolean stop,
+      BuildingReport[] reports) {
+    for (int round = 0; round < rounds; round++) {
+      int roundTicks = Math.min(this.ticksPerRound, ticks - round * this.ticksPerRound);
+      try {
+        for (int index : shard) {
+          BuildingInterface building = this.buildings.get(index);
+          if (roundTicks == 1) {
+            building.step();
+          } else {
+            building.stepMany(roundTicks);
+          }
+        }
+      } catch (RuntimeException | Error e) {
+        failure.compareAndSet(null, e);
+      }
+      try {
+        barrier.await();
+      } catch (InterruptedException e) {
+        // The barrier is broken for the other workers too.
+        failure.compareAndSet(null, e);
+        Thread.currentThread().interrupt();
+        return;
+      } catch (BrokenBarrierException e) {
+        failure.compareAndSet(null, e);
+        return;
+      }
+      if (stop.get()) {
+        return;
+      }
+    }
+    try {
+      for (int index : shard) {
+        reports[index] = this.buildings.get(index).getElevatorSystemStatus();
+      }
+    } catch (RuntimeException | Error e) {
+      failure.compareAndSet(null, e);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package simulation;
+
+import building.BuildingInterface;
+import scanerzus.Request;
+import simulation.trace.TraceReader;
+
+/**
+ * This class replays a recorded trace of requests into a building without a display. Each
+ * request is added on the tick of its record, and between two records the building is advanced
+ * with stepMany, the same way as in HeadlessRunner. The ticks of the trace count from the start
+ * of the replay, and a replay can be run in several parts.
+ */
+public class TraceReplayer {
+
+  private final BuildingInterface building;
+  private final TraceReader trace;
+  private final int numberOfFloors;
+  // The tick the building is on, counted from the start of the replay.
+  private long tick;
+  // True if the trace is on a record that has not been added yet.
+  private boolean pending;
+  private boolean ended;
+
+  /**
+   * The constructor for a replayer.
+   *
+   * @param building the building to run, with its elevator system started or not.
+   * @param trace the trace to replay, before its first record. The replayer reads it but does
+   *     not close it.
+   * @throws IllegalArgumentException if the building or the trace is null.
+   */
+  public TraceReplayer(BuildingInterface building, TraceReader trace)
+      throws IllegalArgumentException {
+    if (building == null) {
+      throw new IllegalArgumentException("Building cannot be null.");
+    }
+    if (trace == null) {
+      throw new IllegalArgumentException("Trace cannot be null.");
+    }
+    this.building = building;
+    this.trace = trace;
+    this.numberOfFloors = building.getElevatorSystemStatus().getNumFloors();
+  }
+
+  /**
+   * This method is used to run the building for a number of steps, adding the requests of the
+   * trace that arrive in that time. A request between two floors the building does not have
+   * is offered but not accepted.
+   *
+   * @param ticks the number of steps to run.
+   * @return a report of the run.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   * @throws IllegalStateException if the trace is malformed or its ticks go back in time.
+   */
+  public RunReport run(int ticks) throws IllegalArgumentException, IllegalStateException {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative.");
+    }
+    long offered = 0;
+    long accepted = 0;
+    long end = this.tick + ticks;
+    long start = System.nanoTime();
+    while (this.nextRecord() && this.trace.getTick() < end) {
+      if (this.trace.getTick() < this.tick) {
+        throw new IllegalStateException("The trace goes back from tick " + this.tick
+            + " to tick " + this.trace.getTick() + ".");
+      }
+      this.building.stepMany((int) (this.trace.getTick() - this.tick));
+      this.tick = this.trace.getTick();
+      this.pending = false;
+      offered++;
+      if (this.isInBuilding(this.trace.getStartFloor(), this.trace.getEndFloor())
+          && this.building.addRequest(
+              new Request(this.trace.getStartFloor(), this.trace.getEndFloor()))) {
+        accepted++;
+      }
+    }
+    this.building.stepMany((int) (end - this.tick));
+    this.tick = end;
+    long elapsed = System.nanoTime() - start;
+    return new RunReport(ticks, elapsed, offered, accepted,
+        this.building.getElevatorSystemStatus(), this.building.getJourneyStats());
+  }
+
+  /**
+   * This method is used to check if the whole trace has been replayed.
+   *
+   * @return true if every record of the trace has been added.
+   */
+  public boolean isFinished() {
+    return !this.nextRecord();
+  }
+
+  /**
+   * Move the trace to the next record unless it is on one that has not been added yet.
+   *
+   * @return true if the trace is on a record that has not been added yet.
+   */
+  private boolean nextRecord() {
+    if (!this.pending && !this.ended) {
+      this.pending = this.trace.next();
+      this.ended = !this.pending;
+    }
+    return this.pending;
+  }
+
+  private boolean isInBuilding(int startFloor, int endFloor) {
+    return startFloor >= 0 && startFloor < this.numberOfFloors && endFloor >= 0
+        && endFloor < this.numberOfFloors && startFloor != endFloor;
+  }
+}
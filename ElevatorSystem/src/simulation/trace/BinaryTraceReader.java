@@ -0,0 +1,64 @@
+package simulation.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class reads the compact binary trace format. All numbers are little-endian. The file
+ * starts with a header of the magic number "ELTR" and the format version, both ints, followed by
+ * records of 8 bytes: the tick as an int, then the start floor and the end floor as shorts.
+ * Records are read straight from the mapped file.
+ */
+final class BinaryTraceReader extends TraceReader {
+
+  // "ELTR" read as a little-endian int.
+  static final int MAGIC = 'E' | 'L' << 8 | 'T' << 16 | 'R' << 24;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 8;
+  static final int RECORD_BYTES = 8;
+
+  private final MappedInput input;
+
+  /**
+   * The constructor for the reader of a binary trace file.
+   *
+   * @param path the trace file.
+   * @param window the largest number of bytes mapped at once.
+   * @throws IOException if the file cannot be opened.
+   * @throws IllegalArgumentException if the file is not a binary trace file.
+   */
+  BinaryTraceReader(Path path, int window) throws IOException, IllegalArgumentException {
+    this.input = new MappedInput(path, window);
+    try {
+      if (!this.input.ensure(HEADER_BYTES) || this.input.getInt() != MAGIC) {
+        throw new IllegalArgumentException(path + " is not a trace file.");
+      }
+      int version = this.input.getInt();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unknown trace version " + version + " in " + path);
+      }
+      if ((this.input.size() - HEADER_BYTES) % RECORD_BYTES != 0) {
+        throw new IllegalArgumentException(path + " ends in the middle of a record.");
+      }
+    } catch (RuntimeException e) {
+      this.input.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean next() {
+    if (!this.input.ensure(RECORD_BYTES)) {
+      return false;
+    }
+    this.tick = this.input.getInt();
+    this.startFloor = this.input.getShort();
+    this.endFloor = this.input.getShort();
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.input.close();
+  }
+}
@@ -0,0 +1,119 @@
+package simulation.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class reads a CSV trace with one record per line: tick,startFloor,endFloor. The first line
+ * may be a header, which is recognized by not starting with a digit. Blank lines are skipped, and
+ * lines may end with \n or \r\n. The numbers are parsed straight from the mapped bytes, so reading
+ * a record makes no objects.
+ */
+final class CsvTraceReader extends TraceReader {
+
+  private final MappedInput input;
+  private long line;
+
+  /**
+   * The constructor for the reader of a CSV trace file.
+   *
+   * @param path the trace file.
+   * @param window the largest number of bytes mapped at once.
+   * @throws IOException if the file cannot be opened.
+   */
+  CsvTraceReader(Path path, int window) throws IOException {
+    this.input = new MappedInput(path, window);
+  }
+
+  @Override
+  public boolean next() throws IllegalStateException {
+    while (this.input.ensure(1)) {
+      this.line++;
+      this.skipSpaces();
+      if (this.atEndOfLine()) {
+        this.skipEndOfLine();
+        continue;
+      }
+      if (this.line == 1 && !isDigit(this.input.peek())) {
+        // A header line.
+        this.skipLine();
+        continue;
+      }
+      this.tick = this.parseInt();
+      this.expect(',');
+      this.startFloor = this.parseInt();
+      this.expect(',');
+      this.endFloor = this.parseInt();
+      if (!this.atEndOfLine()) {
+        throw this.malformed("expected the end of the line");
+      }
+      this.skipEndOfLine();
+      return true;
+    }
+    return false;
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  private void skipSpaces() {
+    while (this.input.ensure(1) && (this.input.peek() == ' ' || this.input.peek() == '\t')) {
+      this.input.get();
+    }
+  }
+
+  private boolean atEndOfLine() {
+    return !this.input.ensure(1) || this.input.peek() == '\n' || this.input.peek() == '\r';
+  }
+
+  private void skipEndOfLine() {
+    if (this.input.ensure(1) && this.input.peek() == '\r') {
+      this.input.get();
+    }
+    if (this.input.ensure(1) && this.input.peek() == '\n') {
+      this.input.get();
+    }
+  }
+
+  private void skipLine() {
+    while (!this.atEndOfLine()) {
+      this.input.get();
+    }
+    this.skipEndOfLine();
+  }
+
+  private void expect(char separator) {
+    if (!this.input.ensure(1) || this.input.get() != separator) {
+      throw this.malformed("expected '" + separator + "'");
+    }
+  }
+
+  /**
+   * Parse a number that is not negative, with spaces around it.
+   */
+  private int parseInt() {
+    this.skipSpaces();
+    if (!this.input.ensure(1) || !isDigit(this.input.peek())) {
+      throw this.malformed("expected a number");
+    }
+    long value = 0;
+    while (this.input.ensure(1) && isDigit(this.input.peek())) {
+      value = value * 10 + (this.input.get() - '0');
+      if (value > Integer.MAX_VALUE) {
+        throw this.malformed("number too large");
+      }
+    }
+    this.skipSpaces();
+    return (int) value;
+  }
+
+  private IllegalStateException malformed(String reason) {
+    return new IllegalStateException("Malformed trace at line " + this.line + ": " + reason);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.input.close();
+  }
+}
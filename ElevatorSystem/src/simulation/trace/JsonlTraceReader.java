@@ -0,0 +1,81 @@
+package simulation.trace;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * This class reads a JSON Lines trace with one object per line, e.g.
+ * {"tick": 12, "startFloor": 0, "endFloor": 7}. Other fields are ignored and blank lines are
+ * skipped. Each line is copied out of the mapped file into a reused buffer and parsed with
+ * org.json, so only the current line is ever held as objects.
+ */
+final class JsonlTraceReader extends TraceReader {
+
+  private final MappedInput input;
+  private byte[] lineBytes = new byte[256];
+  private long line;
+
+  /**
+   * The constructor for the reader of a JSON Lines trace file.
+   *
+   * @param path the trace file.
+   * @param window the largest number of bytes mapped at once.
+   * @throws IOException if the file cannot be opened.
+   */
+  JsonlTraceReader(Path path, int window) throws IOException {
+    this.input = new MappedInput(path, window);
+  }
+
+  @Override
+  public boolean next() throws IllegalStateException {
+    while (this.input.ensure(1)) {
+      this.line++;
+      int length = this.readLine();
+      String text = new String(this.lineBytes, 0, length, StandardCharsets.UTF_8).trim();
+      if (text.isEmpty()) {
+        continue;
+      }
+      try {
+        JSONObject record = new JSONObject(text);
+        this.tick = record.getInt("tick");
+        this.startFloor = record.getInt("startFloor");
+        this.endFloor = record.getInt("endFloor");
+      } catch (JSONException e) {
+        throw new IllegalStateException("Malformed trace at line " + this.line + ": "
+            + e.getMessage(), e);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Copy the bytes up to the end of the line into the line buffer and move past the end of the
+   * line.
+   *
+   * @return the number of bytes in the line.
+   */
+  private int readLine() {
+    int length = 0;
+    while (this.input.ensure(1)) {
+      byte b = this.input.get();
+      if (b == '\n') {
+        break;
+      }
+      if (length == this.lineBytes.length) {
+        this.lineBytes = Arrays.copyOf(this.lineBytes, length * 2);
+      }
+      this.lineBytes[length++] = b;
+    }
+    return length;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.input.close();
+  }
+}
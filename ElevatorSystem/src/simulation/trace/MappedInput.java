@@ -0,0 +1,153 @@
+package simulation.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads a file through memory-mapped windows. A buffer can map at most 2 GB, so a
+ * larger file is read one window at a time, and the next window is mapped from where the reader
+ * is when the current one runs out. Bytes are read straight from the mapped pages, without
+ * copying them into the heap.
+ */
+final class MappedInput implements Closeable {
+
+  // The size of a window, a multiple of the page size.
+  static final int DEFAULT_WINDOW = 1 << 28;
+
+  private final FileChannel channel;
+  private final long size;
+  private final int window;
+  private MappedByteBuffer buffer;
+  // The position in the file of the start of the window.
+  private long windowStart;
+
+  /**
+   * The constructor for the input of a file.
+   *
+   * @param path the file to read.
+   * @param window the largest number of bytes mapped at once.
+   * @throws IOException if the file cannot be opened or mapped.
+   */
+  MappedInput(Path path, int window) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      this.size = this.channel.size();
+      this.window = window;
+      this.map(0);
+    } catch (IOException | RuntimeException e) {
+      this.channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Map the window that starts at a position in the file.
+   */
+  private void map(long start) throws IOException {
+    long length = Math.min(this.window, this.size - start);
+    this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    this.windowStart = start;
+  }
+
+  /**
+   * This method is used to get the size of the file.
+   *
+   * @return the size of the file in bytes.
+   */
+  long size() {
+    return this.size;
+  }
+
+  /**
+   * This method is used to get the position of the reader in the file.
+   *
+   * @return the number of bytes read so far.
+   */
+  long position() {
+    return this.windowStart + this.buffer.position();
+  }
+
+  /**
+   * This method is used to check how many bytes are left to read.
+   *
+   * @return the number of bytes left in the file.
+   */
+  long remaining() {
+    return this.size - this.position();
+  }
+
+  /**
+   * This method is used to make sure that a number of bytes can be read from the current window,
+   * mapping the next window if needed.
+   *
+   * @param bytes the number of bytes, at most the size of a window.
+   * @return true if the bytes are there, false if the file ends first.
+   */
+  boolean ensure(int bytes) {
+    if (this.buffer.remaining() >= bytes) {
+      return true;
+    }
+    long position = this.position();
+    if (this.size - position < bytes) {
+      return false;
+    }
+    try {
+      this.map(position);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return true;
+  }
+
+  /**
+   * This method is used to read a byte. The caller checks with ensure that there is one.
+   *
+   * @return the byte.
+   */
+  byte get() {
+    return this.buffer.get();
+  }
+
+  /**
+   * This method is used to look at the next byte without reading it. The caller checks with
+   * ensure that there is one.
+   *
+   * @return the byte.
+   */
+  byte peek() {
+    return this.buffer.get(this.buffer.position());
+  }
+
+  /**
+   * This method is used to read a little-endian int. The caller checks with ensure that there
+   * are four bytes.
+   *
+   * @return the int.
+   */
+  int getInt() {
+    return this.buffer.getInt();
+  }
+
+  /**
+   * This method is used to read a little-endian short. The caller checks with ensure that there
+   * are two bytes.
+   *
+   * @return the short.
+   */
+  short getShort() {
+    return this.buffer.getShort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    // The mapping itself is released when the buffer is garbage collected.
+    this.channel.close();
+  }
+}
@@ -0,0 +1,81 @@
+package simulation.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class reads a trace of requests, one record of (tick, startFloor, endFloor) at a time.
+ * The reader is a cursor: next moves it to the following record, and the getters return the
+ * fields of the record it is on. Records are read lazily from a memory-mapped file, so a trace
+ * of millions of records costs no more memory than a window of the file, and no Request objects
+ * are made until the requests are added to a building.
+ *
+ * <p>Three formats are read, chosen by the extension of the file:
+ * <ul>
+ *   <li>.csv: lines of tick,startFloor,endFloor, with an optional header line.</li>
+ *   <li>.jsonl or .ndjson: one JSON object per line, with the fields tick, startFloor and
+ *       endFloor.</li>
+ *   <li>anything else: the compact binary format written by TraceWriter, read without copying.
+ *       </li>
+ * </ul>
+ */
+public abstract class TraceReader implements Closeable {
+
+  int tick;
+  int startFloor;
+  int endFloor;
+
+  /**
+   * This method is used to open a trace file, in the format given by its extension.
+   *
+   * @param path the trace file.
+   * @return a reader before the first record of the file.
+   * @throws IOException if the file cannot be opened.
+   * @throws IllegalArgumentException if a binary file is not a trace file.
+   */
+  public static TraceReader open(Path path) throws IOException, IllegalArgumentException {
+    String name = path.getFileName().toString().toLowerCase();
+    if (name.endsWith(".csv")) {
+      return new CsvTraceReader(path, MappedInput.DEFAULT_WINDOW);
+    } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+      return new JsonlTraceReader(path, MappedInput.DEFAULT_WINDOW);
+    }
+    return new BinaryTraceReader(path, MappedInput.DEFAULT_WINDOW);
+  }
+
+  /**
+   * This method is used to move to the next record.
+   *
+   * @return true if the reader is on a record, false if the trace has ended.
+   * @throws IllegalStateException if the record is malformed.
+   */
+  public abstract boolean next() throws IllegalStateException;
+
+  /**
+   * This method is used to get the tick the request of the current record arrives at.
+   *
+   * @return the tick of the record.
+   */
+  public int getTick() {
+    return this.tick;
+  }
+
+  /**
+   * This method is used to get the start floor of the current record.
+   *
+   * @return the start floor of the record.
+   */
+  public int getStartFloor() {
+    return this.startFloor;
+  }
+
+  /**
+   * This method is used to get the end floor of the current record.
+   *
+   * @return the end floor of the record.
+   */
+  public int getEndFloor() {
+    return this.endFloor;
+  }
+}
@@ -0,0 +1,83 @@
+package simulation.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes a trace of requests in the compact binary format read by TraceReader, for
+ * example to convert a CSV trace once so that it replays without parsing. Records are collected
+ * in a buffer and written to the file when it is full.
+ */
+public class TraceWriter implements Closeable {
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+
+  /**
+   * The constructor for a writer of a new trace file. An existing file is replaced.
+   *
+   * @param path the trace file.
+   * @throws IOException if the file cannot be written.
+   */
+  public TraceWriter(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    this.buffer.putInt(BinaryTraceReader.MAGIC);
+    this.buffer.putInt(BinaryTraceReader.VERSION);
+  }
+
+  /**
+   * This method is used to write a record.
+   *
+   * @param tick the tick the request arrives at, at least 0.
+   * @param startFloor the start floor of the request, from 0 to 32767.
+   * @param endFloor the end floor of the request, from 0 to 32767.
+   * @throws IOException if the file cannot be written.
+   * @throws IllegalArgumentException if a value does not fit the format.
+   */
+  public void write(int tick, int startFloor, int endFloor) throws IOException,
+      IllegalArgumentException {
+    if (tick < 0) {
+      throw new IllegalArgumentException("The tick cannot be negative.");
+    }
+    if (startFloor < 0 || startFloor > Short.MAX_VALUE || endFloor < 0
+        || endFloor > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("The floors must be between 0 and " + Short.MAX_VALUE
+          + ".");
+    }
+    if (this.buffer.remaining() < BinaryTraceReader.RECORD_BYTES) {
+      this.flush();
+    }
+    this.buffer.putInt(tick);
+    this.buffer.putShort((short) startFloor);
+    this.buffer.putShort((short) endFloor);
+  }
+
+  /**
+   * Write the buffered records to the file.
+   */
+  private void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.flush();
+    } finally {
+      this.channel.close();
+    }
+  }
+}
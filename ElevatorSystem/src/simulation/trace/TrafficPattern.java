@@ -0,0 +1,25 @@
+package simulation.trace;
+
+/**
+ * This enum is used to represent the standard kinds of elevator traffic in an office building.
+ * UP_PEAK is the morning rush: everyone arrives at the lobby and goes up.
+ * DOWN_PEAK is the evening rush: everyone leaves from the upper floors to the lobby.
+ * LUNCH is two-way traffic: half the people come up from the lobby, the other half go down to it.
+ * UNIFORM is inter-floor traffic: people go from any floor to any other floor.
+ */
+public enum TrafficPattern {
+  UP_PEAK("Up-peak"),
+  DOWN_PEAK("Down-peak"),
+  LUNCH("Lunch"),
+  UNIFORM("Uniform");
+  final String display;
+
+  TrafficPattern(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -0,0 +1,202 @@
+package simulation.trace;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * This class generates synthetic traffic for one of the standard traffic patterns. It is a trace
+ * reader, so the traffic can be replayed into a building with a TraceReplayer, or written to a
+ * binary trace file with writeTo and replayed later.
+ *
+ * <p>Requests arrive at every floor as a Poisson process with the rate of that floor. The
+ * arrivals of all the floors together are one Poisson process with the sum of the rates, so the
+ * generator draws the time to the next arrival from that and then the floor it arrives at. The
+ * end floor of a request depends on the pattern. The same seed always gives the same traffic.
+ */
+public class WorkloadGenerator extends TraceReader {
+
+  // The share of people on an upper floor at lunch who go down to the lobby, the rest go to
+  // another upper floor.
+  private static final double LUNCH_TO_LOBBY = 0.9;
+
+  private final TrafficPattern pattern;
+  private final int numberOfFloors;
+  private final int ticks;
+  private final Random random;
+  private final double totalRate;
+  // cumulativeRates[i] is the sum of the rates of floors 0 to i.
+  private final double[] cumulativeRates;
+  private double arrivalTime;
+
+  /**
+   * The constructor for a generator with the usual arrival rates of a pattern, spread over the
+   * building: all at the lobby for UP_PEAK, evenly over the upper floors for DOWN_PEAK, half at
+   * the lobby and half over the upper floors for LUNCH, and evenly over all floors for UNIFORM.
+   *
+   * @param pattern the traffic pattern.
+   * @param numberOfFloors the number of floors in the building, at least 2.
+   * @param arrivalsPerTick the average number of requests arriving per step in the building.
+   * @param ticks the number of steps to generate traffic for.
+   * @param seed the seed of the traffic, so that it can be repeated.
+   * @throws IllegalArgumentException if a value is out of range.
+   */
+  public WorkloadGenerator(TrafficPattern pattern, int numberOfFloors, double arrivalsPerTick,
+      int ticks, long seed) throws IllegalArgumentException {
+    this(pattern, arrivalRates(pattern, numberOfFloors, arrivalsPerTick), ticks, seed);
+  }
+
+  /**
+   * The constructor for a generator with a given arrival rate at every floor.
+   *
+   * @param pattern the traffic pattern, which decides where the requests go.
+   * @param arrivalsPerTick the average number of requests arriving per step at each floor.
+   * @param ticks the number of steps to generate traffic for.
+   * @param seed the seed of the traffic, so that it can be repeated.
+   * @throws IllegalArgumentException if a value is out of range.
+   */
+  public WorkloadGenerator(TrafficPattern pattern, double[] arrivalsPerTick, int ticks, long seed)
+      throws IllegalArgumentException {
+    if (pattern == null) {
+      throw new IllegalArgumentException("Traffic pattern cannot be null.");
+    }
+    if (arrivalsPerTick == null || arrivalsPerTick.length < 2) {
+      throw new IllegalArgumentException("There must be a rate for at least two floors.");
+    }
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative.");
+    }
+    this.pattern = pattern;
+    this.numberOfFloors = arrivalsPerTick.length;
+    this.ticks = ticks;
+    this.random = new Random(seed);
+    this.cumulativeRates = new double[arrivalsPerTick.length];
+    double total = 0;
+    for (int i = 0; i < arrivalsPerTick.length; i++) {
+      if (!(arrivalsPerTick[i] >= 0) || Double.isInfinite(arrivalsPerTick[i])) {
+        throw new IllegalArgumentException("The arrival rate cannot be negative.");
+      }
+      total += arrivalsPerTick[i];
+      this.cumulativeRates[i] = total;
+    }
+    this.totalRate = total;
+  }
+
+  /**
+   * This method is used to get the usual arrival rate at every floor for a pattern.
+   *
+   * @param pattern the traffic pattern.
+   * @param numberOfFloors the number of floors in the building, at least 2.
+   * @param arrivalsPerTick the average number of requests arriving per step in the building.
+   * @return the average number of requests arriving per step at each floor.
+   * @throws IllegalArgumentException if a value is out of range.
+   */
+  public static double[] arrivalRates(TrafficPattern pattern, int numberOfFloors,
+      double arrivalsPerTick) throws IllegalArgumentException {
+    if (pattern == null) {
+      throw new IllegalArgumentException("Traffic pattern cannot be null.");
+    }
+    if (numberOfFloors < 2) {
+      throw new IllegalArgumentException("The number of floors must be greater than 1.");
+    }
+    if (!(arrivalsPerTick >= 0) || Double.isInfinite(arrivalsPerTick)) {
+      throw new IllegalArgumentException("The arrival rate cannot be negative.");
+    }
+    double[] rates = new double[numberOfFloors];
+    double perUpperFloor = arrivalsPerTick / (numberOfFloors - 1);
+    switch (pattern) {
+      case UP_PEAK:
+        rates[0] = arrivalsPerTick;
+        break;
+      case DOWN_PEAK:
+        for (int i = 1; i < numberOfFloors; i++) {
+          rates[i] = perUpperFloor;
+        }
+        break;
+      case LUNCH:
+        rates[0] = arrivalsPerTick / 2;
+        for (int i = 1; i < numberOfFloors; i++) {
+          rates[i] = perUpperFloor / 2;
+        }
+        break;
+      default:
+        for (int i = 0; i < numberOfFloors; i++) {
+          rates[i] = arrivalsPerTick / numberOfFloors;
+        }
+        break;
+    }
+    return rates;
+  }
+
+  @Override
+  public boolean next() {
+    if (this.totalRate == 0) {
+      return false;
+    }
+    this.arrivalTime += -Math.log(1.0 - this.random.nextDouble()) / this.totalRate;
+    if (this.arrivalTime >= this.ticks) {
+      this.arrivalTime = this.ticks;
+      return false;
+    }
+    this.tick = (int) this.arrivalTime;
+    this.startFloor = this.nextStartFloor();
+    this.endFloor = this.nextEndFloor(this.startFloor);
+    return true;
+  }
+
+  /**
+   * Draw the floor of an arrival, each floor in proportion to its rate.
+   */
+  private int nextStartFloor() {
+    double point = this.random.nextDouble() * this.totalRate;
+    int low = 0;
+    int high = this.cumulativeRates.length - 1;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.cumulativeRates[middle] > point) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Draw the end floor of a request. From the lobby people always go up. From an upper floor
+   * they go to the lobby in DOWN_PEAK, mostly to the lobby at LUNCH, and to any other floor
+   * otherwise.
+   */
+  private int nextEndFloor(int startFloor) {
+    if (startFloor != 0) {
+      if (this.pattern == TrafficPattern.DOWN_PEAK) {
+        return 0;
+      }
+      if (this.pattern == TrafficPattern.LUNCH && this.random.nextDouble() < LUNCH_TO_LOBBY) {
+        return 0;
+      }
+    }
+    int end = this.random.nextInt(this.numberOfFloors - 1);
+    return end >= startFloor ? end + 1 : end;
+  }
+
+  /**
+   * This method is used to write the rest of the traffic to a binary trace file.
+   *
+   * @param writer the writer of the trace file.
+   * @return the number of records written.
+   * @throws IOException if the file cannot be written.
+   */
+  public long writeTo(TraceWriter writer) throws IOException {
+    long count = 0;
+    while (this.next()) {
+      writer.write(this.tick, this.startFloor, this.endFloor);
+      count++;
+    }
+    return count;
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release.
+  }
+}
@@ -1,14 +1,47 @@
 package building;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import building.dispatch.CollectiveDispatchStrategy;
+import building.dispatch.DispatchContext;
 import building.enums.Direction;
+import building.enums.DwellPolicy;
 import building.enums.ElevatorSystemStatus;
+import building.enums.SweepMode;
+import elevator.ElevatorBank;
+import elevator.ElevatorInterface;
+import elevator.ElevatorReport;
+import elevator.ElevatorState;
+import elevator.ElevatorStatusTable;
+import elevator.JourneyStats;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assume;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import scanerzus.Request;
 import scanerzus.RequestInterface;
 
@@ -18,6 +51,9 @@ import scanerzus.RequestInterface;
  */
 public class BuildingTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   private BuildingInterface testBuilding;
   private RequestInterface testUpRequest1;
   private RequestInterface testUpRequest2;
@@ -317,4 +353,1011 @@ public class BuildingTest {
         + "Down requests: []\n";
     assertEquals(expected, this.testBuilding.getElevatorSystemStatus().toString());
   }
-}
\ No newline at end of file
+
+  /**
+   * This test is used to test that the building distributes requests through a custom dispatch
+   * strategy. The strategy here gives requests only to the last elevator, one at a time.
+   */
+  @Test
+  public void testCustomDispatchStrategy() {
+    ArrayList<Integer> seenFloors = new ArrayList<>();
+    BuildingInterface building = new Building(3, 3, 3, (DispatchContext context) -> {
+      int last = context.getNumElevators() - 1;
+      seenFloors.add(context.getElevator(last).getCurrentFloor());
+      if (context.getElevator(last).isTakingRequests()
+          && context.getElevator(last).getCurrentFloor() == 0) {
+        context.assignUpRequests(last, 1);
+      }
+    });
+    assertTrue(building.startElevatorSystem());
+    // The strategy is not called when there is nothing to distribute.
+    building.step();
+    assertTrue(seenFloors.isEmpty());
+    assertTrue(building.addRequest((Request) testUpRequest1));
+    assertTrue(building.addRequest((Request) testUpRequest2));
+    building.step();
+    assertEquals(1, seenFloors.size());
+    // Only the last elevator got a request, and only one of them.
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[0].isTakingRequests());
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[1].isTakingRequests());
+    assertFalse(building.getElevatorSystemStatus().getElevatorReports()[2].isTakingRequests());
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[2].getFloorRequests()[2]);
+    assertEquals(1, building.getElevatorSystemStatus().getUpRequests().size());
+    assertEquals(testUpRequest2, building.getElevatorSystemStatus().getUpRequests().get(0));
+  }
+
+  /**
+   * This test is used to test that the dispatch strategy is handed read-only views of the
+   * elevators, which cannot be cast back to control them, and the same view on every call.
+   */
+  @Test
+  public void testDispatchViewIsReadOnly() {
+    ArrayList<ElevatorState> seen = new ArrayList<>();
+    BuildingInterface building = new Building(5, 2, 3, (DispatchContext context) -> {
+      for (int i = 0; i < context.getNumElevators(); i++) {
+        seen.add(context.getElevator(i));
+      }
+    });
+    assertTrue(building.startElevatorSystem());
+    assertTrue(building.addRequest(new Request(0, 3)));
+    building.step();
+    assertTrue(building.addRequest(new Request(0, 4)));
+    building.step();
+    assertEquals(4, seen.size());
+    for (ElevatorState state : seen) {
+      assertFalse(state instanceof ElevatorInterface);
+    }
+    assertSame(seen.get(0), seen.get(2));
+    assertSame(seen.get(1), seen.get(3));
+    assertEquals(1, seen.get(1).getElevatorId());
+    assertEquals(3, seen.get(0).getMaxOccupancy());
+  }
+
+  /**
+   * This test is used to test that a building cannot be created without a dispatch strategy.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDispatchStrategy() {
+    new Building(3, 3, 3, null);
+  }
+
+  /**
+   * This test is used to test collective control: an elevator on its way up picks up a request
+   * that starts in the middle of the building, while with the default strategy the request waits
+   * for an elevator at the bottom floor.
+   */
+  @Test
+  public void testCollectiveDispatchPicksUpMidShaft() {
+    BuildingInterface collective = new Building(6, 1, 3, new CollectiveDispatchStrategy());
+    BuildingInterface terminal = new Building(6, 1, 3);
+    for (BuildingInterface building : new BuildingInterface[] {collective, terminal}) {
+      assertTrue(building.startElevatorSystem());
+      // Wait 5 steps at the bottom and go up to floor 2.
+      for (int i = 0; i < 7; i++) {
+        building.step();
+      }
+      assertEquals(2, building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor());
+      assertTrue(building.addRequest(new Request(4, 5)));
+      building.step();
+    }
+    // The collective elevator is on floor 3 and took the request starting on floor 4.
+    assertEquals(0, collective.getElevatorSystemStatus().getUpRequests().size());
+    assertTrue(collective.getElevatorSystemStatus().getElevatorReports()[0].getFloorRequests()[4]);
+    assertTrue(collective.getElevatorSystemStatus().getElevatorReports()[0].getFloorRequests()[5]);
+    collective.step();
+    collective.step();
+    assertEquals(4, collective.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor());
+    assertFalse(collective.getElevatorSystemStatus().getElevatorReports()[0].isDoorClosed());
+    // The default strategy leaves the request waiting.
+    assertEquals(1, terminal.getElevatorSystemStatus().getUpRequests().size());
+    assertFalse(terminal.getElevatorSystemStatus().getElevatorReports()[0].getFloorRequests()[4]);
+  }
+
+  /**
+   * This test is used to test that an elevator is given more requests than it has seats, that a
+   * passenger who finds it full is left behind and queued again with the same stamp, and that a
+   * later run picks the passenger up.
+   */
+  @Test
+  public void testFullElevatorLeavesPassengerBehind() {
+    Building building = new Building(10, 1, 3, new CollectiveDispatchStrategy());
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 9));
+    building.addRequest(new Request(0, 9));
+    building.addRequest(new Request(2, 9));
+    building.addRequest(new Request(1, 9));
+    Request waiting = building.getElevatorSystemStatus().getUpRequests().get(2);
+    // The elevator takes the first three at the bottom. Only the two who board there take a
+    // seat, so on its way up it also takes the request from floor 1, and is full at floor 2.
+    boolean allGiven = false;
+    boolean requeued = false;
+    for (int i = 0; i < 20 && !requeued; i++) {
+      building.step();
+      BuildingReport report = building.getElevatorSystemStatus();
+      assertTrue(report.getElevatorReports()[0].getOccupancy() <= 3);
+      allGiven |= report.getUpRequests().isEmpty();
+      requeued = report.getUpRequests().contains(waiting);
+    }
+    assertTrue(allGiven);
+    assertTrue(requeued);
+    Request again = building.getElevatorSystemStatus().getUpRequests().get(0);
+    assertSame(waiting, again);
+    assertEquals(2, again.getId());
+    assertEquals(0, again.getArrivalTick());
+    assertEquals(0, building.getJourneyStats().getJourneys());
+
+    building.stepMany(200);
+    JourneyStats stats = building.getJourneyStats();
+    assertEquals(4, stats.getJourneys());
+    assertTrue(building.getElevatorSystemStatus().getUpRequests().isEmpty());
+    // The passenger left behind waited for the elevator to go up and come back.
+    assertTrue(stats.getWaitTimes().getMax() > 20);
+  }
+
+  /**
+   * This test is used to test LOOK mode: elevators park at the bottom floor, and one of them is
+   * summoned to the top floor when there is a down request.
+   */
+  @Test
+  public void testLookSummonsElevatorForDownRequests() {
+    BuildingInterface building = new Building(6, 2, 3);
+    building.setSweepMode(SweepMode.LOOK);
+    assertTrue(building.startElevatorSystem());
+    assertTrue(building.addRequest(new Request(5, 0)));
+    building.step();
+    // The first elevator is summoned, the second one stays at the bottom.
+    assertEquals(Direction.UP,
+        building.getElevatorSystemStatus().getElevatorReports()[0].getDirection());
+    assertFalse(building.getElevatorSystemStatus().getElevatorReports()[0].isTakingRequests());
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[0].getFloorRequests()[5]);
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[1].isTakingRequests());
+    // Five floors up, open and close the door, and then take the request at the top.
+    for (int i = 0; i < 10; i++) {
+      building.step();
+    }
+    assertEquals(5, building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor());
+    assertEquals(0, building.getElevatorSystemStatus().getDownRequests().size());
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[0].getFloorRequests()[0]);
+    assertEquals(Direction.DOWN,
+        building.getElevatorSystemStatus().getElevatorReports()[0].getDirection());
+    // The second elevator is still parked at the bottom.
+    assertEquals(0, building.getElevatorSystemStatus().getElevatorReports()[1].getCurrentFloor());
+    assertTrue(building.getElevatorSystemStatus().getElevatorReports()[1].isTakingRequests());
+  }
+
+  /**
+   * This test is used to test that a LOOK elevator is back at the bottom floor, ready for the
+   * next request, long before a FULL elevator.
+   */
+  @Test
+  public void testLookShortensRoundTrip() {
+    int[] roundTrip = new int[2];
+    SweepMode[] modes = {SweepMode.FULL, SweepMode.LOOK};
+    for (int m = 0; m < modes.length; m++) {
+      BuildingInterface building = new Building(20, 1, 3);
+      building.setSweepMode(modes[m]);
+      assertTrue(building.startElevatorSystem());
+      assertTrue(building.addRequest(new Request(0, 2)));
+      building.step();
+      int ticks = 1;
+      while (!building.getElevatorSystemStatus().getElevatorReports()[0].isTakingRequests()
+          || building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() != 0) {
+        building.step();
+        ticks++;
+      }
+      roundTrip[m] = ticks;
+    }
+    // One step to take the request, 4 + 2 + 4 steps up to floor 2, then 1 + 2 + 1 steps back.
+    assertEquals(15, roundTrip[1]);
+    assertTrue(roundTrip[1] < roundTrip[0]);
+  }
+
+  /**
+   * This test is used to test that with the WHEN_IDLE dwell policy an elevator that brings
+   * passengers to the top floor leaves with the waiting down request right away, and that the
+   * steps it saves are reported.
+   */
+  @Test
+  public void testWhenIdleDwellPolicyLeavesEarlier() {
+    DwellPolicy[] policies = {DwellPolicy.FIXED, DwellPolicy.WHEN_IDLE};
+    int[] leftTop = new int[2];
+    BuildingReport whenIdleReport = null;
+    for (int p = 0; p < policies.length; p++) {
+      BuildingInterface building = new Building(6, 1, 3);
+      building.setDwellPolicy(policies[p]);
+      assertTrue(building.startElevatorSystem());
+      assertTrue(building.addRequest(new Request(0, 5)));
+      assertTrue(building.addRequest(new Request(5, 0)));
+      int ticks = 0;
+      boolean reachedTop = false;
+      while (!reachedTop
+          || building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() == 5) {
+        building.step();
+        ticks++;
+        if (building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() == 5) {
+          reachedTop = true;
+        }
+      }
+      leftTop[p] = ticks;
+      if (policies[p] == DwellPolicy.WHEN_IDLE) {
+        whenIdleReport = building.getElevatorSystemStatus();
+      }
+    }
+    assertEquals(5, leftTop[0] - leftTop[1]);
+    assertEquals(5, whenIdleReport.getDwellTicksSaved());
+    assertEquals(0, whenIdleReport.getDownRequests().size());
+  }
+
+  /**
+   * This test is used to test that stepping many times at once has the same result as stepping
+   * one by one.
+   */
+  @Test
+  public void testStepMany() {
+    BuildingInterface many = new Building(6, 3, 3);
+    BuildingInterface single = new Building(6, 3, 3);
+    for (BuildingInterface building : new BuildingInterface[] {many, single}) {
+      assertTrue(building.startElevatorSystem());
+      assertTrue(building.addRequest(new Request(0, 4)));
+      assertTrue(building.addRequest(new Request(5, 1)));
+      assertTrue(building.addRequest(new Request(2, 3)));
+    }
+    many.stepMany(37);
+    for (int i = 0; i < 37; i++) {
+      single.step();
+    }
+    assertEquals(single.getElevatorSystemStatus().toString(),
+        many.getElevatorSystemStatus().toString());
+    many.stepMany(0);
+    assertEquals(single.getElevatorSystemStatus().toString(),
+        many.getElevatorSystemStatus().toString());
+  }
+
+  /**
+   * This test is used to test that skipping over quiet steps gives exactly the same elevators as
+   * stepping one at a time, with traffic coming in bursts and all the sweep modes, dwell policies
+   * and dispatch strategies.
+   */
+  @Test
+  public void testStepManySkipsExactly() {
+    Random random = new Random(42);
+    for (SweepMode sweepMode : SweepMode.values()) {
+      for (DwellPolicy dwellPolicy : DwellPolicy.values()) {
+        for (boolean collective : new boolean[] {false, true}) {
+          Building many = collective ? new Building(12, 4, 5, new CollectiveDispatchStrategy())
+              : new Building(12, 4, 5);
+          Building single = collective ? new Building(12, 4, 5, new CollectiveDispatchStrategy())
+              : new Building(12, 4, 5);
+          for (Building building : new Building[] {many, single}) {
+            building.setSweepMode(sweepMode);
+            building.setDwellPolicy(dwellPolicy);
+            assertTrue(building.startElevatorSystem());
+          }
+          for (int burst = 0; burst < 20; burst++) {
+            int requests = random.nextInt(6);
+            for (int i = 0; i < requests; i++) {
+              int start = random.nextInt(12);
+              int end = (start + 1 + random.nextInt(11)) % 12;
+              assertTrue(many.addRequest(new Request(start, end)));
+              assertTrue(single.addRequest(new Request(start, end)));
+            }
+            int ticks = random.nextInt(120);
+            many.stepMany(ticks);
+            for (int i = 0; i < ticks; i++) {
+              single.step();
+            }
+            assertSameElevators(single, many);
+          }
+          many.stopElevatorSystem();
+          single.stopElevatorSystem();
+          many.stepMany(100);
+          for (int i = 0; i < 100; i++) {
+            single.step();
+          }
+          assertSameElevators(single, many);
+          assertEquals(single.getElevatorSystemStatus().getSystemStatus(),
+              many.getElevatorSystemStatus().getSystemStatus());
+        }
+      }
+    }
+  }
+
+  /**
+   * Check that two buildings have elevators in the same state, apart from their ids.
+   */
+  private static void assertSameElevators(Building expected, Building actual) {
+    ElevatorReport[] expectedReports = expected.getElevatorSystemStatus().getElevatorReports();
+    ElevatorReport[] actualReports = actual.getElevatorSystemStatus().getElevatorReports();
+    assertEquals(expectedReports.length, actualReports.length);
+    for (int i = 0; i < expectedReports.length; i++) {
+      assertEquals(expectedReports[i].toString(), actualReports[i].toString());
+      assertEquals(expectedReports[i].getDoorOpenTimer(), actualReports[i].getDoorOpenTimer());
+      assertEquals(expectedReports[i].getEndWaitTimer(), actualReports[i].getEndWaitTimer());
+      assertEquals(expectedReports[i].isTakingRequests(), actualReports[i].isTakingRequests());
+      assertEquals(expectedReports[i].getDwellTicksSaved(),
+          actualReports[i].getDwellTicksSaved());
+    }
+    assertEquals(expected.getElevatorSystemStatus().getUpRequests().toString(),
+        actual.getElevatorSystemStatus().getUpRequests().toString());
+    assertEquals(expected.getElevatorSystemStatus().getDownRequests().toString(),
+        actual.getElevatorSystemStatus().getDownRequests().toString());
+  }
+
+  /**
+   * This test is used to test that the number of steps cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testStepManyNegative() {
+    this.testBuilding.stepMany(-1);
+  }
+
+  /**
+   * This test is used to test that a status table is filled again in place with the same status
+   * as a new report, that the elevator reports it hands out do not change with it, and that a
+   * table is only filled again by the building that made it.
+   */
+  @Test
+  public void testStatusTable() {
+    Building building = new Building(10, 3, 5);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 7));
+    building.addRequest(new Request(6, 2));
+    BuildingStatusTable table = building.getStatusTable(null);
+    assertNotSame(table, new Building(10, 3, 5).getStatusTable(table));
+    for (int i = 0; i < 40; i++) {
+      ElevatorReport before = table.getElevatorTable().getElevatorReport(0);
+      String beforeText = before.toString();
+      building.step();
+      assertSame(table, building.getStatusTable(table));
+      BuildingReport report = building.getElevatorSystemStatus();
+      assertEquals(report.toString(), table.toString());
+      assertEquals(report.getVersion(), table.getVersion());
+      assertEquals(beforeText, before.toString());
+      ElevatorStatusTable elevators = table.getElevatorTable();
+      ElevatorReport[] after = report.getElevatorReports();
+      for (int j = 0; j < elevators.size(); j++) {
+        assertEquals(after[j], elevators.getElevatorReport(j));
+        assertEquals(after[j].getCurrentFloor(), elevators.getCurrentFloor(j));
+      }
+    }
+    building.stopElevatorSystem();
+    assertEquals(ElevatorSystemStatus.stopping,
+        building.getStatusTable(table).getSystemStatus());
+  }
+
+  /**
+   * This test is used to test that while the elevators carry a backlog of requests, no step of
+   * the building together with a fill of its status table allocates, from the first step on. An
+   * identical building is run the same way first, so that the code of the step and of the
+   * measurement is loaded and linked. The JVM itself can allocate a few bytes on the thread now
+   * and then, for example when it links or compiles code again, so the fewest bytes of three
+   * more runs are taken: an allocation in the step would show in every run.
+   */
+  @Test
+  public void testSteadyStateStepDoesNotAllocate() {
+    Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+        instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Building building = null;
+    long allocated = Long.MAX_VALUE;
+    for (int run = 0; run < 4; run++) {
+      building = backlogBuilding();
+      long bytes = allocatedBySteps(threads, building, 6_000);
+      if (run > 0) {
+        allocated = Math.min(allocated, bytes);
+      }
+    }
+    assertEquals("bytes allocated", 0, allocated);
+
+    // The elevators were carrying requests the whole time.
+    assertTrue(building.getJourneyStats().getJourneys() > 0);
+    assertFalse(building.getStatusTable(null).getUpRequests().isEmpty());
+  }
+
+  /**
+   * This method is used to count the bytes allocated by stepping a building and filling its
+   * status table after every step.
+   * @param threads the bean that counts the bytes.
+   * @param building the building.
+   * @param steps the number of steps.
+   * @return the number of bytes allocated by the steps.
+   */
+  private static long allocatedBySteps(com.sun.management.ThreadMXBean threads,
+                                       Building building, int steps) {
+    long thread = Thread.currentThread().getId();
+    BuildingStatusTable table = building.getStatusTable(null);
+    int floorBefore = table.getElevatorTable().getCurrentFloor(0);
+    int moves = 0;
+    long start = threads.getThreadAllocatedBytes(thread);
+    long overhead = threads.getThreadAllocatedBytes(thread) - start;
+    start = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < steps; i++) {
+      building.step();
+      table = building.getStatusTable(table);
+      if (table.getElevatorTable().getCurrentFloor(0) != floorBefore) {
+        floorBefore = table.getElevatorTable().getCurrentFloor(0);
+        moves++;
+      }
+    }
+    long allocated = threads.getThreadAllocatedBytes(thread) - start - overhead;
+    assertTrue(moves > steps / 12);
+    return allocated;
+  }
+
+  /**
+   * This method is used to make a running building with a backlog of 20,000 requests.
+   * @return the building.
+   */
+  private static Building backlogBuilding() {
+    Building building = new Building(30, 16, 10, new CollectiveDispatchStrategy());
+    building.startElevatorSystem();
+    for (int i = 0; i < 20_000; i++) {
+      building.addRequest(new Request(i % 30, (i % 30 + 1 + i % 29) % 30));
+    }
+    return building;
+  }
+
+  /**
+   * This test is used to test that a report is a snapshot that does not change with the building
+   * or with the arrays it hands out, and that it is only made again after the building changes.
+   */
+  @Test
+  public void testReportIsSnapshot() {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    BuildingReport first = building.getElevatorSystemStatus();
+    assertSame(first, building.getElevatorSystemStatus());
+
+    building.addRequest(new Request(4, 8));
+    BuildingReport second = building.getElevatorSystemStatus();
+    assertNotSame(first, second);
+    assertTrue(second.getVersion() > first.getVersion());
+    assertTrue(first.getUpRequests().isEmpty());
+    assertEquals("[4->8]", second.getUpRequests().toString());
+
+    String secondText = second.toString();
+    second.getElevatorReports()[0] = null;
+    for (int i = 0; i < 10; i++) {
+      building.step();
+    }
+    assertEquals(secondText, second.toString());
+    BuildingReport third = building.getElevatorSystemStatus();
+    assertTrue(third.getVersion() > second.getVersion());
+    // The down queue has not changed, so its copy is shared.
+    assertSame(second.getDownRequests(), third.getDownRequests());
+  }
+
+  /**
+   * This test is used to test that the requests of a report cannot be changed.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReportRequestsAreReadOnly() {
+    this.testBuilding.startElevatorSystem();
+    this.testBuilding.getElevatorSystemStatus().getUpRequests().add(new Request(0, 1));
+  }
+
+  /**
+   * This test is used to test that another thread can poll the latest report while the building
+   * runs, and always sees whole reports that only move forward.
+   */
+  @Test
+  public void testLatestReportFromAnotherThread() throws InterruptedException {
+    Building building = new Building(12, 4, 5);
+    building.startElevatorSystem();
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicLong reportsSeen = new AtomicLong();
+    Thread monitor = new Thread(() -> {
+      try {
+        long lastVersion = -1;
+        while (!done.get()) {
+          BuildingReport report = building.getLatestReport();
+          assertTrue(report.getVersion() >= lastVersion);
+          assertEquals(4, report.getElevatorReports().length);
+          for (ElevatorReport elevator : report.getElevatorReports()) {
+            assertTrue(elevator.getCurrentFloor() >= 0 && elevator.getCurrentFloor() < 12);
+          }
+          for (Request request : report.getUpRequests()) {
+            assertTrue(request.getStartFloor() < request.getEndFloor());
+          }
+          if (report.getVersion() > lastVersion) {
+            reportsSeen.incrementAndGet();
+          }
+          lastVersion = report.getVersion();
+        }
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    });
+    monitor.start();
+    Random random = new Random(5);
+    for (int i = 0; i < 50_000; i++) {
+      if (random.nextInt(4) == 0) {
+        int start = random.nextInt(12);
+        building.addRequest(new Request(start, (start + 1 + random.nextInt(11)) % 12));
+      }
+      building.step();
+    }
+    done.set(true);
+    monitor.join();
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertTrue(reportsSeen.get() > 1);
+
+    // A report asked for is made on the next change.
+    building.getLatestReport();
+    building.step();
+    assertEquals(building.getElevatorSystemStatus().getVersion(),
+        building.getLatestReport().getVersion());
+  }
+
+  /**
+   * This test is used to test that requests added from many threads at once all reach the
+   * building, that none are taken in by reading the status, and that the owner of the building
+   * takes them all in when it adds a request itself.
+   */
+  @Test
+  public void testAddRequestFromManyThreads() throws InterruptedException {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    int producers = 16;
+    int perProducer = 1000;
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      int seed = p;
+      threads[p] = new Thread(() -> {
+        Random random = new Random(seed);
+        for (int i = 0; i < perProducer; i++) {
+          int start = random.nextInt(10);
+          assertTrue(building.addRequest(new Request(start, (start + 1 + random.nextInt(9)) % 10)));
+        }
+      });
+      threads[p].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    BuildingReport report = building.getElevatorSystemStatus();
+    assertEquals(0, report.getUpRequests().size() + report.getDownRequests().size());
+    assertSame(report, building.getElevatorSystemStatus());
+
+    // A request added by the owner of the building brings in the others too.
+    building.addRequest(new Request(0, 1));
+    report = building.getElevatorSystemStatus();
+    assertEquals(producers * perProducer + 1,
+        report.getUpRequests().size() + report.getDownRequests().size());
+    for (Request request : report.getUpRequests()) {
+      assertTrue(request.getStartFloor() < request.getEndFloor());
+    }
+    for (Request request : report.getDownRequests()) {
+      assertTrue(request.getStartFloor() > request.getEndFloor());
+    }
+
+    // Requests that are still waiting when the building stops are dropped.
+    Thread producer = new Thread(() -> building.addRequest(new Request(0, 1)));
+    producer.start();
+    producer.join();
+    building.stopElevatorSystem();
+    report = building.getElevatorSystemStatus();
+    assertEquals(0, report.getUpRequests().size() + report.getDownRequests().size());
+  }
+
+  /**
+   * This test is used to test that only the owner of a building can step it or read its status,
+   * that any thread can read the latest report, and that a released building can be taken over.
+   */
+  @Test
+  public void testOwnership() throws InterruptedException {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicReference<BuildingReport> latest = new AtomicReference<>();
+    Thread other = new Thread(() -> {
+      latest.set(building.getLatestReport());
+      try {
+        building.getElevatorSystemStatus();
+      } catch (IllegalStateException e) {
+        failure.set(e);
+      }
+    });
+    other.start();
+    other.join();
+    assertTrue(failure.get() instanceof IllegalStateException);
+    assertEquals(10, latest.get().getNumFloors());
+
+    // After the owner releases the building, the next thread to step it owns it.
+    building.releaseOwnership();
+    AtomicReference<BuildingReport> stepped = new AtomicReference<>();
+    Thread stepper = new Thread(() -> {
+      building.addRequest(new Request(0, 5));
+      building.step();
+      stepped.set(building.getElevatorSystemStatus());
+    });
+    stepper.start();
+    stepper.join();
+    assertFalse(stepped.get().getElevatorReports()[0].isTakingRequests());
+    try {
+      building.step();
+      fail("Only the owner can step the building.");
+    } catch (IllegalStateException e) {
+      assertEquals("The building is owned by another thread.", e.getMessage());
+    }
+    try {
+      building.releaseOwnership();
+      fail("Only the owner can release the building.");
+    } catch (IllegalStateException e) {
+      assertEquals("The building is owned by another thread.", e.getMessage());
+    }
+  }
+
+  /**
+   * This test is used to test that a fleet stepped in parallel ends up in exactly the same state
+   * as the same fleet stepped one by one.
+   */
+  @Test
+  public void testParallelSteppingMatchesSerial() {
+    int elevators = 2 * ElevatorBank.PARALLEL_THRESHOLD + 3;
+    Building parallel = new Building(12, elevators, 5, new CollectiveDispatchStrategy());
+    Building serial = new Building(12, elevators, 5, new CollectiveDispatchStrategy());
+    parallel.setParallelStepping(true);
+    parallel.setSweepMode(SweepMode.LOOK);
+    serial.setSweepMode(SweepMode.LOOK);
+    assertTrue(parallel.startElevatorSystem());
+    assertTrue(serial.startElevatorSystem());
+    Random random = new Random(14);
+    for (int tick = 0; tick < 200; tick++) {
+      for (int i = random.nextInt(40); i > 0; i--) {
+        int start = random.nextInt(12);
+        Request request = new Request(start, (start + 1 + random.nextInt(11)) % 12);
+        parallel.addRequest(request);
+        serial.addRequest(request);
+      }
+      parallel.step();
+      serial.step();
+      if (tick % 50 == 49) {
+        assertSameElevators(serial, parallel);
+      }
+    }
+    parallel.stopElevatorSystem();
+    serial.stopElevatorSystem();
+    for (int tick = 0; tick < 40; tick++) {
+      parallel.step();
+      serial.step();
+    }
+    assertSameElevators(serial, parallel);
+    assertEquals(ElevatorSystemStatus.outOfService,
+        parallel.getElevatorSystemStatus().getSystemStatus());
+  }
+
+  /**
+   * This test is used to test that buildings made at the same time on many threads number their
+   * elevators the same way as a building made on its own, and tag them with their building id.
+   */
+  @Test
+  public void testElevatorIdsPerBuilding() throws InterruptedException {
+    int count = 16;
+    Building[] buildings = new Building[count];
+    Thread[] threads = new Thread[count];
+    for (int b = 0; b < count; b++) {
+      int buildingId = b;
+      threads[b] = new Thread(() -> buildings[buildingId] =
+          new Building(buildingId, 10, 1 + buildingId % 5, 5, new CollectiveDispatchStrategy()));
+      threads[b].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (int b = 0; b < count; b++) {
+      assertEquals(b, buildings[b].getBuildingId());
+      ElevatorReport[] reports = buildings[b].getElevatorSystemStatus().getElevatorReports();
+      assertEquals(1 + b % 5, reports.length);
+      for (int i = 0; i < reports.length; i++) {
+        assertEquals(b, reports[i].getBuildingId());
+        assertEquals(i, reports[i].getElevatorId());
+      }
+    }
+    // A building made without an id is building 0, and its elevators are numbered from 0 too.
+    ElevatorReport[] reports = new Building(10, 3, 5).getElevatorSystemStatus()
+        .getElevatorReports();
+    assertEquals(0, reports[2].getBuildingId());
+    assertEquals(2, reports[2].getElevatorId());
+  }
+
+  /**
+   * This test is used to test that the building id cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeBuildingId() {
+    new Building(-1, 10, 2, 5, new CollectiveDispatchStrategy());
+  }
+
+  /**
+   * This test is used to test that the building stamps requests with an id and their arrival
+   * tick, and counts the wait, ride and total time of each passenger, whether it steps one at a
+   * time or skips quiet steps.
+   */
+  @Test
+  public void testJourneyTimes() {
+    for (boolean skip : new boolean[] {false, true}) {
+      Building building = new Building(10, 1, 5);
+      building.startElevatorSystem();
+      building.addRequest(new Request(0, 5));
+      building.addRequest(new Request(0, 3));
+      Request first = building.getElevatorSystemStatus().getUpRequests().get(0);
+      Request second = building.getElevatorSystemStatus().getUpRequests().get(1);
+      assertEquals(0, first.getId());
+      assertEquals(1, second.getId());
+      assertEquals(0, first.getArrivalTick());
+      if (skip) {
+        building.stepMany(40);
+      } else {
+        for (int i = 0; i < 40; i++) {
+          building.step();
+        }
+      }
+      // The elevator takes the requests on the first step and opens its door on the second.
+      // The door closes on step 5 and the elevator moves a floor per step, so it opens at
+      // floor 3 on step 9 and, after another 3 steps with the door open, at floor 5 on step 15.
+      JourneyStats stats = building.getJourneyStats();
+      assertEquals(2, stats.getJourneys());
+      assertEquals(2, stats.getWaitTimes().getPercentile(100));
+      assertEquals(7, stats.getRideTimes().getPercentile(50));
+      assertEquals(13, stats.getRideTimes().getPercentile(100));
+      assertEquals(15, stats.getJourneyTimes().getMax());
+      assertEquals(12.0, stats.getJourneyTimes().getMean(), 1e-9);
+    }
+    // The stats handed out do not change with the building.
+    Building building = new Building(10, 1, 5);
+    JourneyStats before = building.getJourneyStats();
+    building.startElevatorSystem();
+    building.addRequest(new Request(2, 0));
+    building.stepMany(100);
+    assertEquals(0, before.getJourneys());
+    assertEquals(1, building.getJourneyStats().getJourneys());
+  }
+
+  /**
+   * This test is used to test that a listener that only hears about changes always knows the
+   * same state as a fresh report, whether the building steps one at a time or skips steps, and
+   * that it hears nothing while nothing changes or after it is removed.
+   */
+  @Test
+  public void testListenerMirrorsReports() {
+    Building building = new Building(3, 12, 4, 5, new CollectiveDispatchStrategy());
+    building.setSweepMode(SweepMode.LOOK);
+    int[] floors = new int[4];
+    Direction[] directions = new Direction[4];
+    boolean[] doorsOpen = new boolean[4];
+    AtomicReference<String> queues = new AtomicReference<>("[][]");
+    AtomicReference<ElevatorSystemStatus> status =
+        new AtomicReference<>(ElevatorSystemStatus.outOfService);
+    AtomicLong events = new AtomicLong();
+    BuildingReport start = building.getElevatorSystemStatus();
+    for (int i = 0; i < 4; i++) {
+      directions[i] = start.getElevatorReports()[i].getDirection();
+    }
+    BuildingListener listener = new BuildingListener() {
+      @Override
+      public void elevatorMoved(int buildingId, int elevatorId, int floor, Direction direction) {
+        assertEquals(3, buildingId);
+        floors[elevatorId] = floor;
+        directions[elevatorId] = direction;
+        events.incrementAndGet();
+      }
+
+      @Override
+      public void doorChanged(int buildingId, int elevatorId, int floor, boolean open) {
+        assertEquals(floors[elevatorId], floor);
+        assertTrue(doorsOpen[elevatorId] != open);
+        doorsOpen[elevatorId] = open;
+        events.incrementAndGet();
+      }
+
+      @Override
+      public void queueChanged(int buildingId, List<Request> up, List<Request> down) {
+        queues.set(up.toString() + down.toString());
+        events.incrementAndGet();
+      }
+
+      @Override
+      public void statusChanged(int buildingId, ElevatorSystemStatus newStatus) {
+        assertNotSame(status.get(), newStatus);
+        status.set(newStatus);
+        events.incrementAndGet();
+      }
+    };
+    building.addBuildingListener(listener);
+    building.startElevatorSystem();
+    Random random = new Random(21);
+    for (int tick = 0; tick < 3000; tick++) {
+      if (tick < 2000 && random.nextInt(4) == 0) {
+        int from = random.nextInt(12);
+        building.addRequest(new Request(from, (from + 1 + random.nextInt(11)) % 12));
+      }
+      if (tick % 3 == 0) {
+        building.stepMany(1 + random.nextInt(5));
+      } else {
+        building.step();
+      }
+      if (tick == 2900) {
+        building.stopElevatorSystem();
+      }
+      BuildingReport report = building.getElevatorSystemStatus();
+      assertEquals(report.getSystemStatus(), status.get());
+      assertEquals(report.getUpRequests().toString() + report.getDownRequests(), queues.get());
+      for (int i = 0; i < 4; i++) {
+        ElevatorReport elevator = report.getElevatorReports()[i];
+        assertEquals(elevator.getCurrentFloor(), floors[i]);
+        assertEquals(elevator.getDirection(), directions[i]);
+        assertEquals(!elevator.isDoorClosed(), doorsOpen[i]);
+      }
+    }
+    assertEquals(ElevatorSystemStatus.outOfService, status.get());
+    // Nothing changes in a building that is out of service.
+    long heard = events.get();
+    building.stepMany(10);
+    assertEquals(heard, events.get());
+    building.removeBuildingListener(listener);
+    building.startElevatorSystem();
+    building.step();
+    assertEquals(heard, events.get());
+  }
+
+  /**
+   * This test is used to test that a null listener cannot be added.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullListener() {
+    new Building(10, 2, 5).addBuildingListener(null);
+  }
+
+  /**
+   * Write the checkpoint of a building to a byte array.
+   */
+  private static byte[] checkpointOf(BuildingInterface building) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    building.writeCheckpoint(Channels.newChannel(out));
+    return out.toByteArray();
+  }
+
+  /**
+   * Read a building from a checkpoint in a byte array.
+   */
+  private static Building restoreFrom(byte[] checkpoint) throws IOException {
+    return Building.readCheckpoint(Channels.newChannel(new ByteArrayInputStream(checkpoint)),
+        new CollectiveDispatchStrategy());
+  }
+
+  /**
+   * Run a building with more random traffic than it can carry, in single steps and in runs of
+   * steps.
+   */
+  private static void runTraffic(BuildingInterface building, Random random, int rounds) {
+    for (int round = 0; round < rounds; round++) {
+      if (random.nextInt(4) != 0) {
+        for (int i = 0; i < 2; i++) {
+          int start = random.nextInt(20);
+          int end = random.nextInt(20);
+          if (start != end) {
+            building.addRequest(new Request(start, end));
+          }
+        }
+        building.step();
+      } else {
+        building.stepMany(3);
+      }
+    }
+  }
+
+  /**
+   * This test is used to test that a building restored from a checkpoint of a busy building, with
+   * full elevators, open doors and passengers who were left behind and queued again, steps
+   * exactly like the original.
+   */
+  @Test
+  public void testCheckpointForksIdenticalRun() throws IOException {
+    Building original = new Building(2, 20, 6, 4, new CollectiveDispatchStrategy());
+    original.setSweepMode(SweepMode.LOOK);
+    original.setDwellPolicy(DwellPolicy.WHEN_IDLE);
+    original.startElevatorSystem();
+    runTraffic(original, new Random(25), 500);
+    byte[] checkpoint = checkpointOf(original);
+    Building fork = restoreFrom(checkpoint);
+
+    assertEquals(2, fork.getBuildingId());
+    assertEquals(original.getElevatorSystemStatus().toString(),
+        fork.getElevatorSystemStatus().toString());
+    assertEquals(original.getJourneyStats().toString(), fork.getJourneyStats().toString());
+    assertTrue(original.getJourneyStats().getJourneys() > 0);
+    assertFalse(fork.getElevatorSystemStatus().getUpRequests().isEmpty());
+    assertArrayEquals(checkpoint, checkpointOf(fork));
+
+    runTraffic(original, new Random(26), 500);
+    runTraffic(fork, new Random(26), 500);
+    original.stopElevatorSystem();
+    fork.stopElevatorSystem();
+    original.stepMany(100);
+    fork.stepMany(100);
+    assertEquals(ElevatorSystemStatus.outOfService,
+        fork.getElevatorSystemStatus().getSystemStatus());
+    assertEquals(original.getElevatorSystemStatus().toString(),
+        fork.getElevatorSystemStatus().toString());
+    assertEquals(original.getJourneyStats().toString(), fork.getJourneyStats().toString());
+    assertArrayEquals(checkpointOf(original), checkpointOf(fork));
+  }
+
+  /**
+   * This test is used to test that data that is not a checkpoint is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotACheckpoint() throws IOException {
+    restoreFrom(new byte[64]);
+  }
+
+  /**
+   * This test is used to test that a checkpoint of another version is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCheckpointOfOtherVersion() throws IOException {
+    byte[] checkpoint = checkpointOf(new Building(10, 2, 5));
+    checkpoint[4]++;
+    restoreFrom(checkpoint);
+  }
+
+  /**
+   * This test is used to test that a checkpoint that was cut short is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCheckpointEndsEarly() throws IOException {
+    byte[] checkpoint = checkpointOf(new Building(10, 2, 5));
+    restoreFrom(Arrays.copyOf(checkpoint, checkpoint.length - 1));
+  }
+
+  /**
+   * This test is used to test that a checkpoint whose header claims a huge body is refused once
+   * the stream ends, without allocating the claimed size first.
+   */
+  @Test
+  public void testCheckpointClaimsHugeSize() throws IOException {
+    Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+        instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    byte[] checkpoint = withBodySize(checkpointOf(new Building(10, 2, 5)), Integer.MAX_VALUE);
+    long thread = Thread.currentThread().getId();
+    long start = threads.getThreadAllocatedBytes(thread);
+    try {
+      restoreFrom(checkpoint);
+      fail("A checkpoint that claims more than it holds should be refused.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The checkpoint ends early.", e.getMessage());
+    }
+    assertTrue(threads.getThreadAllocatedBytes(thread) - start < 1024 * 1024);
+  }
+
+  /**
+   * This test is used to test that a checkpoint in a file whose header claims more than the file
+   * holds is refused before the body is read.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCheckpointFileClaimsHugeSize() throws IOException {
+    Path file = this.folder.newFile("building.ckpt").toPath();
+    Files.write(file, withBodySize(checkpointOf(new Building(10, 2, 5)), Integer.MAX_VALUE));
+    try (FileChannel channel = FileChannel.open(file)) {
+      Building.readCheckpoint(channel, new CollectiveDispatchStrategy());
+    }
+  }
+
+  /**
+   * Change the size of the body in the header of a checkpoint.
+   */
+  private static byte[] withBodySize(byte[] checkpoint, int bodyBytes) {
+    ByteBuffer.wrap(checkpoint).order(ByteOrder.LITTLE_ENDIAN).putInt(8, bodyBytes);
+    return checkpoint;
+  }
+}
@@ -0,0 +1,110 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This class is used to test the RequestIntake class, with one thread and with many threads adding
+ * requests while one thread takes them out.
+ */
+public class RequestIntakeTest {
+
+  /**
+   * This test is used to test that requests come out in the order they were added.
+   */
+  @Test
+  public void testPollInOrder() {
+    RequestIntake intake = new RequestIntake();
+    assertTrue(intake.isEmpty());
+    assertNull(intake.poll());
+    Request first = new Request(0, 3);
+    Request second = new Request(4, 1);
+    intake.add(first);
+    intake.add(second);
+    assertEquals(first, intake.poll());
+    assertEquals(second, intake.poll());
+    assertNull(intake.poll());
+    assertTrue(intake.isEmpty());
+  }
+
+  /**
+   * This test is used to test clearing the intake.
+   */
+  @Test
+  public void testClear() {
+    RequestIntake intake = new RequestIntake();
+    for (int i = 0; i < 5; i++) {
+      intake.add(new Request(0, 1));
+    }
+    assertEquals(5, intake.clear());
+    assertTrue(intake.isEmpty());
+    intake.add(new Request(1, 0));
+    assertEquals("1->0", intake.poll().toString());
+  }
+
+  /**
+   * This test is used to test that a null request cannot be added.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddNull() {
+    new RequestIntake().add(null);
+  }
+
+  /**
+   * This test is used to test that with many threads adding at once, every request comes out
+   * exactly once, and the requests of each thread come out in the order that thread added them.
+   */
+  @Test
+  public void testManyProducers() throws InterruptedException {
+    RequestIntake intake = new RequestIntake();
+    int producers = 16;
+    int perProducer = 20_000;
+    CountDownLatch ready = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      // The start floor tells which thread added the request, the end floor is a sequence number
+      // within the thread, kept under the 30 floors a request can go to.
+      int producer = p;
+      Thread thread = new Thread(() -> {
+        try {
+          ready.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perProducer; i++) {
+          intake.add(new Request(producer + 100, i));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    ready.countDown();
+    int[] next = new int[producers];
+    int received = 0;
+    while (received < producers * perProducer) {
+      Request request = intake.poll();
+      if (request == null) {
+        Thread.onSpinWait();
+        continue;
+      }
+      int producer = request.getStartFloor() - 100;
+      assertEquals(next[producer], request.getEndFloor());
+      next[producer]++;
+      received++;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(intake.poll());
+    for (int count : next) {
+      assertEquals(perProducer, count);
+    }
+  }
+}
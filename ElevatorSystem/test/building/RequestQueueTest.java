@@ -0,0 +1,147 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This class is used to test the RequestQueue class. It contains tests for adding, draining and
+ * clearing requests, and for the list view used by the building report.
+ */
+public class RequestQueueTest {
+
+  private RequestQueue queue;
+
+  /**
+   * Set up an empty queue for every test.
+   */
+  @Before
+  public void setUp() {
+    this.queue = new RequestQueue();
+  }
+
+  /**
+   * This test is used to test that requests are drained in the order they were added, at most
+   * the given number at a time.
+   */
+  @Test
+  public void testDrainInOrder() {
+    List<Request> expected = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Request request = new Request(0, i + 1);
+      expected.add(request);
+      this.queue.add(request);
+    }
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, this.queue.drainTo(drained, 3));
+    assertEquals(expected.subList(0, 3), drained);
+    assertEquals(2, this.queue.size());
+    drained.clear();
+    // Draining more than what is left only drains what is left.
+    assertEquals(2, this.queue.drainTo(drained, 3));
+    assertEquals(expected.subList(3, 5), drained);
+    assertTrue(this.queue.isEmpty());
+    assertEquals(0, this.queue.drainTo(drained, 3));
+  }
+
+  /**
+   * This test is used to test that the order is kept when the ring buffer wraps around and grows.
+   */
+  @Test
+  public void testWrapAroundAndGrow() {
+    List<Request> expected = new ArrayList<>();
+    List<Request> drained = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      Request request = new Request(i, i + 1);
+      expected.add(request);
+      this.queue.add(request);
+      // Drain one request every third add so that the head keeps moving.
+      if (i % 3 == 0) {
+        this.queue.drainTo(drained, 1);
+      }
+    }
+    this.queue.drainTo(drained, Integer.MAX_VALUE);
+    assertEquals(expected, drained);
+  }
+
+  /**
+   * This test is used to test the list view of the queue, which follows changes to the queue.
+   */
+  @Test
+  public void testListView() {
+    List<Request> view = this.queue.asList();
+    assertEquals(new ArrayList<Request>(), view);
+    Request first = new Request(0, 2);
+    Request second = new Request(2, 1);
+    this.queue.add(first);
+    this.queue.add(second);
+    assertEquals(List.of(first, second), view);
+    assertEquals("[0->2, 2->1]", view.toString());
+    this.queue.drainTo(new ArrayList<>(), 1);
+    assertEquals(List.of(second), view);
+  }
+
+  /**
+   * This test is used to test the list view cannot be used to change the queue.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testListViewIsReadOnly() {
+    this.queue.asList().add(new Request(0, 1));
+  }
+
+  /**
+   * This test is used to test clearing the queue.
+   */
+  @Test
+  public void testClear() {
+    for (int i = 0; i < 20; i++) {
+      this.queue.add(new Request(0, 1));
+    }
+    this.queue.clear();
+    assertTrue(this.queue.isEmpty());
+    assertEquals(0, this.queue.asList().size());
+    this.queue.add(new Request(1, 0));
+    assertFalse(this.queue.isEmpty());
+    assertEquals("[1->0]", this.queue.asList().toString());
+  }
+
+  /**
+   * This test is used to test draining only the requests that match a filter, keeping the order
+   * of both the drained requests and the ones that are left.
+   */
+  @Test
+  public void testDrainMatching() {
+    List<Request> all = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      Request request = new Request(i % 5, 5);
+      all.add(request);
+      this.queue.add(request);
+      // Keep the head moving so that the buffer wraps around.
+      if (i % 4 == 0) {
+        this.queue.drainTo(new ArrayList<>(), 1);
+        all.remove(0);
+      }
+    }
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, this.queue.drainMatching(drained, 3, request -> request.getStartFloor() == 3));
+    List<Request> expectedDrained = new ArrayList<>();
+    List<Request> expectedLeft = new ArrayList<>();
+    for (Request request : all) {
+      if (request.getStartFloor() == 3 && expectedDrained.size() < 3) {
+        expectedDrained.add(request);
+      } else {
+        expectedLeft.add(request);
+      }
+    }
+    assertEquals(expectedDrained, drained);
+    assertEquals(expectedLeft, this.queue.asList());
+    assertEquals(0, this.queue.drainMatching(drained, 3, request -> request.getStartFloor() > 4));
+    assertEquals(expectedLeft, this.queue.asList());
+  }
+}
@@ -0,0 +1,269 @@
+package elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the ElevatorBank class.
+ */
+public class ElevatorBankTest {
+
+  /**
+   * This test is used to test that the views of a bank are made once and are numbered in order.
+   */
+  @Test
+  public void bankViews() {
+    System.out.println("Testing: bankViews");
+    ElevatorBank bank = new ElevatorBank(7, 3, 10, 5);
+    assertEquals(3, bank.size());
+    assertEquals(7, bank.getBuildingId());
+    assertSame(bank.getElevator(1), bank.getElevator(1));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i, bank.getElevator(i).getElevatorId());
+      assertEquals(7, bank.getElevator(i).getBuildingId());
+      assertEquals(i, bank.getElevator(i).getElevatorStatus().getElevatorId());
+      assertEquals(7, bank.getElevator(i).getElevatorStatus().getBuildingId());
+    }
+    assertEquals(10, bank.getElevator(2).getMaxFloor());
+    assertEquals(5, bank.getElevator(2).getMaxOccupancy());
+  }
+
+  /**
+   * This test is used to test that a bank cannot be empty.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void bankNeedsElevators() {
+    System.out.println("Testing: bankNeedsElevators");
+    new ElevatorBank(0, 10, 5);
+  }
+
+  /**
+   * This test is used to test that the building id of a bank cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void bankChecksBuildingId() {
+    System.out.println("Testing: bankChecksBuildingId");
+    new ElevatorBank(-1, 2, 10, 5);
+  }
+
+  /**
+   * This test is used to test that reports of elevators with the same id in different buildings
+   * are not equal.
+   */
+  @Test
+  public void bankReportsIdentifyBuilding() {
+    System.out.println("Testing: bankReportsIdentifyBuilding");
+    ElevatorReport first = new ElevatorBank(1, 2, 10, 5).getElevator(1).getElevatorStatus();
+    ElevatorReport second = new ElevatorBank(2, 2, 10, 5).getElevator(1).getElevatorStatus();
+    ElevatorReport same = new ElevatorBank(1, 2, 10, 5).getElevator(1).getElevatorStatus();
+    assertEquals(first.getElevatorId(), second.getElevatorId());
+    assertNotEquals(first, second);
+    assertEquals(first, same);
+    assertEquals(first.hashCode(), same.hashCode());
+  }
+
+  /**
+   * This test is used to test that the floors of a bank are checked like those of an elevator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void bankChecksFloors() {
+    System.out.println("Testing: bankChecksFloors");
+    new ElevatorBank(2, 31, 5);
+  }
+
+  /**
+   * This test is used to test that stepping a bank gives the same elevators as stepping separate
+   * elevators, for random loads in all sweep modes and dwell policies.
+   */
+  @Test
+  public void bankStepsLikeSeparateElevators() {
+    System.out.println("Testing: bankStepsLikeSeparateElevators");
+    Random random = new Random(3);
+    int floors = 12;
+    SweepMode[] sweepModes = SweepMode.values();
+    DwellPolicy[] dwellPolicies = DwellPolicy.values();
+    int size = sweepModes.length * dwellPolicies.length * 2;
+    ElevatorBank bank = new ElevatorBank(size, floors, 6);
+    Elevator[] separate = new Elevator[size];
+    for (int i = 0; i < size; i++) {
+      separate[i] = new Elevator(floors, 6);
+      for (ElevatorInterface elevator : new ElevatorInterface[] {bank.getElevator(i), separate[i]}) {
+        elevator.setSweepMode(sweepModes[i % sweepModes.length]);
+        elevator.setDwellPolicy(dwellPolicies[i / sweepModes.length % dwellPolicies.length]);
+        elevator.start();
+      }
+    }
+    for (int tick = 0; tick < 2000; tick++) {
+      for (int i = 0; i < size; i++) {
+        Elevator inBank = bank.getElevator(i);
+        if (inBank.isTakingRequests() && random.nextInt(3) == 0) {
+          List<Request> requests = randomRun(random, floors, inBank.getCurrentFloor());
+          inBank.processRequests(requests);
+          separate[i].processRequests(requests);
+        }
+      }
+      if (tick == 1500) {
+        bank.getElevator(1).takeOutOfService();
+        separate[1].takeOutOfService();
+      }
+      bank.step();
+      for (int i = 0; i < size; i++) {
+        separate[i].step();
+        assertSameState(separate[i], bank.getElevator(i));
+      }
+    }
+  }
+
+  /**
+   * This test is used to test that a bank split across a pool steps exactly like the same bank
+   * stepped in one loop, and records the same journeys and passengers left behind. The split is
+   * forced with a threshold of 0, so the parallel step is tested on machines with a single core
+   * too.
+   */
+  @Test
+  public void bankStepsInParallelLikeSerial() {
+    System.out.println("Testing: bankStepsInParallelLikeSerial");
+    Random random = new Random(5);
+    int floors = 12;
+    int size = 3000;
+    ElevatorBank parallel = new ElevatorBank(size, floors, 3);
+    ElevatorBank serial = new ElevatorBank(size, floors, 3);
+    for (int i = 0; i < size; i++) {
+      parallel.getElevator(i).start();
+      serial.getElevator(i).start();
+    }
+    for (int tick = 0; tick < 300; tick++) {
+      for (int i = 0; i < size; i++) {
+        if (serial.getElevator(i).isTakingRequests() && random.nextInt(8) == 0) {
+          List<Request> requests = randomRun(random, floors, serial.getElevator(i)
+              .getCurrentFloor());
+          parallel.getElevator(i).processRequests(requests);
+          serial.getElevator(i).processRequests(requests);
+        }
+      }
+      parallel.step(ForkJoinPool.commonPool(), 0);
+      serial.step();
+      // The passengers left behind come out in the order of the elevators either way.
+      List<Request> serialLeftBehind = new ArrayList<>();
+      List<Request> parallelLeftBehind = new ArrayList<>();
+      serial.drainLeftBehind(serialLeftBehind::add);
+      parallel.drainLeftBehind(parallelLeftBehind::add);
+      assertEquals(serialLeftBehind, parallelLeftBehind);
+    }
+    for (int i = 0; i < size; i++) {
+      assertSameState(serial.getElevator(i), parallel.getElevator(i));
+    }
+    assertEquals(serial.getJourneyStats().toString(), parallel.getJourneyStats().toString());
+    assertNotEquals(0, parallel.getJourneyStats().getJourneys());
+  }
+
+  /**
+   * Make a run of requests from the bottom going up or from the top going down.
+   */
+  /**
+   * This test is used to test that passengers board when the door opens at their start floor and
+   * get off when it opens at their end floor, and that the room they leave can be given out again.
+   */
+  @Test
+  public void bankTracksOccupancy() {
+    System.out.println("Testing: bankTracksOccupancy");
+    ElevatorBank bank = new ElevatorBank(1, 10, 3);
+    Elevator elevator = bank.getElevator(0);
+    elevator.start();
+    elevator.processRequests(List.of(new Request(0, 4), new Request(0, 6), new Request(2, 5)));
+    assertEquals(0, elevator.getOccupancy());
+    // Only the passengers on board take a seat.
+    assertEquals(3, elevator.getSpareCapacity());
+    // The occupancy after the door opens at each floor on the way up.
+    int[] expected = {2, -1, 3, -1, 2, 1, 0};
+    boolean wasClosed = true;
+    for (int i = 0; i < 40 && elevator.getCurrentFloor() < 7; i++) {
+      elevator.step();
+      if (wasClosed && !elevator.isDoorClosed()) {
+        assertEquals(expected[elevator.getCurrentFloor()], elevator.getOccupancy());
+        ElevatorReport report = elevator.getElevatorStatus();
+        assertEquals(elevator.getOccupancy(), report.getOccupancy());
+        assertEquals(elevator.getOccupancy() / 3.0, report.getLoadFactor(), 1e-9);
+        if (elevator.getCurrentFloor() == 4) {
+          // The passenger going to floor 4 made room for one more.
+          assertEquals(1, elevator.getSpareCapacity());
+        }
+      }
+      wasClosed = elevator.isDoorClosed();
+    }
+    assertEquals(0, elevator.getOccupancy());
+    assertEquals(3, elevator.getSpareCapacity());
+    assertEquals(3, bank.getJourneyStats().getJourneys());
+  }
+
+  /**
+   * This test is used to test that an elevator that is full leaves the other passengers behind,
+   * for the building to hand out again.
+   */
+  @Test
+  public void bankLeavesPassengersBehindWhenFull() {
+    System.out.println("Testing: bankLeavesPassengersBehindWhenFull");
+    ElevatorBank bank = new ElevatorBank(1, 10, 3);
+    Elevator elevator = bank.getElevator(0);
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    for (int end = 1; end <= 5; end++) {
+      requests.add(new Request(0, end));
+    }
+    elevator.processRequests(requests);
+    List<Request> leftBehind = new ArrayList<>();
+    assertEquals(0, bank.drainLeftBehind(leftBehind::add));
+    bank.step();
+    bank.step();
+    assertEquals(3, elevator.getOccupancy());
+    assertEquals(1.0, elevator.getElevatorStatus().getLoadFactor(), 1e-9);
+    assertEquals(2, bank.drainLeftBehind(leftBehind::add));
+    assertEquals(2, leftBehind.size());
+    assertEquals(0, bank.drainLeftBehind(leftBehind::add));
+    for (int i = 0; i < 40; i++) {
+      bank.step();
+    }
+    assertEquals(0, elevator.getOccupancy());
+    assertEquals(3, bank.getJourneyStats().getJourneys());
+  }
+
+  private static List<Request> randomRun(Random random, int floors, int currentFloor) {
+    List<Request> requests = new ArrayList<>();
+    int count = 1 + random.nextInt(4);
+    for (int i = 0; i < count; i++) {
+      int start = random.nextInt(floors - 1);
+      int end = start + 1 + random.nextInt(floors - 1 - start);
+      if (currentFloor == 0) {
+        requests.add(new Request(start, end));
+      } else {
+        requests.add(new Request(end, start));
+      }
+    }
+    return requests;
+  }
+
+  /**
+   * Check that two elevators are in the same state, apart from their ids.
+   */
+  private static void assertSameState(Elevator expected, Elevator actual) {
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.getDirection(), actual.getDirection());
+    assertEquals(expected.isTakingRequests(), actual.isTakingRequests());
+    assertEquals(expected.getSpareCapacity(), actual.getSpareCapacity());
+    assertEquals(expected.getDwellTicksSaved(), actual.getDwellTicksSaved());
+    assertEquals(expected.getElevatorStatus().getEndWaitTimer(),
+        actual.getElevatorStatus().getEndWaitTimer());
+    assertEquals(expected.getElevatorStatus().getDoorOpenTimer(),
+        actual.getElevatorStatus().getDoorOpenTimer());
+  }
+}
@@ -4,6 +4,8 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 import building.enums.Direction;
+import java.util.List;
+import scanerzus.Request;
 
 /**
  * This class is used to test the ElevatorReport class.
@@ -258,4 +260,18 @@ public class ElevatorReportTest {
   public void testSameObjectEqual() {
     assertEquals(report, report);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testLoadFactor() {
+    assertEquals(0, report.getOccupancy());
+    assertEquals(0.0, report.getLoadFactor(), 1e-9);
+    Elevator elevator = new Elevator(10, 4);
+    elevator.start();
+    elevator.processRequests(List.of(new Request(0, 5)));
+    elevator.step();
+    ElevatorReport loaded = elevator.getElevatorStatus();
+    assertEquals(1, loaded.getOccupancy());
+    assertEquals(4, loaded.getMaxOccupancy());
+    assertEquals(0.25, loaded.getLoadFactor(), 1e-9);
+  }
+}
@@ -3,8 +3,11 @@ package elevator;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import building.enums.Direction;
+import building.enums.DwellPolicy;
+import building.enums.SweepMode;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -168,8 +171,10 @@ public class ElevatorTest {
   public void elevatorId() {
     System.out.println("Testing: elevatorId");
 
+    // Elevators made on their own are not part of a building, so they all have id 0.
     assertEquals(0, elevatorTestStatic.getElevatorId());
-    assertEquals(1, elevatorTestStatic2.getElevatorId());
+    assertEquals(0, elevatorTestStatic2.getElevatorId());
+    assertEquals(0, elevatorTestStatic2.getBuildingId());
 
 
   }
@@ -1050,4 +1055,350 @@ public class ElevatorTest {
 
   }
 
-}
\ No newline at end of file
+  /**
+   * Test that an elevator on its run picks up hall calls ahead of it
+   * and keeps the stops it already had.
+   */
+  @Test
+  public void elevatorProcessesHallCallsMidRun() {
+    System.out.println("Testing: elevatorProcessesHallCallsMidRun");
+    elevatorTenFloors10Capacity.start();
+    List<Request> fromBottom = new ArrayList<>();
+    fromBottom.add(new Request(0, 8));
+    elevatorTenFloors10Capacity.processRequests(fromBottom);
+    assertEquals(10, elevatorTenFloors10Capacity.getSpareCapacity());
+
+    // open and close the door at the bottom, then go up to floor 5
+    for (int i = 0; i < 9; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(5, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isTakingRequests());
+
+    List<Request> hallCalls = new ArrayList<>();
+    hallCalls.add(new Request(6, 7));
+    hallCalls.add(new Request(7, 9));
+    elevatorTenFloors10Capacity.processHallCalls(hallCalls);
+    assertEquals(9, elevatorTenFloors10Capacity.getSpareCapacity());
+    boolean[] floorRequests = elevatorTenFloors10Capacity.getFloorRequests();
+    assertTrue(floorRequests[6]);
+    assertTrue(floorRequests[7]);
+    assertTrue(floorRequests[8]);
+    assertTrue(floorRequests[9]);
+
+    // the elevator stops at floor 6 to pick up the hall call
+    elevatorTenFloors10Capacity.step();
+    elevatorTenFloors10Capacity.step();
+    assertEquals(6, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+  }
+
+  /**
+   * Test that hall calls behind the elevator or going the other way are refused.
+   */
+  @Test
+  public void elevatorRefusesHallCallsNotOnTheWay() {
+    System.out.println("Testing: elevatorRefusesHallCallsNotOnTheWay");
+    elevatorTenFloors10Capacity.start();
+    for (int i = 0; i < 10; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(5, elevatorTenFloors10Capacity.getCurrentFloor());
+
+    List<Request> behind = new ArrayList<>();
+    behind.add(new Request(3, 4));
+    List<Request> otherWay = new ArrayList<>();
+    otherWay.add(new Request(7, 6));
+    List<Request> atCurrentFloor = new ArrayList<>();
+    atCurrentFloor.add(new Request(5, 6));
+    for (List<Request> requests : List.of(behind, otherWay, atCurrentFloor)) {
+      try {
+        elevatorTenFloors10Capacity.processHallCalls(requests);
+        fail("Expected an IllegalArgumentException for " + requests);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    for (boolean floorRequest : elevatorTenFloors10Capacity.getFloorRequests()) {
+      assertFalse(floorRequest);
+    }
+  }
+
+  /**
+   * Test that hall calls are refused while the elevator waits at the bottom.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorRefusesHallCallsWhileWaiting() {
+    System.out.println("Testing: elevatorRefusesHallCallsWhileWaiting");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processHallCalls(upThreeRequests);
+  }
+
+  /**
+   * Test that hall calls are refused when the elevator does not have room.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorRefusesHallCallsWhenFull() {
+    System.out.println("Testing: elevatorRefusesHallCallsWhenFull");
+    elevatorThreeFloors3Capacity.start();
+    List<Request> fromBottom = new ArrayList<>();
+    fromBottom.add(new Request(0, 2));
+    fromBottom.add(new Request(0, 2));
+    fromBottom.add(new Request(0, 1));
+    elevatorThreeFloors3Capacity.processRequests(fromBottom);
+    assertEquals(3, elevatorThreeFloors3Capacity.getSpareCapacity());
+    for (int i = 0; i < 4; i++) {
+      elevatorThreeFloors3Capacity.step();
+    }
+    assertEquals(0, elevatorThreeFloors3Capacity.getSpareCapacity());
+    List<Request> hallCalls = new ArrayList<>();
+    hallCalls.add(new Request(1, 2));
+    elevatorThreeFloors3Capacity.processHallCalls(hallCalls);
+  }
+
+  /**
+   * Test that a LOOK elevator turns around after its last stop
+   * instead of going to the top, and then parks at the bottom.
+   */
+  @Test
+  public void elevatorLookTurnsAroundAfterLastStop() {
+    System.out.println("Testing: elevatorLookTurnsAroundAfterLastStop");
+    elevatorTenFloors10Capacity.setSweepMode(SweepMode.LOOK);
+    assertEquals(SweepMode.LOOK, elevatorTenFloors10Capacity.getSweepMode());
+    elevatorTenFloors10Capacity.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 2));
+    elevatorTenFloors10Capacity.processRequests(requests);
+
+    // door at the bottom (4 steps), up two floors, door at floor 2 (4 steps)
+    for (int i = 0; i < 10; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertTrue(elevatorTenFloors10Capacity.isDoorClosed());
+    assertEquals(Direction.UP, elevatorTenFloors10Capacity.getDirection());
+
+    // no more stops above, so it turns around
+    elevatorTenFloors10Capacity.step();
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(Direction.DOWN, elevatorTenFloors10Capacity.getDirection());
+
+    // down two floors and wait at the bottom
+    for (int i = 0; i < 3; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(0, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertTrue(elevatorTenFloors10Capacity.isTakingRequests());
+
+    // with nothing to do it stays parked at the bottom
+    for (int i = 0; i < 20; i++) {
+      elevatorTenFloors10Capacity.step();
+      assertEquals(0, elevatorTenFloors10Capacity.getCurrentFloor());
+      assertTrue(elevatorTenFloors10Capacity.isTakingRequests());
+    }
+  }
+
+  /**
+   * Test that a LOOK elevator going back down to park turns around when it is
+   * summoned to a floor above it, instead of going to the bottom first.
+   */
+  @Test
+  public void elevatorLookTurnsAroundGoingDown() {
+    System.out.println("Testing: elevatorLookTurnsAroundGoingDown");
+    elevatorTenFloors10Capacity.setSweepMode(SweepMode.LOOK);
+    elevatorTenFloors10Capacity.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 4));
+    elevatorTenFloors10Capacity.processRequests(requests);
+
+    // door at the bottom, up four floors, door at floor 4, then it turns around
+    for (int i = 0; i < 13; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(4, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(Direction.DOWN, elevatorTenFloors10Capacity.getDirection());
+    elevatorTenFloors10Capacity.step();
+    assertEquals(3, elevatorTenFloors10Capacity.getCurrentFloor());
+
+    // no stops below, so it turns around for the summon
+    elevatorTenFloors10Capacity.summon(9);
+    assertEquals(0, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.step();
+    assertEquals(3, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(Direction.UP, elevatorTenFloors10Capacity.getDirection());
+    for (int i = 0; i < 6; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+  }
+
+  /**
+   * Test that a waiting elevator leaves right away when summoned,
+   * and that an elevator on its run can only be summoned ahead of it.
+   */
+  @Test
+  public void elevatorSummon() {
+    System.out.println("Testing: elevatorSummon");
+    elevatorTenFloors10Capacity.setSweepMode(SweepMode.LOOK);
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.summon(9);
+    assertFalse(elevatorTenFloors10Capacity.isTakingRequests());
+    assertEquals(Direction.UP, elevatorTenFloors10Capacity.getDirection());
+    assertTrue(elevatorTenFloors10Capacity.hasFloorRequest(9));
+
+    for (int i = 0; i < 9; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+
+    try {
+      elevatorTenFloors10Capacity.summon(3);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Test that an elevator out of service cannot be summoned.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorSummonOutOfService() {
+    System.out.println("Testing: elevatorSummonOutOfService");
+    elevatorTenFloors10Capacity.summon(5);
+  }
+
+  /**
+   * Test that with the WHEN_IDLE dwell policy an elevator takes requests
+   * as soon as its door opens at the top, and leaves without opening it again.
+   */
+  @Test
+  public void elevatorWhenIdleTakesRequestsWithDoorOpen() {
+    System.out.println("Testing: elevatorWhenIdleTakesRequestsWithDoorOpen");
+    elevatorTenFloors10Capacity.setDwellPolicy(DwellPolicy.WHEN_IDLE);
+    assertEquals(DwellPolicy.WHEN_IDLE, elevatorTenFloors10Capacity.getDwellPolicy());
+    elevatorTenFloors10Capacity.start();
+    List<Request> up = new ArrayList<>();
+    up.add(new Request(0, 9));
+    elevatorTenFloors10Capacity.processRequests(up);
+
+    // door at the bottom (4 steps), up nine floors, open the door at the top
+    for (int i = 0; i < 14; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+    assertTrue(elevatorTenFloors10Capacity.isTakingRequests());
+
+    List<Request> down = new ArrayList<>();
+    down.add(new Request(9, 0));
+    elevatorTenFloors10Capacity.processRequests(down);
+    assertFalse(elevatorTenFloors10Capacity.isTakingRequests());
+    assertFalse(elevatorTenFloors10Capacity.hasFloorRequest(9));
+    assertTrue(elevatorTenFloors10Capacity.hasFloorRequest(0));
+    assertEquals(Direction.DOWN, elevatorTenFloors10Capacity.getDirection());
+    assertEquals(5, elevatorTenFloors10Capacity.getDwellTicksSaved());
+    assertEquals(5, elevatorTenFloors10Capacity.getElevatorStatus().getDwellTicksSaved());
+
+    // the door closes and the elevator leaves
+    for (int i = 0; i < 4; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(8, elevatorTenFloors10Capacity.getCurrentFloor());
+  }
+
+  /**
+   * Test that with the WHEN_IDLE dwell policy an elevator still dwells
+   * at the end of its run when there is nobody waiting.
+   */
+  @Test
+  public void elevatorWhenIdleDwellsWhenIdle() {
+    System.out.println("Testing: elevatorWhenIdleDwellsWhenIdle");
+    elevatorTenFloors10Capacity.setDwellPolicy(DwellPolicy.WHEN_IDLE);
+    elevatorTenFloors10Capacity.start();
+    List<Request> up = new ArrayList<>();
+    up.add(new Request(0, 9));
+    elevatorTenFloors10Capacity.processRequests(up);
+    // door at the bottom, up nine floors, door at the top, then stop to wait
+    for (int i = 0; i < 18; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertTrue(elevatorTenFloors10Capacity.isDoorClosed());
+    assertEquals(Direction.STOPPED, elevatorTenFloors10Capacity.getDirection());
+    assertEquals(5, elevatorTenFloors10Capacity.getElevatorStatus().getEndWaitTimer());
+    assertTrue(elevatorTenFloors10Capacity.isTakingRequests());
+    assertEquals(0, elevatorTenFloors10Capacity.getDwellTicksSaved());
+  }
+
+  /**
+   * Test counting the steps before the next event and skipping over them.
+   */
+  @Test
+  public void elevatorSkipsToNextEvent() {
+    System.out.println("Testing: elevatorSkipsToNextEvent");
+    elevatorTenFloors10Capacity.start();
+    // waiting at the bottom
+    assertEquals(4, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    List<Request> up = new ArrayList<>();
+    up.add(new Request(0, 6));
+    elevatorTenFloors10Capacity.processRequests(up);
+    // the door opens on the next step
+    assertEquals(0, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.step();
+    int doorOpen = elevatorTenFloors10Capacity.ticksUntilNextEvent();
+    assertEquals(elevatorTenFloors10Capacity.getElevatorStatus().getDoorOpenTimer() - 1, doorOpen);
+    elevatorTenFloors10Capacity.skipTicks(doorOpen);
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+    elevatorTenFloors10Capacity.step();
+    assertTrue(elevatorTenFloors10Capacity.isDoorClosed());
+    // up to the stop on floor 6
+    assertEquals(6, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.skipTicks(6);
+    assertEquals(6, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(0, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.step();
+    elevatorTenFloors10Capacity.skipTicks(elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.step();
+    // on to the top floor, then stop to wait there
+    assertEquals(3, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.skipTicks(3);
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(0, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+  }
+
+  /**
+   * Test that a parked LOOK elevator and a stopped elevator have no next event.
+   */
+  @Test
+  public void elevatorParkedHasNoNextEvent() {
+    System.out.println("Testing: elevatorParkedHasNoNextEvent");
+    elevatorTenFloors10Capacity.setSweepMode(SweepMode.LOOK);
+    elevatorTenFloors10Capacity.start();
+    assertEquals(Integer.MAX_VALUE, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+    elevatorTenFloors10Capacity.skipTicks(1_000_003);
+    Elevator stepped = new Elevator(10, 10);
+    stepped.setSweepMode(SweepMode.LOOK);
+    stepped.start();
+    for (int i = 0; i < 1_000_003; i++) {
+      stepped.step();
+    }
+    assertEquals(stepped.getElevatorStatus().getEndWaitTimer(),
+        elevatorTenFloors10Capacity.getElevatorStatus().getEndWaitTimer());
+    assertTrue(elevatorTenFloors10Capacity.isTakingRequests());
+
+    elevatorTenFloors10Capacity.takeOutOfService();
+    elevatorTenFloors10Capacity.step();
+    assertEquals(Integer.MAX_VALUE, elevatorTenFloors10Capacity.ticksUntilNextEvent());
+  }
+
+  /**
+   * Test that an elevator cannot skip past its next event.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorCannotSkipPastNextEvent() {
+    System.out.println("Testing: elevatorCannotSkipPastNextEvent");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.skipTicks(5);
+  }
+}
@@ -0,0 +1,70 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This class is used to test the FloorRequestSet class, for buildings up to the most floors a
+ * word holds.
+ */
+public class FloorRequestSetTest {
+
+  /**
+   * This test is used to test making a set from an array and back.
+   */
+  @Test
+  public void testOfAndToArray() {
+    boolean[] floors = {true, false, false, false, false, false, false, false, false, true};
+    long set = FloorRequestSet.of(floors);
+    assertTrue(FloorRequestSet.contains(set, 0));
+    assertTrue(FloorRequestSet.contains(set, 9));
+    assertFalse(FloorRequestSet.contains(set, 5));
+    assertArrayEquals(floors, FloorRequestSet.toArray(set, floors.length));
+    assertEquals(-1, FloorRequestSet.nextAbove(0L, 0));
+    assertEquals(-1, FloorRequestSet.previousBelow(0L, 9));
+  }
+
+  /**
+   * This test is used to test finding the closest request above and below every floor, against
+   * a plain loop over the floors, up to a full word.
+   */
+  @Test
+  public void testNextAboveAndPreviousBelow() {
+    Random random = new Random(7);
+    for (int numFloors : new int[] {3, 30, 63, 64}) {
+      for (int round = 0; round < 50; round++) {
+        boolean[] floors = new boolean[numFloors];
+        for (int i = 0; i < numFloors; i++) {
+          floors[i] = random.nextInt(8) == 0;
+        }
+        long set = FloorRequestSet.of(floors);
+        assertArrayEquals(floors, FloorRequestSet.toArray(set, numFloors));
+        for (int floor = 0; floor < numFloors; floor++) {
+          int above = -1;
+          for (int i = floor + 1; i < numFloors && above < 0; i++) {
+            above = floors[i] ? i : -1;
+          }
+          int below = -1;
+          for (int i = floor - 1; i >= 0 && below < 0; i--) {
+            below = floors[i] ? i : -1;
+          }
+          assertEquals(above, FloorRequestSet.nextAbove(set, floor));
+          assertEquals(below, FloorRequestSet.previousBelow(set, floor));
+        }
+      }
+    }
+  }
+
+  /**
+   * This test is used to test that a building with more floors than a word holds is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyFloors() {
+    FloorRequestSet.of(new boolean[FloorRequestSet.MAX_FLOORS + 1]);
+  }
+}
@@ -0,0 +1,82 @@
+package elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This class is used to test the LatencyHistogram class, for short times that are counted exactly
+ * and long times that share buckets.
+ */
+public class LatencyHistogramTest {
+
+  /**
+   * This test is used to test that the percentiles of short times are exact.
+   */
+  @Test
+  public void testShortTimes() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(50));
+    for (int ticks = 1; ticks <= 20; ticks++) {
+      histogram.record(ticks);
+    }
+    assertEquals(20, histogram.getCount());
+    assertEquals(10, histogram.getPercentile(50));
+    assertEquals(19, histogram.getPercentile(95));
+    assertEquals(20, histogram.getPercentile(99));
+    assertEquals(1, histogram.getPercentile(0));
+    assertEquals(20, histogram.getMax());
+    assertEquals(10.5, histogram.getMean(), 1e-9);
+    assertEquals("p50 10, p95 19, p99 20, max 20", histogram.toString());
+  }
+
+  /**
+   * This test is used to test that the percentiles of long times are within the width of a
+   * bucket of the exact ones, and that adding histograms gives the same as recording all times
+   * in one.
+   */
+  @Test
+  public void testLongTimesAndAdd() {
+    Random random = new Random(19);
+    long[] times = new long[10_000];
+    LatencyHistogram all = new LatencyHistogram();
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    for (int i = 0; i < times.length; i++) {
+      times[i] = (long) Math.exp(random.nextDouble() * 25);
+      all.record(times[i]);
+      (i % 2 == 0 ? first : second).record(times[i]);
+    }
+    first.add(second);
+    Arrays.sort(times);
+    for (double percentile : new double[] {50, 95, 99}) {
+      long exact = times[(int) Math.ceil(percentile / 100 * times.length) - 1];
+      long estimate = all.getPercentile(percentile);
+      assertTrue(percentile + ": " + estimate + " for " + exact,
+          estimate >= exact && estimate <= exact + exact / 32);
+      assertEquals(estimate, first.getPercentile(percentile));
+    }
+    assertEquals(times[times.length - 1], all.getPercentile(100));
+    assertEquals(all.getCount(), first.getCount());
+    assertEquals(all.getMean(), first.getMean(), 1e-6);
+  }
+
+  /**
+   * This test is used to test that a negative time is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTime() {
+    new LatencyHistogram().record(-1);
+  }
+
+  /**
+   * This test is used to test that a percentile above 100 is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testPercentileOutOfRange() {
+    new LatencyHistogram().getPercentile(101);
+  }
+}
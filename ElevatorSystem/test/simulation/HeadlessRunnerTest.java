@@ -0,0 +1,79 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.BuildingInterface;
+import building.enums.ElevatorSystemStatus;
+import org.junit.Test;
+
+/**
+ * This class is used to test the HeadlessRunner class. It contains tests for runs with and
+ * without traffic, and for repeating a run with the same seed.
+ */
+public class HeadlessRunnerTest {
+
+  /**
+   * This test is used to test a run without traffic.
+   */
+  @Test
+  public void testRunWithoutTraffic() {
+    BuildingInterface building = new Building(6, 2, 3);
+    building.startElevatorSystem();
+    RunReport report = new HeadlessRunner(building).run(1000);
+    assertEquals(1000, report.getTicks());
+    assertEquals(0, report.getRequestsOffered());
+    assertEquals(ElevatorSystemStatus.running, report.getBuildingReport().getSystemStatus());
+    assertTrue(report.getTicksPerSecond() > 0);
+  }
+
+  /**
+   * This test is used to test that a run with traffic offers about the expected number of
+   * requests, and that the same seed gives the same run.
+   */
+  @Test
+  public void testRunWithTrafficIsRepeatable() {
+    BuildingInterface first = new Building(10, 4, 5);
+    BuildingInterface second = new Building(10, 4, 5);
+    first.startElevatorSystem();
+    second.startElevatorSystem();
+    RunReport firstReport = new HeadlessRunner(first, 0.2, 42).run(10_000);
+    RunReport secondReport = new HeadlessRunner(second, 0.2, 42).run(10_000);
+    // About 2000 arrivals are expected.
+    assertTrue(firstReport.getRequestsOffered() > 1800);
+    assertTrue(firstReport.getRequestsOffered() < 2200);
+    assertEquals(firstReport.getRequestsOffered(), firstReport.getRequestsAccepted());
+    assertEquals(firstReport.getRequestsOffered(), secondReport.getRequestsOffered());
+    assertEquals(first.getElevatorSystemStatus().toString(),
+        second.getElevatorSystemStatus().toString());
+  }
+
+  /**
+   * This test is used to test that a building that is out of service does not accept requests.
+   */
+  @Test
+  public void testRunOutOfService() {
+    BuildingInterface building = new Building(6, 2, 3);
+    RunReport report = new HeadlessRunner(building, 1.0, 1).run(100);
+    assertTrue(report.getRequestsOffered() > 0);
+    assertEquals(0, report.getRequestsAccepted());
+  }
+
+  /**
+   * This test is used to test that the arrival rate cannot be negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeRate() {
+    new HeadlessRunner(new Building(6, 2, 3), -1, 0);
+  }
+
+  /**
+   * This test is used to test that the arrival rate cannot be infinite, which would never let
+   * a step end.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInfiniteRate() {
+    new HeadlessRunner(new Building(6, 2, 3), Double.POSITIVE_INFINITY, 0);
+  }
+}
@@ -0,0 +1,174 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.enums.ElevatorSystemStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import scanerzus.Request;
+import org.junit.Test;
+
+/**
+ * This class is used to test the SimulationClock class, for the rate of its ticks and frames, for
+ * changing the rate while it runs, and for commands run on the clock thread.
+ */
+public class SimulationClockTest {
+
+  /**
+   * Wait until a clock has run a number of ticks, for at most ten seconds.
+   */
+  private static void awaitTicks(SimulationClock clock, long ticks) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (clock.getTicks() < ticks && System.nanoTime() - deadline < 0) {
+      Thread.sleep(1);
+    }
+  }
+
+  /**
+   * This test is used to test that an unthrottled clock steps a building many times per frame,
+   * and that the building is not stepped after the clock is stopped.
+   */
+  @Test
+  public void testUnthrottledClock() throws InterruptedException {
+    Building building = new Building(10, 4, 5);
+    building.startElevatorSystem();
+    // The clock thread steps the building from now on.
+    building.releaseOwnership();
+    AtomicInteger frames = new AtomicInteger();
+    SimulationClock clock = new SimulationClock(building::step, SimulationClock.UNTHROTTLED,
+        frames::incrementAndGet, TimeUnit.MILLISECONDS.toNanos(50));
+    long start = System.nanoTime();
+    clock.start();
+    assertTrue(clock.isRunning());
+    awaitTicks(clock, 20_000);
+    clock.stop();
+    long elapsed = System.nanoTime() - start;
+    assertFalse(clock.isRunning());
+    long ticks = clock.getTicks();
+    assertTrue(ticks >= 20_000);
+    assertTrue(frames.get() >= 1);
+    assertTrue(frames.get() <= elapsed / TimeUnit.MILLISECONDS.toNanos(50) + 1);
+    Thread.sleep(20);
+    assertEquals(ticks, clock.getTicks());
+  }
+
+  /**
+   * This test is used to test that ticks that take most of their period do not make the clock
+   * drift.
+   */
+  @Test
+  public void testFixedRateDoesNotDrift() throws InterruptedException {
+    long period = TimeUnit.MILLISECONDS.toNanos(10);
+    SimulationClock clock = new SimulationClock(() -> {
+      try {
+        Thread.sleep(6);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, period, () -> { }, 0);
+    long start = System.nanoTime();
+    clock.start();
+    awaitTicks(clock, 31);
+    long elapsed = System.nanoTime() - start;
+    clock.stop();
+    // The 31st tick is due 300 ms after the start and takes 6 ms. A clock that waited a whole
+    // period after each tick would need about 480 ms.
+    assertTrue(elapsed >= 30 * period);
+    assertTrue("took " + elapsed + " ns",
+        elapsed < 30 * period + TimeUnit.MILLISECONDS.toNanos(120));
+  }
+
+  /**
+   * This test is used to test that a clock waiting for a long tick takes a shorter period at
+   * once.
+   */
+  @Test
+  public void testChangeTickPeriod() throws InterruptedException {
+    SimulationClock clock = new SimulationClock(() -> { }, TimeUnit.HOURS.toNanos(1),
+        () -> { }, 0);
+    clock.start();
+    awaitTicks(clock, 1);
+    assertEquals(1, clock.getTicks());
+    clock.setTickNanos(SimulationClock.UNTHROTTLED);
+    assertEquals(SimulationClock.UNTHROTTLED, clock.getTickNanos());
+    awaitTicks(clock, 1000);
+    clock.stop();
+    assertTrue(clock.getTicks() >= 1000);
+  }
+
+  /**
+   * This test is used to test that commands run in order on the clock thread, and that a clock
+   * waiting for a long tick runs them at once.
+   */
+  @Test
+  public void testCommands() throws InterruptedException {
+    Building building = new Building(10, 4, 5);
+    SimulationClock clock = new SimulationClock(building::step, TimeUnit.HOURS.toNanos(1),
+        () -> { }, 0);
+    List<Integer> order = new ArrayList<>();
+    List<String> threads = new ArrayList<>();
+    CountDownLatch done = new CountDownLatch(1);
+    // Commands submitted before the start wait for it.
+    clock.submit(building::startElevatorSystem);
+    clock.start();
+    awaitTicks(clock, 1);
+    // The status is read on the clock thread, which steps the building.
+    List<ElevatorSystemStatus> status = new ArrayList<>();
+    clock.submit(() -> status.add(building.getElevatorSystemStatus().getSystemStatus()));
+    for (int i = 0; i < 100; i++) {
+      int command = i;
+      clock.submit(() -> {
+        order.add(command);
+        threads.add(Thread.currentThread().getName());
+        building.addRequest(new Request(command % 10, (command + 1) % 10));
+      });
+    }
+    clock.submit(done::countDown);
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    clock.stop();
+    assertEquals(1, clock.getTicks());
+    assertEquals(ElevatorSystemStatus.running, status.get(0));
+    assertEquals(100, order.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, (int) order.get(i));
+      assertEquals("simulation clock", threads.get(i));
+    }
+  }
+
+  /**
+   * This test is used to test that a null command is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullCommand() {
+    new SimulationClock(() -> { }, 0, () -> { }, 0).submit(null);
+  }
+
+  /**
+   * This test is used to test that a clock cannot be started twice.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testStartTwice() {
+    SimulationClock clock = new SimulationClock(() -> { }, TimeUnit.HOURS.toNanos(1),
+        () -> { }, 0);
+    clock.start();
+    try {
+      clock.start();
+    } finally {
+      clock.stop();
+    }
+  }
+
+  /**
+   * This test is used to test that a negative period is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePeriod() {
+    new SimulationClock(() -> { }, -1, () -> { }, 0);
+  }
+}
@@ -0,0 +1,150 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.Building;
+import building.BuildingInterface;
+import building.dispatch.CollectiveDispatchStrategy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This class is used to test the SimulationEngine class. It contains tests for running buildings
+ * of different sizes together, for the report of the run and for a building failing mid-run.
+ */
+public class SimulationEngineTest {
+
+  /**
+   * Make buildings of different sizes, started and with the same random requests waiting.
+   */
+  private static List<Building> campus(int count, long seed) {
+    Random random = new Random(seed);
+    List<Building> buildings = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int floors = 3 + random.nextInt(28);
+      int elevators = 1 + random.nextInt(12);
+      Building building = i % 2 == 0 ? new Building(floors, elevators, 5)
+          : new Building(floors, elevators, 5, new CollectiveDispatchStrategy());
+      building.startElevatorSystem();
+      for (int r = random.nextInt(50); r > 0; r--) {
+        int start = random.nextInt(floors);
+        building.addRequest(new Request(start, (start + 1 + random.nextInt(floors - 1)) % floors));
+      }
+      buildings.add(building);
+    }
+    return buildings;
+  }
+
+  /**
+   * This test is used to test that running buildings together on several threads, with any round
+   * length, gives the same result as stepping each building on its own.
+   */
+  @Test
+  public void testRunMatchesSerial() {
+    List<Building> expected = campus(20, 7);
+    for (Building building : expected) {
+      for (int i = 0; i < 500; i++) {
+        building.step();
+      }
+    }
+    for (int ticksPerRound : new int[] {1, 7, 1000}) {
+      List<Building> actual = campus(20, 7);
+      SimulationEngine engine = new SimulationEngine(actual, 4, ticksPerRound);
+      assertEquals(4, engine.getThreads());
+      engine.run(200);
+      CampusReport report = engine.run(300);
+      assertEquals(500, engine.getTick());
+      assertEquals(300, report.getTicks());
+      assertEquals(20, report.getNumBuildings());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i).getElevatorSystemStatus().toString(),
+            report.getBuildingReports().get(i).toString());
+      }
+    }
+  }
+
+  /**
+   * This test is used to test that the report of a run adds up the buildings.
+   */
+  @Test
+  public void testReport() {
+    List<Building> buildings = campus(5, 3);
+    buildings.get(4).stopElevatorSystem();
+    int elevators = 0;
+    for (Building building : buildings) {
+      elevators += building.getElevatorSystemStatus().getNumElevators();
+    }
+    CampusReport report = new SimulationEngine(buildings, 16, 1).run(0);
+    assertEquals(5, report.getThreads());
+    assertEquals(elevators, report.getNumElevators());
+    assertEquals(4, report.getBuildingsRunning());
+    int up = 0;
+    int down = 0;
+    for (Building building : buildings) {
+      up += building.getElevatorSystemStatus().getUpRequests().size();
+      down += building.getElevatorSystemStatus().getDownRequests().size();
+    }
+    assertEquals(up, report.getPendingUpRequests());
+    assertEquals(down, report.getPendingDownRequests());
+    assertTrue(report.toString().startsWith("Campus Report:\n"));
+  }
+
+  /**
+   * This test is used to test that a building failing stops the run on every thread.
+   */
+  @Test
+  public void testFailingBuildingStopsRun() {
+    List<BuildingInterface> buildings = new ArrayList<>(campus(6, 11));
+    buildings.add(new Building(5, 1, 3) {
+      private int steps;
+
+      @Override
+      public void step() {
+        if (++this.steps == 10) {
+          throw new IllegalStateException("broken");
+        }
+        super.step();
+      }
+    });
+    SimulationEngine engine = new SimulationEngine(buildings, 3, 1);
+    try {
+      engine.run(1000);
+      fail("The run should have failed.");
+    } catch (IllegalStateException e) {
+      assertEquals("broken", e.getCause().getMessage());
+    }
+    assertEquals(0, engine.getTick());
+  }
+
+  /**
+   * This test is used to test that the engine needs buildings.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoBuildings() {
+    new SimulationEngine(Collections.emptyList());
+  }
+
+  /**
+   * This test is used to test that the engine refuses to run the same building twice.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSameBuildingTwice() {
+    List<Building> buildings = campus(3, 5);
+    buildings.add(buildings.get(1));
+    new SimulationEngine(buildings, 2, 1);
+  }
+
+  /**
+   * This test is used to test that the engine needs at least one thread.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new SimulationEngine(campus(2, 1), 0, 1);
+  }
+}
@@ -0,0 +1,150 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.BuildingReport;
+import building.dispatch.CollectiveDispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
+import elevator.ElevatorReport;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scanerzus.Request;
+import simulation.trace.TraceReader;
+import simulation.trace.TraceWriter;
+import simulation.trace.TrafficPattern;
+import simulation.trace.WorkloadGenerator;
+
+/**
+ * This class is used to test the TraceReplayer class. It contains tests for replaying a trace in
+ * one run and in several, for requests outside the building, for a trace out of order and for
+ * generated traffic.
+ */
+public class TraceReplayerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * This test is used to test that replaying a trace, in one run or in several, gives the same
+   * building as adding the requests by hand on their ticks.
+   */
+  @Test
+  public void testReplayMatchesHandRun() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("day.trace");
+    Building expected = new Building(10, 3, 5);
+    expected.startElevatorSystem();
+    Random random = new Random(17);
+    int records = 0;
+    try (TraceWriter writer = new TraceWriter(path)) {
+      for (int tick = 0; tick < 5000; tick++) {
+        while (random.nextInt(8) == 0) {
+          int start = random.nextInt(10);
+          int end = (start + 1 + random.nextInt(9)) % 10;
+          writer.write(tick, start, end);
+          expected.addRequest(new Request(start, end));
+          records++;
+        }
+        expected.step();
+      }
+    }
+
+    for (int parts : new int[] {1, 7}) {
+      Building actual = new Building(10, 3, 5);
+      actual.startElevatorSystem();
+      long offered = 0;
+      try (TraceReader trace = TraceReader.open(path)) {
+        TraceReplayer replayer = new TraceReplayer(actual, trace);
+        for (int part = 0; part < parts; part++) {
+          int ticks = 5000 / parts + (part < 5000 % parts ? 1 : 0);
+          RunReport report = replayer.run(ticks);
+          assertEquals(report.getRequestsOffered(), report.getRequestsAccepted());
+          offered += report.getRequestsOffered();
+        }
+        assertTrue(replayer.isFinished());
+      }
+      assertEquals(records, offered);
+      assertEquals(expected.getElevatorSystemStatus().toString(),
+          actual.getElevatorSystemStatus().toString());
+    }
+  }
+
+  /**
+   * This test is used to test that records of the trace after the run are kept for the next run,
+   * and that requests between floors the building does not have are not accepted.
+   */
+  @Test
+  public void testRecordsAfterRunAndOutsideBuilding() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("day.csv");
+    Files.write(path, "2,0,3\n5,0,12\n5,4,4\n9,1,0\n".getBytes(StandardCharsets.UTF_8));
+    Building building = new Building(6, 1, 3);
+    building.startElevatorSystem();
+    try (TraceReader trace = TraceReader.open(path)) {
+      TraceReplayer replayer = new TraceReplayer(building, trace);
+      RunReport first = replayer.run(9);
+      assertEquals(3, first.getRequestsOffered());
+      assertEquals(1, first.getRequestsAccepted());
+      assertFalse(replayer.isFinished());
+      RunReport second = replayer.run(1);
+      assertEquals(1, second.getRequestsOffered());
+      assertTrue(replayer.isFinished());
+    }
+  }
+
+  /**
+   * This test is used to test that a trace that goes back in time is refused.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testTraceOutOfOrder() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("day.csv");
+    Files.write(path, "5,0,3\n2,0,3\n".getBytes(StandardCharsets.UTF_8));
+    Building building = new Building(6, 1, 3);
+    building.startElevatorSystem();
+    try (TraceReader trace = TraceReader.open(path)) {
+      new TraceReplayer(building, trace).run(10);
+    }
+  }
+
+  /**
+   * This test is used to test that a building with either dispatch strategy accepts every request
+   * of each traffic pattern at a realistic load, and has served them all a while after the
+   * traffic stops.
+   */
+  @Test
+  public void testGeneratedTraffic() {
+    for (TrafficPattern pattern : TrafficPattern.values()) {
+      for (boolean collective : new boolean[] {true, false}) {
+        Building building = new Building(12, 4, 8, collective
+            ? new CollectiveDispatchStrategy() : new TerminalDispatchStrategy());
+        building.startElevatorSystem();
+        TraceReplayer replayer = new TraceReplayer(building,
+            new WorkloadGenerator(pattern, 12, 0.1, 10_000, pattern.ordinal()));
+        RunReport busy = replayer.run(10_000);
+        assertTrue(pattern + ": " + busy.getRequestsOffered(), busy.getRequestsOffered() > 800);
+        assertEquals(busy.getRequestsOffered(), busy.getRequestsAccepted());
+        assertTrue(replayer.isFinished());
+
+        RunReport quietRun = replayer.run(2000);
+        // Every passenger has been dropped off.
+        assertEquals(pattern.toString(), busy.getRequestsAccepted(),
+            quietRun.getJourneyStats().getJourneys());
+        BuildingReport quiet = quietRun.getBuildingReport();
+        assertEquals(pattern.toString(), 0,
+            quiet.getUpRequests().size() + quiet.getDownRequests().size());
+        for (ElevatorReport elevator : quiet.getElevatorReports()) {
+          for (boolean stop : elevator.getFloorRequests()) {
+            assertFalse(pattern.toString(), stop);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package simulation.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class is used to test the trace readers and the TraceWriter. It contains tests for each
+ * format, for records that cross the window of the mapped file and for malformed files.
+ */
+public class TraceReaderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path write(String name, String text) throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve(name);
+    Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  private static void assertRecord(TraceReader reader, int tick, int startFloor, int endFloor) {
+    assertTrue(reader.next());
+    assertEquals(tick, reader.getTick());
+    assertEquals(startFloor, reader.getStartFloor());
+    assertEquals(endFloor, reader.getEndFloor());
+  }
+
+  /**
+   * This test is used to test that a binary trace reads back what was written, also when the
+   * file is mapped in windows that end in the middle of a record.
+   */
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("day.trace");
+    try (TraceWriter writer = new TraceWriter(path)) {
+      for (int i = 0; i < 20_000; i++) {
+        writer.write(i * 3, i % 30, (i + 7) % 30);
+      }
+    }
+    assertEquals(8 + 20_000 * 8, Files.size(path));
+    for (int window : new int[] {MappedInput.DEFAULT_WINDOW, 4096, 13}) {
+      try (TraceReader reader = new BinaryTraceReader(path, window)) {
+        for (int i = 0; i < 20_000; i++) {
+          assertRecord(reader, i * 3, i % 30, (i + 7) % 30);
+        }
+        assertFalse(reader.next());
+        assertFalse(reader.next());
+      }
+    }
+    try (TraceReader reader = TraceReader.open(path)) {
+      assertRecord(reader, 0, 0, 7);
+    }
+  }
+
+  /**
+   * This test is used to test that an empty binary trace has no records.
+   */
+  @Test
+  public void testBinaryEmpty() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("empty.trace");
+    new TraceWriter(path).close();
+    try (TraceReader reader = TraceReader.open(path)) {
+      assertFalse(reader.next());
+    }
+  }
+
+  /**
+   * This test is used to test that a file that is not a binary trace is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBinaryBadMagic() throws IOException {
+    TraceReader.open(this.write("notes.trace", "not a trace file")).close();
+  }
+
+  /**
+   * This test is used to test that a binary trace cut in the middle of a record is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBinaryTruncated() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("cut.trace");
+    try (TraceWriter writer = new TraceWriter(path)) {
+      writer.write(1, 2, 3);
+    }
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+    TraceReader.open(path).close();
+  }
+
+  /**
+   * This test is used to test reading a CSV trace with a header, spaces, blank lines and both
+   * kinds of line ends, with a window small enough to cut numbers in two.
+   */
+  @Test
+  public void testCsv() throws IOException {
+    Path path = this.write("day.csv",
+        "tick,startFloor,endFloor\r\n0,0,5\r\n 12 , 3 ,1\n\n40,7,0");
+    for (int window : new int[] {MappedInput.DEFAULT_WINDOW, 3}) {
+      try (TraceReader reader = new CsvTraceReader(path, window)) {
+        assertRecord(reader, 0, 0, 5);
+        assertRecord(reader, 12, 3, 1);
+        assertRecord(reader, 40, 7, 0);
+        assertFalse(reader.next());
+      }
+    }
+  }
+
+  /**
+   * This test is used to test that a malformed CSV line is reported with its line number.
+   */
+  @Test
+  public void testCsvMalformed() throws IOException {
+    try (TraceReader reader = TraceReader.open(this.write("bad.csv", "1,2,3\n4;5;6\n"))) {
+      assertRecord(reader, 1, 2, 3);
+      reader.next();
+      fail("The second line is malformed.");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().contains("line 2"));
+    }
+  }
+
+  /**
+   * This test is used to test reading a JSON Lines trace.
+   */
+  @Test
+  public void testJsonl() throws IOException {
+    Path path = this.write("day.jsonl",
+        "{\"tick\": 0, \"startFloor\": 0, \"endFloor\": 5}\n"
+            + "\n"
+            + "{\"endFloor\": 1, \"tick\": 12, \"startFloor\": 3, \"badge\": \"A17\"}\r\n"
+            + "{\"tick\": 40, \"startFloor\": 7, \"endFloor\": 0}");
+    for (int window : new int[] {MappedInput.DEFAULT_WINDOW, 5}) {
+      try (TraceReader reader = new JsonlTraceReader(path, window)) {
+        assertRecord(reader, 0, 0, 5);
+        assertRecord(reader, 12, 3, 1);
+        assertRecord(reader, 40, 7, 0);
+        assertFalse(reader.next());
+      }
+    }
+  }
+
+  /**
+   * This test is used to test that a JSON line without a field is reported with its line number.
+   */
+  @Test
+  public void testJsonlMalformed() throws IOException {
+    try (TraceReader reader = TraceReader.open(
+        this.write("bad.jsonl", "{\"tick\": 0, \"startFloor\": 0}\n"))) {
+      reader.next();
+      fail("The line has no end floor.");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().contains("line 1"));
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package simulation.trace;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class is used to test the WorkloadGenerator class. It contains tests for the arrival rate,
+ * for where the requests of each pattern start and end, and for repeating and saving traffic.
+ */
+public class WorkloadGeneratorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Count the requests of a generator by start floor and end floor, checking that the ticks are
+   * in order and within the run.
+   *
+   * @return counts[start][end].
+   */
+  private static long[][] count(WorkloadGenerator generator, int floors, int ticks) {
+    long[][] counts = new long[floors][floors];
+    int lastTick = 0;
+    while (generator.next()) {
+      assertTrue(generator.getTick() >= lastTick);
+      assertTrue(generator.getTick() < ticks);
+      assertTrue(generator.getStartFloor() != generator.getEndFloor());
+      lastTick = generator.getTick();
+      counts[generator.getStartFloor()][generator.getEndFloor()]++;
+    }
+    assertFalse(generator.next());
+    return counts;
+  }
+
+  private static long total(long[][] counts) {
+    long total = 0;
+    for (long[] row : counts) {
+      for (long count : row) {
+        total += count;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * This test is used to test that every pattern has about the expected number of arrivals.
+   */
+  @Test
+  public void testArrivalRate() {
+    for (TrafficPattern pattern : TrafficPattern.values()) {
+      long total = total(count(new WorkloadGenerator(pattern, 10, 0.5, 100_000, 1), 10, 100_000));
+      // 50000 arrivals are expected, with a standard deviation of about 224.
+      assertTrue(pattern + ": " + total, Math.abs(total - 50_000) < 1500);
+    }
+  }
+
+  /**
+   * This test is used to test where the requests of each pattern start and end.
+   */
+  @Test
+  public void testPatterns() {
+    long[][] up = count(new WorkloadGenerator(TrafficPattern.UP_PEAK, 8, 0.3, 50_000, 2), 8,
+        50_000);
+    assertEquals(total(up), sum(up, 0, 1, 0, 8));
+
+    long[][] down = count(new WorkloadGenerator(TrafficPattern.DOWN_PEAK, 8, 0.3, 50_000, 3), 8,
+        50_000);
+    assertEquals(total(down), sum(down, 1, 8, 0, 1));
+    for (int floor = 1; floor < 8; floor++) {
+      // Every upper floor has about a seventh of the arrivals.
+      assertTrue(Math.abs(sum(down, floor, floor + 1, 0, 1) * 7.0 / total(down) - 1) < 0.1);
+    }
+
+    long[][] lunch = count(new WorkloadGenerator(TrafficPattern.LUNCH, 8, 0.3, 50_000, 4), 8,
+        50_000);
+    double fromLobby = (double) sum(lunch, 0, 1, 0, 8) / total(lunch);
+    double toLobby = (double) sum(lunch, 1, 8, 0, 1) / total(lunch);
+    assertEquals(0.5, fromLobby, 0.02);
+    assertEquals(0.45, toLobby, 0.02);
+
+    long[][] uniform = count(new WorkloadGenerator(TrafficPattern.UNIFORM, 8, 0.3, 50_000, 5), 8,
+        50_000);
+    for (int floor = 0; floor < 8; floor++) {
+      assertTrue(Math.abs(sum(uniform, floor, floor + 1, 0, 8) * 8.0 / total(uniform) - 1) < 0.1);
+    }
+  }
+
+  private static long sum(long[][] counts, int fromStart, int toStart, int fromEnd, int toEnd) {
+    long sum = 0;
+    for (int start = fromStart; start < toStart; start++) {
+      for (int end = fromEnd; end < toEnd; end++) {
+        sum += counts[start][end];
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * This test is used to test that only floors with an arrival rate get arrivals.
+   */
+  @Test
+  public void testRatesPerFloor() {
+    double[] rates = {0, 0, 0.2, 0, 0.2};
+    long[][] counts = count(new WorkloadGenerator(TrafficPattern.UNIFORM, rates, 10_000, 6), 5,
+        10_000);
+    assertTrue(total(counts) > 0);
+    assertEquals(total(counts), sum(counts, 2, 3, 0, 5) + sum(counts, 4, 5, 0, 5));
+  }
+
+  /**
+   * This test is used to test that the same seed gives the same traffic, and that traffic written
+   * to a trace file reads back the same.
+   */
+  @Test
+  public void testRepeatAndWrite() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("lunch.trace");
+    long written;
+    try (TraceWriter writer = new TraceWriter(path)) {
+      written = new WorkloadGenerator(TrafficPattern.LUNCH, 12, 0.4, 5000, 9).writeTo(writer);
+    }
+    assertTrue(written > 0);
+    WorkloadGenerator again = new WorkloadGenerator(TrafficPattern.LUNCH, 12, 0.4, 5000, 9);
+    try (TraceReader reader = TraceReader.open(path)) {
+      for (long i = 0; i < written; i++) {
+        assertTrue(again.next());
+        assertTrue(reader.next());
+        assertArrayEquals(
+            new int[] {again.getTick(), again.getStartFloor(), again.getEndFloor()},
+            new int[] {reader.getTick(), reader.getStartFloor(), reader.getEndFloor()});
+      }
+      assertFalse(again.next());
+      assertFalse(reader.next());
+    }
+  }
+
+  /**
+   * This test is used to test that a negative arrival rate is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeRate() {
+    new WorkloadGenerator(TrafficPattern.UNIFORM, 10, -0.1, 100, 0);
+  }
+
+  /**
+   * This test is used to test that a building needs at least two floors of traffic.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOneFloor() {
+    new WorkloadGenerator(TrafficPattern.UNIFORM, new double[] {0.5}, 100, 0);
+  }
+}